@@ -14,7 +14,7 @@ import Data_Structures.Beverage.TYPE;
 public class Alcohol extends Beverage
 {
 	private boolean WeekendAvailability = false;
-	private final double WEEKENDCHARGE = .60;
+	static final double WEEKENDCHARGE = .60;
 	
 	/**
 	 * Standard constructor to build an Alcohol object
@@ -28,6 +28,26 @@ public class Alcohol extends Beverage
 		this.WeekendAvailability = WeekendAvailability;
 	}
 	
+	/**
+	 * Copy constructor for an Alcohol object
+	 * @param o2 object to copy
+	 */
+	public Alcohol(Alcohol o2)
+	{
+		super(o2);
+		this.WeekendAvailability = o2.WeekendAvailability;
+	}
+	
+	/**
+	 * Method used to make an independent copy of the drink
+	 * @return a Alcohol, the copy of the drink
+	 */
+	@Override
+	public Alcohol copy()
+	{
+		return new Alcohol(this);
+	}
+	
 	/**
 	 * toString method used to print out the pertinent information about each drink
 	 * @return a string, the information about the drink
@@ -39,30 +59,13 @@ public class Alcohol extends Beverage
 	}
 	
 	/**
-	 * Method for calculating the price of each individual drink
-	 * @return a double, the price of the drink
+	 * Method for getting the alcohol options as PricingEngine flags
+	 * @return an int, the option flags of the drink
 	 */
 	@Override
-	public double calcPrice()
+	public int getOptionFlags()
 	{
-		double sum = 0;
-		
-		switch (this.getSize())
-		{
-			case SMALL: sum += this.SMALL_PRICE;
-						break;
-			case MEDIUM: sum += this.MEDIUM_PRICE;
-						break;
-			case LARGE: sum += this.LARGE_PRICE;
-						break;
-		}
-		
-		if (WeekendAvailability)
-		{
-			sum += WEEKENDCHARGE;
-		}
-		
-		return sum;
+		return PricingEngine.alcoholFlags(WeekendAvailability);
 	}
 	
 	/**
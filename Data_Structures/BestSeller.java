@@ -0,0 +1,102 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Beverage.TYPE;
+
+/**
+ * This class represents one entry of a best-seller list: a beverage and how many were sold, as estimated by a
+ * BestSellerSketch. The true number sold is between getMinCount() and getCount().
+ */
+public class BestSeller
+{
+	private final String bevName;
+	private final TYPE type;
+	private final SIZE size;
+	private final long count;
+	private final long error;
+
+	/**
+	 * Standard constructor to build a BestSeller
+	 * @param bevName the beverage name
+	 * @param type the beverage type
+	 * @param size the beverage size, or null if every size is counted together
+	 * @param count the estimated number sold, never below the true number
+	 * @param error the most the estimate can be above the true number
+	 */
+	public BestSeller(String bevName, TYPE type, SIZE size, long count, long error)
+	{
+		this.bevName = bevName;
+		this.type = type;
+		this.size = size;
+		this.count = count;
+		this.error = error;
+	}
+
+	/**
+	 * Getter to get the beverage name
+	 * @return a String, the beverage name
+	 */
+	public String getBevName()
+	{
+		return bevName;
+	}
+
+	/**
+	 * Getter to get the beverage type
+	 * @return a TYPE, the beverage type
+	 */
+	public TYPE getType()
+	{
+		return type;
+	}
+
+	/**
+	 * Getter to get the beverage size
+	 * @return a SIZE, the beverage size, or null if every size is counted together
+	 */
+	public SIZE getSize()
+	{
+		return size;
+	}
+
+	/**
+	 * Getter to get the estimated number sold
+	 * @return a long, the estimate, never below the true number sold
+	 */
+	public long getCount()
+	{
+		return count;
+	}
+
+	/**
+	 * Getter to get the most the estimate can be above the true number sold
+	 * @return a long, the error
+	 */
+	public long getError()
+	{
+		return error;
+	}
+
+	/**
+	 * Getter to get the number sold for certain
+	 * @return a long, the count minus the error
+	 */
+	public long getMinCount()
+	{
+		return count - error;
+	}
+
+	/**
+	 * toString method used to print out the beverage and its count
+	 * @return a String, the beverage and its count
+	 */
+	@Override
+	public String toString()
+	{
+		return bevName + " (" + type + (size == null ? "" : ", " + size) + "): " + count + (error == 0 ? "" : " +/- " + error);
+	}
+}
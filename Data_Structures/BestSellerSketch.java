@@ -0,0 +1,308 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Beverage.TYPE;
+
+/**
+ * This class represents a Space-Saving sketch of the best-selling beverages, which keeps a fixed number of counters
+ * however many beverages are sold. A beverage is keyed on its name, type and (optionally) size. Sold beverages that
+ * already have a counter increment it; a new beverage takes over the counter with the smallest count, inheriting
+ * that count as its error. The counters are kept in a min-heap and found through an open-addressing table, so a
+ * sale costs O(log capacity) and a top-N query only sorts the counters.
+ *
+ * Error bounds, with N beverages sold and C counters: every reported count is at most its error above the true
+ * count, and the error is at most N / C. Any beverage sold more than N / C times is guaranteed to be reported.
+ */
+public class BestSellerSketch
+{
+	private static final int ANY_SIZE = 0xF;
+	private static final int EMPTY = -1;
+	private static final TYPE[] TYPES = TYPE.values();
+	private static final SIZE[] SIZES = SIZE.values();
+
+	private final int capacity;
+	private final boolean bySize;
+	private final long[] keys;
+	private final long[] counts;
+	private final long[] errors;
+	private final int[] heap;
+	private final int[] heapPos;
+	private final long[] tableKeys;
+	private final int[] tableSlots;
+	private final int tableMask;
+	private int used;
+	private long total;
+
+	/**
+	 * Standard constructor to build a BestSellerSketch
+	 * @param capacity the number of counters, which bounds the error to the number of sales over capacity
+	 * @param bySize whether beverages of different sizes are counted apart
+	 */
+	public BestSellerSketch(int capacity, boolean bySize)
+	{
+		if (capacity < 1)
+		{
+			throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+		}
+		this.capacity = capacity;
+		this.bySize = bySize;
+		this.keys = new long[capacity];
+		this.counts = new long[capacity];
+		this.errors = new long[capacity];
+		this.heap = new int[capacity];
+		this.heapPos = new int[capacity];
+
+		int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+		this.tableKeys = new long[tableSize];
+		this.tableSlots = new int[tableSize];
+		this.tableMask = tableSize - 1;
+		Arrays.fill(tableSlots, EMPTY);
+	}
+
+	/**
+	 * Method used to count a sold beverage
+	 * @param bev the beverage
+	 */
+	public void add(Beverage bev)
+	{
+		add(bev.getBevNameId(), bev.getType(), bev.getSize());
+	}
+
+	/**
+	 * Method used to count a sold beverage
+	 * @param bevNameId the menu catalog id of the beverage name
+	 * @param type the beverage type
+	 * @param size the beverage size
+	 */
+	public void add(int bevNameId, TYPE type, SIZE size)
+	{
+		long key = ((long) bevNameId << 8) | (type.ordinal() << 4) | (bySize ? size.ordinal() : ANY_SIZE);
+		total++;
+
+		int counter = lookup(key);
+		if (counter != EMPTY)
+		{
+			counts[counter]++;
+			siftDown(heapPos[counter]);
+		}
+		else if (used < capacity)
+		{
+			counter = used++;
+			keys[counter] = key;
+			counts[counter] = 1;
+			errors[counter] = 0;
+			heap[counter] = counter;
+			heapPos[counter] = counter;
+			siftUp(counter);
+			insert(key, counter);
+		}
+		else
+		{
+			counter = heap[0];
+			remove(keys[counter]);
+			errors[counter] = counts[counter];
+			counts[counter]++;
+			keys[counter] = key;
+			insert(key, counter);
+			siftDown(0);
+		}
+	}
+
+	/**
+	 * Method used to get the best sellers, most sold first
+	 * @param n the number of best sellers wanted
+	 * @return a List of BestSeller, at most n best sellers
+	 */
+	public List<BestSeller> getTop(int n)
+	{
+		Integer[] order = new Integer[used];
+		for (int i = 0; i < used; i++)
+		{
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> counts[a] != counts[b] ? Long.compare(counts[b], counts[a]) : Long.compare(errors[a], errors[b]));
+
+		int size = Math.min(Math.max(n, 0), used);
+		ArrayList<BestSeller> top = new ArrayList<BestSeller>(size);
+		for (int i = 0; i < size; i++)
+		{
+			int counter = order[i];
+			long key = keys[counter];
+			int sizeSlot = (int) (key & 0xF);
+			top.add(new BestSeller(MenuCatalog.nameOf((int) (key >>> 8)), TYPES[(int) ((key >>> 4) & 0xF)],
+									sizeSlot == ANY_SIZE ? null : SIZES[sizeSlot], counts[counter], errors[counter]));
+		}
+		return top;
+	}
+
+	/**
+	 * Getter to get the number of beverages counted
+	 * @return a long, the number of beverages
+	 */
+	public long getTotal()
+	{
+		return total;
+	}
+
+	/**
+	 * Getter to get the largest error of any count, which is also the most a beverage that is not reported can have sold
+	 * @return a long, 0 while every beverage still has its own counter, otherwise the smallest count (at most getTotal() / getCapacity())
+	 */
+	public long getMaxError()
+	{
+		return used < capacity ? 0 : counts[heap[0]];
+	}
+
+	/**
+	 * Getter to get the number of counters
+	 * @return an int, the capacity
+	 */
+	public int getCapacity()
+	{
+		return capacity;
+	}
+
+	/**
+	 * Method used to find the counter of a key
+	 * @param key the key
+	 * @return an int, the counter, or -1 if the key has none
+	 */
+	private int lookup(long key)
+	{
+		int i = home(key);
+		int counter;
+		while ((counter = tableSlots[i]) != EMPTY)
+		{
+			if (tableKeys[i] == key)
+			{
+				return counter;
+			}
+			i = (i + 1) & tableMask;
+		}
+		return EMPTY;
+	}
+
+	/**
+	 * Method used to add a key that has no counter yet to the table
+	 * @param key the key
+	 * @param counter the counter
+	 */
+	private void insert(long key, int counter)
+	{
+		int i = home(key);
+		while (tableSlots[i] != EMPTY)
+		{
+			i = (i + 1) & tableMask;
+		}
+		tableKeys[i] = key;
+		tableSlots[i] = counter;
+	}
+
+	/**
+	 * Method used to remove a key from the table, shifting back the keys after it so no probe sequence is broken
+	 * @param key the key
+	 */
+	private void remove(long key)
+	{
+		int i = home(key);
+		while (tableKeys[i] != key || tableSlots[i] == EMPTY)
+		{
+			i = (i + 1) & tableMask;
+		}
+
+		int j = i;
+		while (true)
+		{
+			j = (j + 1) & tableMask;
+			if (tableSlots[j] == EMPTY)
+			{
+				break;
+			}
+			int k = home(tableKeys[j]);
+			if (i <= j ? (k <= i || k > j) : (k <= i && k > j))
+			{
+				tableKeys[i] = tableKeys[j];
+				tableSlots[i] = tableSlots[j];
+				i = j;
+			}
+		}
+		tableSlots[i] = EMPTY;
+	}
+
+	/**
+	 * Method used to get the home slot of a key in the table
+	 * @param key the key
+	 * @return an int, the home slot
+	 */
+	private int home(long key)
+	{
+		return OrderIndex.mix((int) (key ^ (key >>> 32))) & tableMask;
+	}
+
+	/**
+	 * Method used to move a counter towards the top of the heap while its count is smaller than its parent's
+	 * @param pos the position of the counter in the heap
+	 */
+	private void siftUp(int pos)
+	{
+		int counter = heap[pos];
+		while (pos > 0)
+		{
+			int parent = (pos - 1) >>> 1;
+			if (counts[heap[parent]] <= counts[counter])
+			{
+				break;
+			}
+			place(heap[parent], pos);
+			pos = parent;
+		}
+		place(counter, pos);
+	}
+
+	/**
+	 * Method used to move a counter towards the bottom of the heap while its count is larger than a child's
+	 * @param pos the position of the counter in the heap
+	 */
+	private void siftDown(int pos)
+	{
+		int counter = heap[pos];
+		while (true)
+		{
+			int child = 2 * pos + 1;
+			if (child >= used)
+			{
+				break;
+			}
+			if (child + 1 < used && counts[heap[child + 1]] < counts[heap[child]])
+			{
+				child++;
+			}
+			if (counts[counter] <= counts[heap[child]])
+			{
+				break;
+			}
+			place(heap[child], pos);
+			pos = child;
+		}
+		place(counter, pos);
+	}
+
+	/**
+	 * Method used to put a counter at a position of the heap
+	 * @param counter the counter
+	 * @param pos the position
+	 */
+	private void place(int counter, int pos)
+	{
+		heap[pos] = counter;
+		heapPos[counter] = pos;
+	}
+}
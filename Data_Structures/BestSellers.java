@@ -0,0 +1,127 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.util.List;
+
+import Interfaces.BevShopInterface;
+
+/**
+ * This class represents the best-seller tracking of a shop, fed with every beverage as it is added to an order.
+ * It keeps three kinds of BestSellerSketch: beverages by name, type and size; beverages by name and type with the
+ * sizes counted together; and one by name, type and size for each opening hour. Memory use is fixed by the number
+ * of counters, and a query sorts at most that many counters, however many orders have been taken.
+ */
+public class BestSellers
+{
+	public static final int DEFAULT_CAPACITY = 64;
+
+	private static final int HOURS = BevShopInterface.MAX_TIME - BevShopInterface.MIN_TIME + 1;
+
+	private final BestSellerSketch bySize;
+	private final BestSellerSketch byName;
+	private final BestSellerSketch[] byHour = new BestSellerSketch[HOURS];
+
+	/**
+	 * Standard constructor to build BestSellers with DEFAULT_CAPACITY counters per sketch
+	 */
+	public BestSellers()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor to build BestSellers with a given number of counters per sketch
+	 * @param capacity the number of counters of each sketch
+	 */
+	public BestSellers(int capacity)
+	{
+		bySize = new BestSellerSketch(capacity, true);
+		byName = new BestSellerSketch(capacity, false);
+		for (int h = 0; h < HOURS; h++)
+		{
+			byHour[h] = new BestSellerSketch(capacity, true);
+		}
+	}
+
+	/**
+	 * Method used to count a sold beverage
+	 * @param bev the beverage
+	 * @param time the order time; beverages ordered outside the opening hours are not counted by hour
+	 */
+	public void add(Beverage bev, int time)
+	{
+		bySize.add(bev);
+		byName.add(bev);
+		if (time >= BevShopInterface.MIN_TIME && time <= BevShopInterface.MAX_TIME)
+		{
+			byHour[time - BevShopInterface.MIN_TIME].add(bev);
+		}
+	}
+
+	/**
+	 * Method used to get the best-selling beverages by name, type and size
+	 * @param n the number of best sellers wanted
+	 * @return a List of BestSeller, at most n best sellers, most sold first
+	 */
+	public List<BestSeller> getTop(int n)
+	{
+		return bySize.getTop(n);
+	}
+
+	/**
+	 * Method used to get the best-selling beverages by name and type, with every size counted together
+	 * @param n the number of best sellers wanted
+	 * @return a List of BestSeller, at most n best sellers, most sold first
+	 */
+	public List<BestSeller> getTopByName(int n)
+	{
+		return byName.getTop(n);
+	}
+
+	/**
+	 * Method used to get the best-selling beverages by name, type and size in an hour
+	 * @param n the number of best sellers wanted
+	 * @param hour the order hour
+	 * @return a List of BestSeller, at most n best sellers, most sold first
+	 */
+	public List<BestSeller> getTop(int n, int hour)
+	{
+		return getSketch(hour).getTop(n);
+	}
+
+	/**
+	 * Getter to get the sketch by name, type and size, for its totals and error bound
+	 * @return a BestSellerSketch, the sketch
+	 */
+	public BestSellerSketch getSketch()
+	{
+		return bySize;
+	}
+
+	/**
+	 * Getter to get the sketch by name and type, for its totals and error bound
+	 * @return a BestSellerSketch, the sketch
+	 */
+	public BestSellerSketch getNameSketch()
+	{
+		return byName;
+	}
+
+	/**
+	 * Getter to get the sketch of an hour, for its totals and error bound
+	 * @param hour the order hour
+	 * @return a BestSellerSketch, the sketch
+	 */
+	public BestSellerSketch getSketch(int hour)
+	{
+		if (hour < BevShopInterface.MIN_TIME || hour > BevShopInterface.MAX_TIME)
+		{
+			throw new IllegalArgumentException("hour must be from " + BevShopInterface.MIN_TIME + " to "
+												+ BevShopInterface.MAX_TIME + ": " + hour);
+		}
+		return byHour[hour - BevShopInterface.MIN_TIME];
+	}
+}
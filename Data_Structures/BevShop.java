@@ -4,13 +4,21 @@
 
 package Data_Structures;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import Data_Structures.Beverage.SIZE;
 import Data_Structures.Beverage.TYPE;
 import Data_Structures.Order.DAY;
+import Data_Structures.ShopMetrics.OPERATION;
 import Interfaces.BevShopInterface;
+import Interfaces.OrderNumberGeneratorInterface;
 
 /**
  * This class represents a BevShop object which has a Customer, Order object ArrayList, and several other pertinent attributes
@@ -18,11 +26,50 @@ import Interfaces.BevShopInterface;
  */
 public class BevShop implements BevShopInterface
 {
-	private int AlcDrinks = 0;
 	private final int MAX_ORDER_FOR_ALCOHOL = 3;
 	private final int MIN_AGE_FOR_ALCOHOL = 21;
 	private ArrayList<Order> Orders = new ArrayList<Order>();
+	private OrderIndex orderIndex = new OrderIndex();
+	private ShopTotals totals = new ShopTotals();
+	private ColumnarOrderStore store = new ColumnarOrderStore();
+	private RevenueCube cube = new RevenueCube();
+	private BestSellers bestSellers = new BestSellers();
+	private CustomerRegistry customers = new CustomerRegistry();
+	private final ShopMetrics metrics = new ShopMetrics();
+	private OrderNumberGeneratorInterface orderNumbers = Order.getOrderNumberGenerator();
 	private Order thisOrder;
+	private OrderJournal journal;
+	private OrderSegments cold = new OrderSegments();
+	private int[] sortedOrders;
+	private int[] sortedPositions;
+	private List<Order> allOrders = new AbstractList<Order>()
+	{
+		@Override
+		public Order get(int index)
+		{
+			return orderAt(index);
+		}
+		
+		@Override
+		public int size()
+		{
+			return cold.size() + Orders.size();
+		}
+	};
+	private List<OrderView> orderViews = new AbstractList<OrderView>()
+	{
+		@Override
+		public OrderView get(int index)
+		{
+			return orderAt(index).asView();
+		}
+		
+		@Override
+		public int size()
+		{
+			return cold.size() + Orders.size();
+		}
+	};
 	
 	/**
 	 * Method used to determine if the time the order was made at is valid
@@ -42,12 +89,12 @@ public class BevShop implements BevShopInterface
 	}
 	
 	/**
-	 * Method used to determine if the customer may order another alcoholic drink (up to a max of 3)
+	 * Method used to determine if the customer of the current order may order another alcoholic drink (up to a max of 3)
 	 * @return a boolean, whether the customer may order another alcoholic drink or not
 	 */
 	public boolean eligibleForMore()
 	{
-		if (AlcDrinks == MAX_ORDER_FOR_ALCOHOL)
+		if (getNumOfAlcoholDrink() >= MAX_ORDER_FOR_ALCOHOL)
 		{
 			return false;
 		}
@@ -80,11 +127,214 @@ public class BevShop implements BevShopInterface
 	 * @param day the order day
 	 * @param customerName the customers name
 	 * @param customerAge the customers age
+	 * @throws IllegalArgumentException if the customers name is longer than the persisted formats allow
 	 */
 	public void startNewOrder(int time, DAY day, String customerName, int customerAge)
 	{
-		thisOrder = new Order(time, day, customerName, customerAge);
-		Orders.add(thisOrder);
+		long start = metrics.start(OPERATION.START_ORDER);
+		try
+		{
+			OrderCodec.checkName("customer name", customerName);
+			if (cold.shouldSeal(Orders.size()))
+			{
+				sealHotSegment();
+			}
+			
+			Order order = buildOrder(nextOrderNumber(), time, day, customerName, customerAge, PricingEngine.currentVersion());
+			if (journal != null)
+			{
+				journal.logStart(order);
+			}
+			appendOrder(order);
+		}
+		finally
+		{
+			metrics.stop(OPERATION.START_ORDER, start);
+		}
+	}
+	
+	/**
+	 * Method used to validate a complete order and add it, with all of its beverages, to the order list; it becomes the current order
+	 * @param request the order to add
+	 */
+	public void processOrder(OrderRequest request)
+	{
+		long start = metrics.start(OPERATION.PROCESS_ORDER);
+		try
+		{
+			request.validate(this);
+			addRequests(Collections.singletonList(request));
+		}
+		finally
+		{
+			metrics.stop(OPERATION.PROCESS_ORDER, start);
+		}
+	}
+	
+	/**
+	 * Method used to validate a batch of complete orders and add all of them to the order list, or none of them if any
+	 * is not valid or the batch cannot be journaled. The order list and the order index grow once for the whole batch;
+	 * the last order becomes the current order
+	 * @param requests the orders to add
+	 */
+	public void processOrders(List<OrderRequest> requests)
+	{
+		long start = metrics.start(OPERATION.PROCESS_ORDERS);
+		try
+		{
+			for (int i = 0; i < requests.size(); i++)
+			{
+				requests.get(i).validate(this);
+			}
+			if (!requests.isEmpty())
+			{
+				addRequests(requests);
+			}
+		}
+		finally
+		{
+			metrics.stop(OPERATION.PROCESS_ORDERS, start);
+		}
+	}
+	
+	/**
+	 * Method used to add validated order requests to the order list. Everything that can fail is done before the
+	 * first order is added: the hot segment is sealed first if it is due, and the orders are journaled as one record,
+	 * so a failure leaves the shop as it was. The hot segment may run over its limit by the rest of the batch until
+	 * the next order seals it
+	 * @param requests the orders to add
+	 */
+	private void addRequests(List<OrderRequest> requests)
+	{
+		if (cold.shouldSeal(Orders.size()))
+		{
+			sealHotSegment();
+		}
+		
+		List<Order> orders = new ArrayList<Order>(requests.size());
+		for (int i = 0; i < requests.size(); i++)
+		{
+			OrderRequest request = requests.get(i);
+			orders.add(request.toOrder(nextOrderNumber(), customers.intern(request.getCustomerName(), request.getCustomerAge())));
+		}
+		if (journal != null)
+		{
+			journal.logOrders(orders);
+		}
+		
+		Orders.ensureCapacity(Orders.size() + orders.size());
+		orderIndex.ensureCapacity(Orders.size() + orders.size());
+		for (int i = 0; i < orders.size(); i++)
+		{
+			Order order = orders.get(i);
+			appendOrder(order);
+			for (int j = 0; j < order.getTotalItems(); j++)
+			{
+				recordBeverage(order, order.getBeverage(j));
+			}
+		}
+	}
+	
+	/**
+	 * Method used to draw the next order number that is not already used by an order of the shop, as long as there are unused numbers left
+	 * @return an int, the order number
+	 */
+	private int nextOrderNumber()
+	{
+		int orderNo = orderNumbers.nextOrderNumber();
+		while (locate(orderNo) != -1 && totals.getOrderCount() < orderNumbers.period())
+		{
+			orderNo = orderNumbers.nextOrderNumber();
+		}
+		return orderNo;
+	}
+	
+	/**
+	 * Method used to start an order with a given order number and add it to the order list, used to replay a journal
+	 * @param orderNo the order number
+	 * @param time the order time
+	 * @param day the order day
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 * @param priceVersion the version of the pricing catalog the order is priced with
+	 * @throws IllegalStateException if the pricing catalog version is not loaded
+	 */
+	void restoreOrder(int orderNo, int time, DAY day, String customerName, int customerAge, int priceVersion)
+	{
+		addOrder(buildOrder(orderNo, time, day, customerName, customerAge, priceVersion));
+	}
+	
+	/**
+	 * Method used to build a new empty order for a customer of the registry, without adding it to the order list
+	 * @param orderNo the order number
+	 * @param time the order time
+	 * @param day the order day
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 * @param priceVersion the version of the pricing catalog the order is priced with
+	 * @return an Order, the new order
+	 * @throws IllegalStateException if the pricing catalog version is not loaded
+	 */
+	private Order buildOrder(int orderNo, int time, DAY day, String customerName, int customerAge, int priceVersion)
+	{
+		PricingEngine.getCatalog(priceVersion);
+		Order order = new Order(orderNo, time, day, customers.intern(customerName, customerAge));
+		order.setPriceVersion(priceVersion);
+		return order;
+	}
+	
+	/**
+	 * Method used to seal the hot segment if it is due, then add an order to the order list and make it the current order
+	 * @param order the order
+	 */
+	private void addOrder(Order order)
+	{
+		if (cold.shouldSeal(Orders.size()))
+		{
+			sealHotSegment();
+		}
+		appendOrder(order);
+	}
+	
+	/**
+	 * Method used to add an order to the order list, the order index, the running totals and the order store, and make it
+	 * the current order, without sealing the hot segment first
+	 * @param order the order
+	 */
+	private void appendOrder(Order order)
+	{
+		thisOrder = order;
+		Orders.add(order);
+		orderIndex.put(order.getOrderNumber(), Orders.size() - 1);
+		if (customers.getOrderCount() == cold.size() + Orders.size() - 1)
+		{
+			CustomerView customer = order.getCustomerView();
+			customers.addOrder(customer.getName(), customer.getAge());
+		}
+		totals.addOrder();
+		store.addOrder(order);
+		cube.addOrder(order.getOrderDay(), order.getOrderTime());
+	}
+	
+	/**
+	 * Method used to make an order of the order list the current order again, used to replay a journal. A sealed order
+	 * cannot take more beverages, so it is not resumed
+	 * @param orderNo the order number
+	 * @return a boolean, whether the order was found in memory
+	 */
+	boolean resumeOrder(int orderNo)
+	{
+		if (thisOrder != null && thisOrder.getOrderNumber() == orderNo)
+		{
+			return true;
+		}
+		int index = orderIndex.get(orderNo);
+		if (index == -1)
+		{
+			return false;
+		}
+		thisOrder = Orders.get(index);
+		return true;
 	}
  
 	/**
@@ -93,21 +343,50 @@ public class BevShop implements BevShopInterface
 	 * @param size Beverage size
 	 * @param extraShot If the customer wants an extra shot
 	 * @param extraSyrup If the customer wants extra syrup
+	 * @throws IllegalArgumentException if the beverage name is longer than the persisted formats allow
 	 */
 	public void processCoffeeOrder(String bevName, SIZE size, boolean extraShot, boolean extraSyrup)
 	{
-		thisOrder.addNewBeverage(bevName, size, extraShot, extraSyrup);
+		long start = metrics.start(OPERATION.PROCESS_COFFEE);
+		try
+		{
+			OrderCodec.checkName("beverage name", bevName);
+			if (journal != null)
+			{
+				journal.logCoffee(thisOrder.getOrderNumber(), bevName, size, extraShot, extraSyrup);
+			}
+			thisOrder.addNewBeverage(bevName, size, extraShot, extraSyrup);
+			recordBeverage(thisOrder, thisOrder.getBeverage(thisOrder.getTotalItems() - 1));
+		}
+		finally
+		{
+			metrics.stop(OPERATION.PROCESS_COFFEE, start);
+		}
 	}
 	
 	/**
 	 * Method used to add an alcoholic drink (object) to the order
 	 * @param bevName the name of the drink
 	 * @param size the size of the drink
+	 * @throws IllegalArgumentException if the beverage name is longer than the persisted formats allow
 	 */
 	public void processAlcoholOrder(String bevName, SIZE size)
 	{
-		thisOrder.addNewBeverage(bevName, size);
-		AlcDrinks += 1;
+		long start = metrics.start(OPERATION.PROCESS_ALCOHOL);
+		try
+		{
+			OrderCodec.checkName("beverage name", bevName);
+			if (journal != null)
+			{
+				journal.logAlcohol(thisOrder.getOrderNumber(), bevName, size);
+			}
+			thisOrder.addNewBeverage(bevName, size);
+			recordBeverage(thisOrder, thisOrder.getBeverage(thisOrder.getTotalItems() - 1));
+		}
+		finally
+		{
+			metrics.stop(OPERATION.PROCESS_ALCOHOL, start);
+		}
 	}
 	
 	/**
@@ -116,10 +395,38 @@ public class BevShop implements BevShopInterface
 	 * @param size beverage size
 	 * @param numOfFruits How many fruits the customer wants
 	 * @param addProtein Whether the customer wants protein
+	 * @throws IllegalArgumentException if the beverage name is longer than the persisted formats allow
 	 */
 	public void processSmoothieOrder(String bevName, SIZE size, int numOfFruits, boolean addProtein)
 	{
-		thisOrder.addNewBeverage(bevName, size, addProtein, numOfFruits);
+		long start = metrics.start(OPERATION.PROCESS_SMOOTHIE);
+		try
+		{
+			OrderCodec.checkName("beverage name", bevName);
+			if (journal != null)
+			{
+				journal.logSmoothie(thisOrder.getOrderNumber(), bevName, size, numOfFruits, addProtein);
+			}
+			thisOrder.addNewBeverage(bevName, size, addProtein, numOfFruits);
+			recordBeverage(thisOrder, thisOrder.getBeverage(thisOrder.getTotalItems() - 1));
+		}
+		finally
+		{
+			metrics.stop(OPERATION.PROCESS_SMOOTHIE, start);
+		}
+	}
+	
+	/**
+	 * Method used to add a beverage that was just added to the last order to the running totals and the order store
+	 * @param order the last order
+	 * @param bev the beverage
+	 */
+	private void recordBeverage(Order order, Beverage bev)
+	{
+		totals.addBeverage(bev);
+		store.addBeverage(bev);
+		cube.addBeverage(order.getOrderDay(), order.getOrderTime(), bev.getType(), bev.getSize(), bev.calcPriceCents());
+		bestSellers.add(bev, order.getOrderTime());
 	}
 
 	/**
@@ -129,15 +436,32 @@ public class BevShop implements BevShopInterface
 	 */
 	public int findOrder(int orderNo)
 	{
-		for (int i = 0; i < Orders.size(); i++)
+		long start = metrics.start(OPERATION.FIND_ORDER);
+		try
 		{
-			if (Orders.get(i).getOrderNumber() == orderNo)
-			{
-				return i;
-			}
+			int i = locate(orderNo);
+			return i == -1 ? -1 : logical(i);
 		}
-
-		return -1;
+		finally
+		{
+			metrics.stop(OPERATION.FIND_ORDER, start);
+		}
+	}
+	
+	/**
+	 * Method used to find where an order is kept, without timing the lookup as a findOrder call
+	 * @param orderNo the order number
+	 * @return an int, the position of the order over the segments and the orders in memory, or -1 if it is not found
+	 */
+	private int locate(int orderNo)
+	{
+		int i = orderIndex.get(orderNo);
+		if (i != -1)
+		{
+			return cold.size() + i;
+		}
+		
+		return cold.find(orderNo);
 	}
 	
 	/**
@@ -147,55 +471,448 @@ public class BevShop implements BevShopInterface
 	 */
 	public double totalOrderPrice(int orderNo)
 	{
+		int i = locate(orderNo);
+		
+		if (i == -1)
+		{
+			return -1;
+		}
+		else if (i < cold.size())
+		{
+			return PricingEngine.toPrice(cold.orderTotalCents(i));
+		}
+		
+		return Orders.get(i - cold.size()).calcOrderTotal();
+	}
+
+	/**
+	 * Method to get the total of all orders, kept up to date as beverages are added
+	 * @return a double, the total monthly sales
+	 */
+	public double totalMonthlySale()
+	{
+		long start = metrics.start(OPERATION.TOTAL_MONTHLY_SALE);
+		try
+		{
+			return totals.getRevenue();
+		}
+		finally
+		{
+			metrics.stop(OPERATION.TOTAL_MONTHLY_SALE, start);
+		}
+	}
+	
+	/**
+	 * Method to get the exact total of all orders in cents
+	 * @return a long, the total monthly sales in cents
+	 */
+	public long totalMonthlySaleCents()
+	{
+		long start = metrics.start(OPERATION.TOTAL_MONTHLY_SALE);
+		try
+		{
+			return totals.getRevenueCents();
+		}
+		finally
+		{
+			metrics.stop(OPERATION.TOTAL_MONTHLY_SALE, start);
+		}
+	}
+	
+	/**
+	 * Method used to get the number of beverages of a type sold in all orders
+	 * @param type the beverage type
+	 * @return an int, the number of beverages of the type
+	 */
+	public int totalNumOfMonthlyBeverages(TYPE type)
+	{
+		return totals.getBeverageCount(type);
+	}
+	
+	/**
+	 * Method used to calculate the sales of a day of the week over all orders
+	 * @param day the day of the week
+	 * @return a double, the total sales on that day
+	 */
+	public double totalSaleOnDay(DAY day)
+	{
+		return PricingEngine.toPrice(store.centsByDay()[day.ordinal()] + cold.getCentsOnDay(day));
+	}
+	
+	/**
+	 * Method used to get the columnar store of every order taken, in the order they were taken, for reporting. If there
+	 * are sealed segments, their orders are read in place into a new store built for this call, ahead of the orders in
+	 * memory, and the store is not kept up to date as orders are taken
+	 * @return a ColumnarOrderStore, the order store
+	 */
+	public ColumnarOrderStore getOrderStore()
+	{
+		if (cold.size() == 0)
+		{
+			return store;
+		}
+		
+		ColumnarOrderStore all = new ColumnarOrderStore();
+		OrderFlyweight sealed = new OrderFlyweight();
+		BeverageFlyweight sealedBev = new BeverageFlyweight();
+		for (int i = 0; i < cold.size(); i++)
+		{
+			cold.getOrder(i, sealed);
+			all.addOrder(sealed);
+			for (int j = 0; j < sealed.getTotalItems(); j++)
+			{
+				all.addBeverage(sealed.getBeverage(j, sealedBev));
+			}
+		}
 		for (int i = 0; i < Orders.size(); i++)
 		{
-			if (Orders.get(i).getOrderNumber() == orderNo)
+			Order order = Orders.get(i);
+			all.addOrder(order);
+			for (int j = 0; j < order.getTotalItems(); j++)
 			{
-				return Orders.get(i).calcOrderTotal();
+				all.addBeverage(order.getBeverage(j));
 			}
 		}
+		return all;
+	}
+	
+	/**
+	 * Method used to total every order again, for example to audit the running totals: the sealed segments are read in
+	 * place and the order store of the orders in memory is totalled in parallel for large logs. The result does not depend
+	 * on the number of threads used
+	 * @return an OrderAggregates, the totals of every order
+	 */
+	public OrderAggregates aggregateOrders()
+	{
+		return cold.aggregate().add(store.aggregate());
+	}
+	
+	/**
+	 * Method used to check that the running totals still match a full recompute, both the totals of aggregateOrders and the
+	 * total of every order priced from the order itself, for example after a caller changed a copy of an order
+	 * @throws IllegalStateException if a running total no longer matches
+	 */
+	public void auditTotals()
+	{
+		OrderAggregates all = aggregateOrders();
+		long cents = 0;
+		for (int i = 0; i < cold.size(); i++)
+		{
+			cents += cold.orderTotalCents(i);
+		}
+		for (int i = 0; i < Orders.size(); i++)
+		{
+			cents += Orders.get(i).calcOrderTotalCents();
+		}
 		
-		return -1;
+		if (all.getOrderCount() != totals.getOrderCount())
+		{
+			throw new IllegalStateException("order count " + totals.getOrderCount() + " does not match " + all.getOrderCount());
+		}
+		if (all.getTotalCents() != totals.getRevenueCents() || cents != totals.getRevenueCents())
+		{
+			throw new IllegalStateException("revenue " + totals.getRevenueCents() + " cents does not match " + all.getTotalCents()
+											+ " cents in the order store and " + cents + " cents in the orders");
+		}
+		for (TYPE type : TYPE.values())
+		{
+			if (all.getBeverageCount(type) != totals.getBeverageCount(type))
+			{
+				throw new IllegalStateException(type + " count " + totals.getBeverageCount(type) + " does not match " + all.getBeverageCount(type));
+			}
+		}
 	}
 	
 	/**
-	 * Method to calculate the total of all orders
-	 * @return a double, the total monthly sales
+	 * Method used to get the cube of sales by day, hour, beverage type and size, kept up to date as orders are taken
+	 * @return a RevenueCube, the revenue cube
 	 */
-	public double totalMonthlySale()
+	public RevenueCube getRevenueCube()
+	{
+		return cube;
+	}
+	
+	/**
+	 * Method used to get the latency metrics of the shop's operations, which can be registered over JMX or scraped as text
+	 * @return a ShopMetrics, the metrics
+	 */
+	public ShopMetrics getMetrics()
+	{
+		return metrics;
+	}
+	
+	/**
+	 * Method used to get the best-selling beverages by name, type, size and hour, kept up to date as beverages are added.
+	 * Orders read from a snapshot or a segment directory are not counted, only the orders taken or replayed by this shop
+	 * @return a BestSellers, the best sellers
+	 */
+	public BestSellers getBestSellers()
 	{
-		double sum = 0;
+		return bestSellers;
+	}
+	
+	/**
+	 * Method used to get the registry of every customer and the positions of their orders, as used by getOrderAtIndex
+	 * @return a CustomerRegistry, the customer registry
+	 */
+	public CustomerRegistry getCustomers()
+	{
+		int total = cold.size() + Orders.size();
+		OrderFlyweight sealed = new OrderFlyweight();
 		
-		for (int i = 0; i < Orders.size(); i++)
+		for (int i = customers.getOrderCount(); i < total; i++)
 		{
-			sum += Orders.get(i).calcOrderTotal();
+			int position = physical(i);
+			if (position < cold.size())
+			{
+				cold.getOrder(position, sealed);
+				customers.addOrder(sealed.getCustomerName(), sealed.getCustomerAge());
+			}
+			else
+			{
+				CustomerView customer = Orders.get(position - cold.size()).getCustomerView();
+				customers.addOrder(customer.getName(), customer.getAge());
+			}
 		}
+		return customers;
+	}
+	
+	/**
+	 * Method used to get every order of a customer, in the order they were taken, without scanning the other orders
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 * @return a List of OrderView, the views of the customer's orders
+	 */
+	public List<OrderView> findCustomerOrders(String customerName, int customerAge)
+	{
+		int[] positions = getCustomers().getOrderPositions(customerName, customerAge);
+		ArrayList<OrderView> views = new ArrayList<OrderView>(positions.length);
 		
-		return sum;
+		for (int i = 0; i < positions.length; i++)
+		{
+			views.add(orderAt(positions[i]).asView());
+		}
+		return views;
 	}
 	
 	/**
-	 * Method to sort the orders using selection sort, increasing in order number
+	 * Method used to get the age given with the last order under a customer name, for example to check an age again
+	 * @param customerName the customers name
+	 * @return an int, the age, or -1 if nobody ordered under the name
 	 */
-	public void sortOrders()
+	public int getLastKnownAge(String customerName)
 	{
+		return getCustomers().getLastKnownAge(customerName);
+	}
+	
+	/**
+	 * Method used to start a new order with the same beverages as a customer's last order. The new order is validated
+	 * like any other, so the customer's age is checked again for alcoholic drinks
+	 * @param time the order time
+	 * @param day the order day
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 * @return a boolean, whether the customer had an order to repeat
+	 * @throws IllegalArgumentException if the new order is not valid, then nothing is added
+	 */
+	public boolean repeatLastOrder(int time, DAY day, String customerName, int customerAge)
+	{
+		int position = getCustomers().getLastOrderPosition(customerName, customerAge);
+		if (position == -1)
+		{
+			return false;
+		}
 		
-		for (int i = 0; i < Orders.size(); i++)
+		Order last = orderAt(position);
+		OrderRequest request = new OrderRequest(time, day, customerName, customerAge);
+		for (int i = 0; i < last.getTotalItems(); i++)
 		{
-			int min = 90001;
-			int index = i;
-			
-			for (int j = i; j < Orders.size(); j++)
-			{	
-				if (Orders.get(j).getOrderNumber() < min)
-				{
-					min = Orders.get(j).getOrderNumber();
-					index = j;
-				}
+			Beverage bev = last.getBeverage(i);
+			if (bev instanceof Coffee)
+			{
+				Coffee coffee = (Coffee) bev;
+				request.addCoffee(bev.getBevName(), bev.getSize(), coffee.getShot(), coffee.getSyrup());
+			}
+			else if (bev instanceof Smoothie)
+			{
+				Smoothie smoothie = (Smoothie) bev;
+				request.addSmoothie(bev.getBevName(), bev.getSize(), smoothie.getFruits(), smoothie.getProtein());
+			}
+			else
+			{
+				request.addAlcohol(bev.getBevName(), bev.getSize());
+			}
+		}
+		processOrder(request);
+		return true;
+	}
+	
+	/**
+	 * Setter to set the journal every new order and beverage of this shop is written to
+	 * @param journal the journal, or null to stop journaling
+	 */
+	public void setJournal(OrderJournal journal)
+	{
+		this.journal = journal;
+	}
+	
+	/**
+	 * Getter to get the journal every new order and beverage of this shop is written to
+	 * @return an OrderJournal, the journal, or null if the shop is not journaled
+	 */
+	public OrderJournal getJournal()
+	{
+		return journal;
+	}
+	
+	/**
+	 * Method used to rebuild a shop from its journal after a restart, creating the journal if it does not exist.
+	 * The returned shop keeps journaling to the file
+	 * @param file the journal file
+	 * @return a BevShop, the shop with every journaled order
+	 * @throws IOException if the journal cannot be opened or replayed
+	 */
+	public static BevShop recover(Path file) throws IOException
+	{
+		return recover(file, new OrderSegments());
+	}
+	
+	/**
+	 * Method used to rebuild a shop whose order log is split into segments after a restart: the segments of the
+	 * directory become the shop's first orders, then the journal is replayed, skipping every journaled order that is
+	 * already in a segment, so the orders taken since the last seal are back in memory. A seal the journal recorded but
+	 * whose segment file is missing is sealed again from the journaled orders. The returned shop keeps journaling to
+	 * the file and sealing into the directory
+	 * @param file the journal file
+	 * @param segments the segments, opened on the same directory as before the restart
+	 * @return a BevShop, the shop with every sealed and journaled order
+	 * @throws IOException if the journal cannot be opened or replayed
+	 */
+	public static BevShop recover(Path file, OrderSegments segments) throws IOException
+	{
+		OrderJournal journal = new OrderJournal(file);
+		BevShop shop = new BevShop();
+		try
+		{
+			shop.setSegments(segments);
+			journal.replay(shop);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			journal.close();
+			throw e;
+		}
+		shop.setJournal(journal);
+		return shop;
+	}
+	
+	/**
+	 * Method used to determine if an order is in a sealed segment, used to replay a journal
+	 * @param orderNo the order number
+	 * @return a boolean, whether the order is sealed
+	 */
+	boolean isSealed(int orderNo)
+	{
+		return cold.find(orderNo) != -1;
+	}
+	
+	/**
+	 * Method used to replay a seal recorded in a journal: if fewer orders are sealed than when the seal was recorded,
+	 * because a segment file is missing, the orders in memory are sealed again
+	 * @param sealedOrders the number of sealed orders right after the seal
+	 */
+	void replaySeal(int sealedOrders)
+	{
+		if (cold.getDirectory() != null && cold.size() < sealedOrders && !Orders.isEmpty())
+		{
+			sealHotSegment();
+		}
+	}
+	
+	/**
+	 * Method to sort the orders in increasing order number, using a stable counting sort over the order number range. If
+	 * there are sealed segments, which cannot be reordered, an index of the positions of the orders is sorted instead and
+	 * the orders stay where they are; orders taken afterwards follow the sorted ones
+	 */
+	public void sortOrders()
+	{
+		long start = metrics.start(OPERATION.SORT_ORDERS);
+		try
+		{
+			if (cold.size() == 0)
+			{
+				OrderSorter.sort(Orders);
+				rebuildIndex();
 			}
-			Collections.swap(Orders, i, index);
+			else
+			{
+				sortPositions();
+			}
+			customers.clearOrders();
 		}
+		finally
+		{
+			metrics.stop(OPERATION.SORT_ORDERS, start);
+		}
+	}
+	
+	/**
+	 * Method used to sort the positions of every order by order number without moving the orders, keeping orders with the
+	 * same number in the order they were taken
+	 */
+	private void sortPositions()
+	{
+		int total = cold.size() + Orders.size();
+		long[] keys = new long[total];
+		OrderFlyweight sealed = new OrderFlyweight();
+		for (int i = 0; i < total; i++)
+		{
+			int orderNo = i < cold.size() ? cold.getOrder(i, sealed).getOrderNumber() : Orders.get(i - cold.size()).getOrderNumber();
+			keys[i] = (long) orderNo << 32 | i;
+		}
+		Arrays.parallelSort(keys);
+		
+		sortedOrders = new int[total];
+		sortedPositions = new int[total];
+		for (int i = 0; i < total; i++)
+		{
+			sortedOrders[i] = (int) keys[i];
+			sortedPositions[sortedOrders[i]] = i;
+		}
+	}
+	
+	/**
+	 * Method used to get where the order at an index of the sorted order list is kept
+	 * @param index the index of the order
+	 * @return an int, the position of the order over the segments and the orders in memory
+	 */
+	private int physical(int index)
+	{
+		return sortedOrders != null && index < sortedOrders.length ? sortedOrders[index] : index;
+	}
+	
+	/**
+	 * Method used to get the index in the sorted order list of the order kept at a position
+	 * @param position the position of the order over the segments and the orders in memory
+	 * @return an int, the index of the order
+	 */
+	private int logical(int position)
+	{
+		return sortedPositions != null && position < sortedPositions.length ? sortedPositions[position] : position;
+	}
+	
+	/**
+	 * Method used to re-index every order after the positions in the order list have changed
+	 */
+	private void rebuildIndex()
+	{
+		orderIndex.clear();
+		orderIndex.ensureCapacity(Orders.size());
 		
+		for (int i = 0; i < Orders.size(); i++)
+		{
+			orderIndex.put(Orders.get(i).getOrderNumber(), i);
+		}
 	}
 	
 	/**
@@ -205,7 +922,32 @@ public class BevShop implements BevShopInterface
 	 */
 	public Order getOrderAtIndex(int index)
 	{
-		return new Order(Orders.get(index));
+		index = physical(index);
+		if (index < cold.size())
+		{
+			return cold.getOrder(index);
+		}
+		
+		return new Order(Orders.get(index - cold.size()));
+	}
+	
+	/**
+	 * Method to get a read-only view of the Order listed at an index, without copying the order
+	 * @param index the index at which the order is listed in the ArrayList
+	 * @return an OrderView, the view of the order at the specified index
+	 */
+	public OrderView getOrderViewAtIndex(int index)
+	{
+		return orderAt(index).asView();
+	}
+	
+	/**
+	 * Method to get a read-only list of views of every order, in the same order as getOrderAtIndex
+	 * @return a List of OrderView, the views of the orders
+	 */
+	public List<OrderView> orderViews()
+	{
+		return orderViews;
 	}
 	
 	/**
@@ -215,17 +957,156 @@ public class BevShop implements BevShopInterface
 	@Override
 	public String toString()
 	{
-		String orders = "Orders: ";
+		StringBuilder orders = new StringBuilder();
 		
-		for (int i = 0; i < Orders.size(); i++)
+		try
 		{
-			orders = orders.concat(Orders.get(i).toString() + ". ");
+			writeReport(orders);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
 		}
-		orders = orders.concat("Orders Total: " + totalMonthlySale());
 		
-		return orders;
+		return orders.toString();
 	}
-
+	
+	/**
+	 * Method used to stream the information about each order and the total of all orders, in the same format as toString,
+	 * in a single pass and without building the whole report in memory
+	 * @param out where the report is written to, for example a Writer or a ChannelReportSink
+	 * @throws IOException if writing the report fails
+	 */
+	public void writeReport(Appendable out) throws IOException
+	{
+		new OrderReportWriter(out).writeShop(allOrders);
+	}
+	
+	/**
+	 * Method used to get a read-only view of the current order, without copying the order
+	 * @return an OrderView, the view of the current order
+	 */
+	public OrderView getCurrentOrderView() 
+	{
+		return thisOrder.asView();
+	}
+	
+	/**
+	 * Setter to set the generator used for the order numbers of orders started by this shop
+	 * @param orderNumbers the order number generator
+	 */
+	public void setOrderNumberGenerator(OrderNumberGeneratorInterface orderNumbers)
+	{
+		if (orderNumbers == null)
+		{
+			throw new IllegalArgumentException("orderNumbers must not be null");
+		}
+		this.orderNumbers = orderNumbers;
+	}
+	
+	/**
+	 * Method used to write a snapshot of every order, the order index and the totals to a file, so that restore
+	 * can bring the shop back without replaying its orders
+	 * @param file the snapshot file
+	 * @throws IOException if the snapshot cannot be written
+	 */
+	public void writeSnapshot(Path file) throws IOException
+	{
+		ShopSnapshot.write(allOrders, file);
+	}
+	
+	/**
+	 * Method used to bring back a shop from a snapshot. The snapshot is memory-mapped and its orders are read from
+	 * the file as they are needed; new orders are kept in memory as usual. The orders of the snapshot are read-only,
+	 * so a journal replayed onto the shop cannot add beverages to them
+	 * @param file the snapshot file
+	 * @return a BevShop, the shop with every order of the snapshot
+	 * @throws IOException if the snapshot cannot be opened
+	 */
+	public static BevShop restore(Path file) throws IOException
+	{
+		BevShop shop = new BevShop();
+		shop.addSegment(ShopSnapshot.open(file));
+		return shop;
+	}
+	
+	/**
+	 * Method used to split the order log of an empty shop into time-partitioned segments. From then on the orders of the
+	 * current day or month are kept in memory and, when the period ends or there are more of them than the segments allow,
+	 * are sealed into a segment file and only read back from it as they are needed. Lookups, totals and reports work the same
+	 * over every segment, and sealed orders are read in place from their segment files rather than read back into memory.
+	 * Segments already in the directory, for example from before a restart, become the shop's first orders. A shop that
+	 * also journals its orders is restarted with recover(Path, OrderSegments), which sets the segments before replaying
+	 * @param segments the segments
+	 */
+	public void setSegments(OrderSegments segments)
+	{
+		if (totals.getOrderCount() != 0)
+		{
+			throw new IllegalStateException("segments can only be set on a shop without orders");
+		}
+		
+		for (int i = 0; i < segments.getSegmentCount(); i++)
+		{
+			ShopSnapshot segment = segments.getSegment(i);
+			totals.addSnapshot(segment);
+			segment.addCubeTo(cube);
+		}
+		cold = segments;
+	}
+	
+	/**
+	 * Getter to get the segments the order log is split into
+	 * @return an OrderSegments, the sealed segments
+	 */
+	public OrderSegments getSegments()
+	{
+		return cold;
+	}
+	
+	/**
+	 * Method used to add a sealed segment and its totals to the shop
+	 * @param segment the segment
+	 */
+	private void addSegment(ShopSnapshot segment)
+	{
+		cold.add(segment);
+		totals.addSnapshot(segment);
+		segment.addCubeTo(cube);
+	}
+	
+	/**
+	 * Method used to seal the orders in memory into a new segment and start an empty one, recording the seal in the journal
+	 */
+	private void sealHotSegment()
+	{
+		cold.seal(Orders);
+		Orders = new ArrayList<Order>();
+		orderIndex.clear();
+		store = new ColumnarOrderStore();
+		
+		if (journal != null)
+		{
+			journal.logSeal(cold.size());
+		}
+	}
+	
+	/**
+	 * Method used to get the order at an index without copying orders that are in memory
+	 * @param index the index of the order
+	 * @return an Order, the order, decoded from its segment if it is a sealed order
+	 */
+	private Order orderAt(int index)
+	{
+		index = physical(index);
+		if (index < cold.size())
+		{
+			return cold.getOrder(index);
+		}
+		
+		return Orders.get(index - cold.size());
+	}
+	
 	/**
 	 * Method used to get the current order
 	 * @return an Order, a copy of the current order
@@ -241,6 +1122,11 @@ public class BevShop implements BevShopInterface
 	 */
 	public int getNumOfAlcoholDrink() 
 	{
+		if (thisOrder == null)
+		{
+			return 0;
+		}
+		
 		return thisOrder.findNumOfBeveType(TYPE.ALCOHOLIC);
 	}
 
@@ -250,7 +1136,7 @@ public class BevShop implements BevShopInterface
 	 */
 	public int totalNumOfMonthlyOrders() 
 	{
-		return Orders.size();
+		return totals.getOrderCount();
 	}
 
 	/**
@@ -13,13 +13,14 @@ public abstract class Beverage
 	public enum SIZE {SMALL, MEDIUM, LARGE}
 	public enum TYPE {COFFEE, ALCOHOLIC, SMOOTHIE}
 	
-	private String bevName;
+	private int bevNameId;
 	private TYPE type;
 	private SIZE size;
-	protected final double BASE_PRICE = 2;
-	protected final double SMALL_PRICE = 2;
-	protected final double MEDIUM_PRICE = 3;
-	protected final double LARGE_PRICE = 4;
+	private int priceVersion;
+	protected static final double BASE_PRICE = 2;
+	protected static final double SMALL_PRICE = 2;
+	protected static final double MEDIUM_PRICE = 3;
+	protected static final double LARGE_PRICE = 4;
 	
 	/**
 	 * Standard constructor for a Beverage class item
@@ -29,9 +30,10 @@ public abstract class Beverage
 	 */
 	public Beverage(String bevName, TYPE type, SIZE size)
 	{
-		this.bevName = new String(bevName);
+		this.bevNameId = MenuCatalog.idOf(bevName);
 		this.type = type;
 		this.size = size;
+		this.priceVersion = PricingEngine.currentVersion();
 	}
 	
 	/**
@@ -40,16 +42,42 @@ public abstract class Beverage
 	 */
 	public Beverage(Beverage o2)
 	{
-		this.bevName = new String(o2.bevName);
+		this.bevNameId = o2.bevNameId;
 		this.type = o2.type;
 		this.size = o2.size;
+		this.priceVersion = o2.priceVersion;
 	}
 	
 	/**
-	 * abstract method for calculating the price of each individual drink
+	 * abstract method for making an independent copy of the drink, of the same subclass
+	 * @return a Beverage, the copy of the drink
+	 */
+	public abstract Beverage copy();
+	
+	/**
+	 * abstract method for getting the options of the drink as the bit flags used by the PricingEngine
+	 * @return an int, the option flags of the drink
+	 */
+	public abstract int getOptionFlags();
+	
+	/**
+	 * Method for calculating the price of each individual drink in cents, a single lookup in the table of the
+	 * pricing catalog version the drink was priced with
+	 * @return an int, the price of the drink in cents
+	 */
+	public int calcPriceCents()
+	{
+		return PricingEngine.priceCents(priceVersion, type, size, getOptionFlags());
+	}
+	
+	/**
+	 * Method for calculating the price of each individual drink
 	 * @return a double, the price of the drink
 	 */
-	public abstract double calcPrice();
+	public double calcPrice()
+	{
+		return PricingEngine.toPrice(calcPriceCents());
+	}
 	
 	/**
 	 * toString method used to print out the pertinent information about each drink
@@ -58,11 +86,11 @@ public abstract class Beverage
 	@Override
 	public String toString()
 	{
-		return "Beverage Name: " + bevName + ", Type: " + type + ", Size: " + size + " ";
+		return "Beverage Name: " + getBevName() + ", Type: " + type + ", Size: " + size + " ";
 	}
 	
 	/**
-	 * Method used to determine if an argument object is the same as the instance object
+	 * Method used to determine if an argument object is the same as the instance object, names are compared by catalog id
 	 * @param o2 the object to compare to
 	 * @return a boolean, whether the objects are the same
 	 */
@@ -70,7 +98,7 @@ public abstract class Beverage
 	{
 		boolean status = false;
 		
-		if (this.bevName.equals(o2.bevName) && this.type.equals(o2.type) && this.size.equals(o2.size))
+		if (this.bevNameId == o2.bevNameId && this.type == o2.type && this.size == o2.size)
 		{
 			status = true;
 		}
@@ -84,7 +112,7 @@ public abstract class Beverage
 	 */
 	public void setBevName(String bevName)
 	{
-		this.bevName = new String(bevName);
+		this.bevNameId = MenuCatalog.idOf(bevName);
 	}
 	
 	/**
@@ -105,13 +133,31 @@ public abstract class Beverage
 		this.size = size;
 	}
 	
+	/**
+	 * Setter to set the pricing catalog version, used when the drink is added to an order priced with an older version
+	 * @param priceVersion the catalog version
+	 */
+	void setPriceVersion(int priceVersion)
+	{
+		this.priceVersion = priceVersion;
+	}
+	
 	/**
 	 * Getter to get beverage name
 	 * @return a string, the beverage name
 	 */
 	public String getBevName()
 	{
-		return bevName;
+		return MenuCatalog.nameOf(bevNameId);
+	}
+	
+	/**
+	 * Getter to get the menu catalog id of the beverage name
+	 * @return an int, the id of the beverage name
+	 */
+	public int getBevNameId()
+	{
+		return bevNameId;
 	}
 	
 	/**
@@ -132,6 +178,15 @@ public abstract class Beverage
 		return size;
 	}
 	
+	/**
+	 * Getter to get the version of the pricing catalog the drink is priced with
+	 * @return an int, the catalog version
+	 */
+	public int getPriceVersion()
+	{
+		return priceVersion;
+	}
+	
 	/**
 	 * Getter to get base price
 	 * @return a double, the base price
@@ -0,0 +1,188 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Beverage.TYPE;
+
+/**
+ * This class reads a beverage written by OrderCodec in place, without decoding it into a Beverage. One
+ * flyweight can be wrapped around beverage after beverage, so reading allocates nothing except for the
+ * String returned by getBevName(). Options that do not belong to the beverage's type read as false or 0.
+ */
+public class BeverageFlyweight
+{
+	private ByteBuffer buffer;
+	private int offset;
+	private int priceVersion;
+
+	/**
+	 * Method used to point this flyweight at an encoded beverage, priced with the current pricing catalog
+	 * @param buffer the buffer holding the beverage
+	 * @param offset the position of the beverage in the buffer
+	 * @return this flyweight
+	 */
+	public BeverageFlyweight wrap(ByteBuffer buffer, int offset)
+	{
+		return wrap(buffer, offset, PricingEngine.currentVersion());
+	}
+
+	/**
+	 * Method used to point this flyweight at an encoded beverage of an order
+	 * @param buffer the buffer holding the beverage
+	 * @param offset the position of the beverage in the buffer
+	 * @param priceVersion the pricing catalog version of the order
+	 * @return this flyweight
+	 */
+	BeverageFlyweight wrap(ByteBuffer buffer, int offset, int priceVersion)
+	{
+		this.buffer = buffer;
+		this.offset = offset;
+		this.priceVersion = priceVersion;
+		return this;
+	}
+
+	/**
+	 * Getter to get the version of the pricing catalog the beverage is priced with
+	 * @return an int, the catalog version
+	 */
+	public int getPriceVersion()
+	{
+		return priceVersion;
+	}
+
+	/**
+	 * Getter to get the beverage type
+	 * @return a TYPE, the beverage type
+	 */
+	public TYPE getType()
+	{
+		return OrderCodec.TYPES[(buffer.get(offset) & 0xFF) >>> 4];
+	}
+
+	/**
+	 * Getter to get the beverage size
+	 * @return a SIZE, the beverage size
+	 */
+	public SIZE getSize()
+	{
+		return OrderCodec.SIZES[buffer.get(offset) & 0xF];
+	}
+
+	/**
+	 * Getter to get whether a coffee has an extra shot
+	 * @return a boolean, whether the beverage is a coffee with an extra shot
+	 */
+	public boolean getShot()
+	{
+		return getType() == TYPE.COFFEE && (options() & OrderCodec.EXTRA_SHOT) != 0;
+	}
+
+	/**
+	 * Getter to get whether a coffee has extra syrup
+	 * @return a boolean, whether the beverage is a coffee with extra syrup
+	 */
+	public boolean getSyrup()
+	{
+		return getType() == TYPE.COFFEE && (options() & OrderCodec.EXTRA_SYRUP) != 0;
+	}
+
+	/**
+	 * Getter to get whether an alcoholic drink was ordered on the weekend
+	 * @return a boolean, whether the beverage is an alcoholic drink ordered on the weekend
+	 */
+	public boolean getWeekendAvailability()
+	{
+		return getType() == TYPE.ALCOHOLIC && (options() & OrderCodec.WEEKEND) != 0;
+	}
+
+	/**
+	 * Getter to get whether a smoothie has protein
+	 * @return a boolean, whether the beverage is a smoothie with protein
+	 */
+	public boolean getProtein()
+	{
+		return getType() == TYPE.SMOOTHIE && (options() & OrderCodec.PROTEIN) != 0;
+	}
+
+	/**
+	 * Getter to get the number of fruits of a smoothie
+	 * @return an int, the number of fruits, 0 if the beverage is not a smoothie
+	 */
+	public int getFruits()
+	{
+		return buffer.getInt(offset + 2);
+	}
+
+	/**
+	 * Getter to get the length of the beverage name
+	 * @return an int, the number of UTF-8 bytes of the name
+	 */
+	public int getBevNameLength()
+	{
+		return buffer.getShort(offset + 6) & 0xFFFF;
+	}
+
+	/**
+	 * Method used to copy the UTF-8 bytes of the beverage name without allocating
+	 * @param dst the array the name is copied to
+	 * @param dstOffset the position in dst of the first byte
+	 * @return an int, the number of bytes copied
+	 */
+	public int getBevName(byte[] dst, int dstOffset)
+	{
+		int length = getBevNameLength();
+		buffer.get(offset + OrderCodec.BEVERAGE_HEADER_SIZE, dst, dstOffset, length);
+		return length;
+	}
+
+	/**
+	 * Getter to get the beverage name
+	 * @return a String, the beverage name
+	 */
+	public String getBevName()
+	{
+		byte[] name = new byte[getBevNameLength()];
+		getBevName(name, 0);
+		return new String(name, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Method used to calculate the price of the beverage
+	 * @return an int, the price in cents
+	 */
+	public int calcPriceCents()
+	{
+		PricingCatalog catalog = PricingEngine.getCatalog(priceVersion);
+		SIZE size = getSize();
+		switch (getType())
+		{
+			case COFFEE:	return catalog.priceCents(TYPE.COFFEE, size, PricingEngine.coffeeFlags(getShot(), getSyrup()));
+			case ALCOHOLIC:	return catalog.priceCents(TYPE.ALCOHOLIC, size, PricingEngine.alcoholFlags(getWeekendAvailability()));
+			default:		return catalog.smoothieCents(size, getProtein(), getFruits());
+		}
+	}
+
+	/**
+	 * Getter to get the number of bytes of the encoded beverage
+	 * @return an int, the encoded length in bytes
+	 */
+	public int getEncodedLength()
+	{
+		return OrderCodec.BEVERAGE_HEADER_SIZE + getBevNameLength();
+	}
+
+	/**
+	 * Method used to get the option bits of the beverage
+	 * @return an int, the option bits
+	 */
+	private int options()
+	{
+		return buffer.get(offset + 1);
+	}
+}
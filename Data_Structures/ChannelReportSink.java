@@ -0,0 +1,166 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * This class lets an OrderReportWriter stream a report to an NIO channel (a FileChannel or SocketChannel).
+ * Characters are collected in a reusable char buffer and encoded as UTF-8 into a reusable byte buffer that
+ * is written to the channel whenever it fills up, so streaming a report allocates nothing per order.
+ */
+public class ChannelReportSink implements Appendable, Flushable, Closeable
+{
+	private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+	private final WritableByteChannel channel;
+	private final CharBuffer chars;
+	private final ByteBuffer bytes;
+	private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+
+	/**
+	 * Standard constructor to build a sink with the default buffer size
+	 * @param channel the channel the report is written to
+	 */
+	public ChannelReportSink(WritableByteChannel channel)
+	{
+		this(channel, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor to build a sink with a given buffer size
+	 * @param channel the channel the report is written to
+	 * @param bufferSize the number of characters buffered before they are written
+	 */
+	public ChannelReportSink(WritableByteChannel channel, int bufferSize)
+	{
+		this.channel = channel;
+		this.chars = CharBuffer.allocate(bufferSize);
+		this.bytes = ByteBuffer.allocateDirect((int) Math.ceil(bufferSize * (double) encoder.maxBytesPerChar()));
+	}
+
+	/**
+	 * Method used to append a character
+	 * @param c the character
+	 * @return this sink
+	 * @throws IOException if writing to the channel fails
+	 */
+	@Override
+	public ChannelReportSink append(char c) throws IOException
+	{
+		if (!chars.hasRemaining())
+		{
+			drain(false);
+		}
+		chars.put(c);
+		return this;
+	}
+
+	/**
+	 * Method used to append a sequence of characters
+	 * @param csq the characters, "null" is written if it is null
+	 * @return this sink
+	 * @throws IOException if writing to the channel fails
+	 */
+	@Override
+	public ChannelReportSink append(CharSequence csq) throws IOException
+	{
+		if (csq == null)
+		{
+			return append("null", 0, 4);
+		}
+		return append(csq, 0, csq.length());
+	}
+
+	/**
+	 * Method used to append part of a sequence of characters
+	 * @param csq the characters, "null" is written if it is null
+	 * @param start the first character to append
+	 * @param end the position after the last character to append
+	 * @return this sink
+	 * @throws IOException if writing to the channel fails
+	 */
+	@Override
+	public ChannelReportSink append(CharSequence csq, int start, int end) throws IOException
+	{
+		if (csq == null)
+		{
+			csq = "null";
+		}
+		for (int i = start; i < end; i++)
+		{
+			append(csq.charAt(i));
+		}
+		return this;
+	}
+
+	/**
+	 * Method used to encode and write every buffered character to the channel
+	 * @throws IOException if writing to the channel fails
+	 */
+	@Override
+	public void flush() throws IOException
+	{
+		drain(true);
+	}
+
+	/**
+	 * Method used to flush the buffered characters and close the channel
+	 * @throws IOException if writing to or closing the channel fails
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			flush();
+		}
+		finally
+		{
+			channel.close();
+		}
+	}
+
+	/**
+	 * Method used to encode the buffered characters and write the bytes to the channel. Unless every character
+	 * must go out, a high surrogate at the end of the buffer is kept back until its low surrogate arrives
+	 * @param all whether every buffered character must be written
+	 * @throws IOException if writing to the channel fails
+	 */
+	private void drain(boolean all) throws IOException
+	{
+		chars.flip();
+		CoderResult result;
+		do
+		{
+			result = encoder.encode(chars, bytes, all);
+			bytes.flip();
+			while (bytes.hasRemaining())
+			{
+				channel.write(bytes);
+			}
+			bytes.clear();
+		}
+		while (result.isOverflow());
+
+		if (result.isError())
+		{
+			result.throwException();
+		}
+		if (all)
+		{
+			encoder.reset();
+		}
+		chars.compact();
+	}
+}
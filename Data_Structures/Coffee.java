@@ -15,8 +15,8 @@ public class Coffee extends Beverage
 {
 	private boolean extraShot = false;
 	private boolean extraSyrup = false;
-	private final double EXTRA_SHOT_PRICE = .50;
-	private final double EXTRA_SYRUP_PRICE = .50;
+	static final double EXTRA_SHOT_PRICE = .50;
+	static final double EXTRA_SYRUP_PRICE = .50;
 	
 	/**
 	 * Constructor to build a Coffee object
@@ -32,6 +32,27 @@ public class Coffee extends Beverage
 		this.extraSyrup = extraSyrup;
 	}
 	
+	/**
+	 * Copy constructor for a Coffee object
+	 * @param o2 object to copy
+	 */
+	public Coffee(Coffee o2)
+	{
+		super(o2);
+		this.extraShot = o2.extraShot;
+		this.extraSyrup = o2.extraSyrup;
+	}
+	
+	/**
+	 * Method used to make an independent copy of the drink
+	 * @return a Coffee, the copy of the drink
+	 */
+	@Override
+	public Coffee copy()
+	{
+		return new Coffee(this);
+	}
+	
 	/**
 	 * toString method used to print out the pertinent information about each drink
 	 * @return a string, the information about the drink
@@ -43,34 +64,13 @@ public class Coffee extends Beverage
 	}
 	
 	/**
-	 * Method for calculating the price of each individual drink
-	 * @return a double, the price of the drink
+	 * Method for getting the coffee options as PricingEngine flags
+	 * @return an int, the option flags of the drink
 	 */
 	@Override
-	public double calcPrice()
+	public int getOptionFlags()
 	{
-		double sum = 0;
-		
-		switch (this.getSize())
-		{
-			case SMALL: sum += this.SMALL_PRICE;
-						break;
-			case MEDIUM: sum += this.MEDIUM_PRICE;
-						break;
-			case LARGE: sum += this.LARGE_PRICE;
-						break;
-		}
-		
-		if (extraShot)
-		{
-			sum += EXTRA_SHOT_PRICE;
-		}
-		if (extraSyrup)
-		{
-			sum += EXTRA_SYRUP_PRICE;
-		}
-		
-		return sum;
+		return PricingEngine.coffeeFlags(extraShot, extraSyrup);
 	}
 	
 	/**
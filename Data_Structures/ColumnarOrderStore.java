@@ -0,0 +1,532 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Beverage.TYPE;
+import Data_Structures.Order.DAY;
+
+/**
+ * This class stores the shop's orders as columns of primitive arrays (struct of arrays) instead of as
+ * Order and Beverage objects. There is one row per order (order number, time, day, customer, pricing catalog version) and one row
+ * per beverage (the order row it belongs to, type, size, option bits, price in cents and name id), with
+ * names dictionary encoded by the MenuCatalog and NamePool. Totals and reports are tight loops over the arrays; Order and Beverage objects
+ * are only built when a caller asks for one. Rows are kept in the order they were taken.
+ */
+public class ColumnarOrderStore
+{
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+	private static final int MIN_CHUNK_SIZE = 1 << 14;
+	private static final TYPE[] TYPES = TYPE.values();
+	private static final SIZE[] SIZES = SIZE.values();
+	private static final DAY[] DAYS = DAY.values();
+
+	private int orderCount;
+	private int[] orderNumbers = new int[INITIAL_CAPACITY];
+	private int[] orderTimes = new int[INITIAL_CAPACITY];
+	private byte[] orderDays = new byte[INITIAL_CAPACITY];
+	private int[] customerNameIds = new int[INITIAL_CAPACITY];
+	private int[] customerAges = new int[INITIAL_CAPACITY];
+	private int[] firstItems = new int[INITIAL_CAPACITY];
+	private int[] priceVersions = new int[INITIAL_CAPACITY];
+
+	private int itemCount;
+	private int[] itemOrders = new int[INITIAL_CAPACITY];
+	private byte[] itemTypes = new byte[INITIAL_CAPACITY];
+	private byte[] itemSizes = new byte[INITIAL_CAPACITY];
+	private int[] itemOptions = new int[INITIAL_CAPACITY];
+	private int[] itemCents = new int[INITIAL_CAPACITY];
+	private int[] itemNameIds = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Method used to add a row for a newly started order, which becomes the order new beverages are added to
+	 * @param order the order
+	 */
+	void addOrder(Order order)
+	{
+		CustomerView customer = order.getCustomerView();
+		addOrderRow(order.getOrderNumber(), order.getOrderTime(), order.getOrderDay(), customer.getName(), customer.getAge(),
+					order.getPriceVersion());
+	}
+
+	/**
+	 * Method used to add a row for a sealed order read in place from its segment, which becomes the order new beverages are added to
+	 * @param order the order flyweight
+	 */
+	void addOrder(OrderFlyweight order)
+	{
+		addOrderRow(order.getOrderNumber(), order.getOrderTime(), order.getOrderDay(), order.getCustomerName(), order.getCustomerAge(),
+					order.getPriceVersion());
+	}
+
+	/**
+	 * Method used to add a row for a beverage of the last order added
+	 * @param bev the beverage
+	 */
+	void addBeverage(Beverage bev)
+	{
+		addBeverageRow(bev.getType(), bev.getSize(), optionBits(bev), bev.calcPriceCents(), bev.getBevNameId());
+	}
+
+	/**
+	 * Method used to add a row for a beverage of the last order added, read in place from its segment
+	 * @param bev the beverage flyweight
+	 */
+	void addBeverage(BeverageFlyweight bev)
+	{
+		int options;
+		switch (bev.getType())
+		{
+			case COFFEE:	options = PricingEngine.coffeeFlags(bev.getShot(), bev.getSyrup());
+							break;
+			case ALCOHOLIC:	options = PricingEngine.alcoholFlags(bev.getWeekendAvailability());
+							break;
+			default:		options = (bev.getProtein() ? PricingEngine.SMOOTHIE_PROTEIN : 0)
+									| (Math.max(0, bev.getFruits()) << PricingEngine.SMOOTHIE_FRUIT_SHIFT);
+							break;
+		}
+		addBeverageRow(bev.getType(), bev.getSize(), options, bev.calcPriceCents(), MenuCatalog.idOf(bev.getBevName()));
+	}
+
+	/**
+	 * Method used to calculate the total of every beverage in the store
+	 * @return a long, the total in cents
+	 */
+	public long totalCents()
+	{
+		long sum = 0;
+		for (int i = 0; i < itemCount; i++)
+		{
+			sum += itemCents[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * Method used to count the beverages of each type
+	 * @return an int array, the number of beverages indexed by TYPE ordinal
+	 */
+	public int[] countByType()
+	{
+		int[] counts = new int[TYPES.length];
+		for (int i = 0; i < itemCount; i++)
+		{
+			counts[itemTypes[i]]++;
+		}
+		return counts;
+	}
+
+	/**
+	 * Method used to calculate the sales of each day of the week
+	 * @return a long array, the sales in cents indexed by DAY ordinal
+	 */
+	public long[] centsByDay()
+	{
+		long[] cents = new long[DAYS.length];
+		for (int i = 0; i < itemCount; i++)
+		{
+			cents[orderDays[itemOrders[i]]] += itemCents[i];
+		}
+		return cents;
+	}
+
+	/**
+	 * Method used to count the orders taken on each day of the week
+	 * @return an int array, the number of orders indexed by DAY ordinal
+	 */
+	public int[] ordersByDay()
+	{
+		int[] counts = new int[DAYS.length];
+		for (int i = 0; i < orderCount; i++)
+		{
+			counts[orderDays[i]]++;
+		}
+		return counts;
+	}
+
+	/**
+	 * Method used to total the whole log in one pass: order and beverage counts, revenue, beverages per type and
+	 * orders and sales per day. Large logs are split across the common fork-join pool
+	 * @return an OrderAggregates, the totals of the log
+	 */
+	public OrderAggregates aggregate()
+	{
+		if (itemCount >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1)
+		{
+			return aggregateParallel(ForkJoinPool.commonPool());
+		}
+		return new AggregateTask(this, 1, 0, 1).compute();
+	}
+
+	/**
+	 * Method used to total the whole log, splitting the log into chunks that are totalled on a fork-join pool.
+	 * The sums are exact, so the result does not depend on the pool or the number of chunks
+	 * @param pool the pool the chunks are totalled on
+	 * @return an OrderAggregates, the totals of the log
+	 */
+	public OrderAggregates aggregateParallel(ForkJoinPool pool)
+	{
+		int chunks = Math.max(1, Math.min(pool.getParallelism() * 4, Math.max(itemCount, orderCount) / MIN_CHUNK_SIZE));
+		return pool.invoke(new AggregateTask(this, chunks, 0, chunks));
+	}
+
+	/**
+	 * Method used to calculate the total of one order
+	 * @param row the order row
+	 * @return a long, the order total in cents
+	 */
+	public long orderTotalCents(int row)
+	{
+		long sum = 0;
+		for (int i = firstItem(row); i < endItem(row); i++)
+		{
+			sum += itemCents[i];
+		}
+		return sum;
+	}
+
+	/**
+	 * Method used to build an Order object from an order row and its beverage rows
+	 * @param row the order row
+	 * @return an Order, a new order with the data of the row
+	 */
+	public Order getOrder(int row)
+	{
+		checkOrderRow(row);
+		Order order = new Order(orderNumbers[row], orderTimes[row], DAYS[orderDays[row]],
+								NamePool.nameOf(customerNameIds[row]), customerAges[row]);
+		order.setPriceVersion(priceVersions[row]);
+
+		for (int i = firstItems[row]; i < endItem(row); i++)
+		{
+			String name = MenuCatalog.nameOf(itemNameIds[i]);
+			SIZE size = SIZES[itemSizes[i]];
+			int options = itemOptions[i];
+
+			switch (TYPES[itemTypes[i]])
+			{
+				case COFFEE:	order.addNewBeverage(name, size, (options & PricingEngine.COFFEE_EXTRA_SHOT) != 0,
+													(options & PricingEngine.COFFEE_EXTRA_SYRUP) != 0);
+								break;
+				case ALCOHOLIC:	order.addNewBeverage(name, size);
+								break;
+				case SMOOTHIE:	order.addNewBeverage(name, size, (options & PricingEngine.SMOOTHIE_PROTEIN) != 0,
+													options >>> PricingEngine.SMOOTHIE_FRUIT_SHIFT);
+								break;
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * Method used to build a Beverage object from a beverage row
+	 * @param item the beverage row
+	 * @return a Beverage, a new beverage with the data of the row
+	 */
+	public Beverage getBeverage(int item)
+	{
+		if (item < 0 || item >= itemCount)
+		{
+			throw new IndexOutOfBoundsException("Item: " + item + ", Size: " + itemCount);
+		}
+
+		String name = MenuCatalog.nameOf(itemNameIds[item]);
+		SIZE size = SIZES[itemSizes[item]];
+		int options = itemOptions[item];
+
+		Beverage bev;
+		switch (TYPES[itemTypes[item]])
+		{
+			case COFFEE:	bev = new Coffee(name, size, (options & PricingEngine.COFFEE_EXTRA_SHOT) != 0,
+											(options & PricingEngine.COFFEE_EXTRA_SYRUP) != 0);
+							break;
+			case ALCOHOLIC:	bev = new Alcohol(name, size, (options & PricingEngine.ALCOHOL_WEEKEND) != 0);
+							break;
+			default:		bev = new Smoothie(name, size, (options & PricingEngine.SMOOTHIE_PROTEIN) != 0,
+											options >>> PricingEngine.SMOOTHIE_FRUIT_SHIFT);
+							break;
+		}
+		bev.setPriceVersion(priceVersions[itemOrders[item]]);
+		return bev;
+	}
+
+	/**
+	 * Getter to get the number of order rows
+	 * @return an int, the number of orders
+	 */
+	public int orderCount()
+	{
+		return orderCount;
+	}
+
+	/**
+	 * Getter to get the number of beverage rows
+	 * @return an int, the number of beverages
+	 */
+	public int itemCount()
+	{
+		return itemCount;
+	}
+
+	/**
+	 * Getter to get the order number of an order row
+	 * @param row the order row
+	 * @return an int, the order number
+	 */
+	public int getOrderNumber(int row)
+	{
+		checkOrderRow(row);
+		return orderNumbers[row];
+	}
+
+	/**
+	 * Getter to get the time of an order row
+	 * @param row the order row
+	 * @return an int, the order time
+	 */
+	public int getOrderTime(int row)
+	{
+		checkOrderRow(row);
+		return orderTimes[row];
+	}
+
+	/**
+	 * Getter to get the day of an order row
+	 * @param row the order row
+	 * @return a DAY, the order day
+	 */
+	public DAY getOrderDay(int row)
+	{
+		checkOrderRow(row);
+		return DAYS[orderDays[row]];
+	}
+
+	/**
+	 * Getter to get the position of the first beverage row of an order row
+	 * @param row the order row
+	 * @return an int, the first beverage row of the order
+	 */
+	public int firstItem(int row)
+	{
+		checkOrderRow(row);
+		return firstItems[row];
+	}
+
+	/**
+	 * Getter to get the position after the last beverage row of an order row
+	 * @param row the order row
+	 * @return an int, the beverage row after the last one of the order
+	 */
+	public int endItem(int row)
+	{
+		checkOrderRow(row);
+		return row + 1 < orderCount ? firstItems[row + 1] : itemCount;
+	}
+
+	/**
+	 * Getter to get the type of a beverage row
+	 * @param item the beverage row
+	 * @return a TYPE, the beverage type
+	 */
+	public TYPE getType(int item)
+	{
+		return TYPES[itemTypes[item]];
+	}
+
+	/**
+	 * Getter to get the size of a beverage row
+	 * @param item the beverage row
+	 * @return a SIZE, the beverage size
+	 */
+	public SIZE getSize(int item)
+	{
+		return SIZES[itemSizes[item]];
+	}
+
+	/**
+	 * Getter to get the price of a beverage row
+	 * @param item the beverage row
+	 * @return an int, the price in cents
+	 */
+	public int getPriceCents(int item)
+	{
+		return itemCents[item];
+	}
+
+	/**
+	 * Getter to get the name of a beverage row
+	 * @param item the beverage row
+	 * @return a String, the beverage name
+	 */
+	public String getBevName(int item)
+	{
+		return MenuCatalog.nameOf(itemNameIds[item]);
+	}
+
+	/**
+	 * Method used to add an order row
+	 * @param orderNo the order number
+	 * @param time the order time
+	 * @param day the order day
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 * @param priceVersion the version of the pricing catalog the order is priced with
+	 */
+	private void addOrderRow(int orderNo, int time, DAY day, String customerName, int customerAge, int priceVersion)
+	{
+		if (orderCount == orderNumbers.length)
+		{
+			int capacity = orderCount * 2;
+			orderNumbers = Arrays.copyOf(orderNumbers, capacity);
+			orderTimes = Arrays.copyOf(orderTimes, capacity);
+			orderDays = Arrays.copyOf(orderDays, capacity);
+			customerNameIds = Arrays.copyOf(customerNameIds, capacity);
+			customerAges = Arrays.copyOf(customerAges, capacity);
+			firstItems = Arrays.copyOf(firstItems, capacity);
+			priceVersions = Arrays.copyOf(priceVersions, capacity);
+		}
+
+		orderNumbers[orderCount] = orderNo;
+		orderTimes[orderCount] = time;
+		orderDays[orderCount] = (byte) day.ordinal();
+		customerNameIds[orderCount] = NamePool.idOf(customerName);
+		customerAges[orderCount] = customerAge;
+		firstItems[orderCount] = itemCount;
+		priceVersions[orderCount] = priceVersion;
+		orderCount++;
+	}
+
+	/**
+	 * Method used to add a beverage row for the last order added
+	 * @param type the beverage type
+	 * @param size the beverage size
+	 * @param options the option bits
+	 * @param cents the price in cents
+	 * @param nameId the id of the beverage name in the MenuCatalog
+	 */
+	private void addBeverageRow(TYPE type, SIZE size, int options, int cents, int nameId)
+	{
+		if (orderCount == 0)
+		{
+			throw new IllegalStateException("no order to add the beverage to");
+		}
+
+		if (itemCount == itemOrders.length)
+		{
+			int capacity = itemCount * 2;
+			itemOrders = Arrays.copyOf(itemOrders, capacity);
+			itemTypes = Arrays.copyOf(itemTypes, capacity);
+			itemSizes = Arrays.copyOf(itemSizes, capacity);
+			itemOptions = Arrays.copyOf(itemOptions, capacity);
+			itemCents = Arrays.copyOf(itemCents, capacity);
+			itemNameIds = Arrays.copyOf(itemNameIds, capacity);
+		}
+
+		itemOrders[itemCount] = orderCount - 1;
+		itemTypes[itemCount] = (byte) type.ordinal();
+		itemSizes[itemCount] = (byte) size.ordinal();
+		itemOptions[itemCount] = options;
+		itemCents[itemCount] = cents;
+		itemNameIds[itemCount] = nameId;
+		itemCount++;
+	}
+
+	/**
+	 * Method used to get the option bits stored for a beverage. These are the PricingEngine flags, except that
+	 * the number of fruits of a smoothie is kept in full rather than capped at the price table size
+	 * @param bev the beverage
+	 * @return an int, the option bits
+	 */
+	private static int optionBits(Beverage bev)
+	{
+		if (bev instanceof Smoothie)
+		{
+			Smoothie smoothie = (Smoothie) bev;
+			return (smoothie.getProtein() ? PricingEngine.SMOOTHIE_PROTEIN : 0)
+					| (Math.max(0, smoothie.getFruits()) << PricingEngine.SMOOTHIE_FRUIT_SHIFT);
+		}
+		return bev.getOptionFlags();
+	}
+
+	/**
+	 * Method used to check that an order row exists
+	 * @param row the order row
+	 */
+	private void checkOrderRow(int row)
+	{
+		if (row < 0 || row >= orderCount)
+		{
+			throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + orderCount);
+		}
+	}
+
+	/**
+	 * This class totals a range of chunks of the log, splitting it in half until one chunk is left. Chunk k
+	 * covers the same fraction of the order rows and of the beverage rows
+	 */
+	private static class AggregateTask extends RecursiveTask<OrderAggregates>
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final ColumnarOrderStore store;
+		private final int chunks;
+		private final int firstChunk;
+		private final int lastChunk;
+
+		AggregateTask(ColumnarOrderStore store, int chunks, int firstChunk, int lastChunk)
+		{
+			this.store = store;
+			this.chunks = chunks;
+			this.firstChunk = firstChunk;
+			this.lastChunk = lastChunk;
+		}
+
+		@Override
+		protected OrderAggregates compute()
+		{
+			if (lastChunk - firstChunk > 1)
+			{
+				int mid = (firstChunk + lastChunk) >>> 1;
+				AggregateTask left = new AggregateTask(store, chunks, firstChunk, mid);
+				AggregateTask right = new AggregateTask(store, chunks, mid, lastChunk);
+				ForkJoinTask.invokeAll(left, right);
+				return left.join().add(right.join());
+			}
+
+			OrderAggregates totals = new OrderAggregates();
+			long orders = store.orderCount;
+			long items = store.itemCount;
+			int orderFrom = (int) (orders * firstChunk / chunks);
+			int orderTo = (int) (orders * lastChunk / chunks);
+			int itemFrom = (int) (items * firstChunk / chunks);
+			int itemTo = (int) (items * lastChunk / chunks);
+			byte[] orderDays = store.orderDays;
+			int[] itemOrders = store.itemOrders;
+			byte[] itemTypes = store.itemTypes;
+			int[] itemCents = store.itemCents;
+
+			for (int i = orderFrom; i < orderTo; i++)
+			{
+				totals.ordersByDay[orderDays[i]]++;
+			}
+			for (int i = itemFrom; i < itemTo; i++)
+			{
+				int cents = itemCents[i];
+				totals.totalCents += cents;
+				totals.beverageCounts[itemTypes[i]]++;
+				totals.centsByDay[orderDays[itemOrders[i]]] += cents;
+			}
+			totals.orderCount = orderTo - orderFrom;
+			totals.itemCount = itemTo - itemFrom;
+			return totals;
+		}
+	}
+}
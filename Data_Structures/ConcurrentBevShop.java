@@ -0,0 +1,647 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Beverage.TYPE;
+import Data_Structures.Order.DAY;
+import Data_Structures.ShopMetrics.OPERATION;
+import Interfaces.BevShopInterface;
+import Interfaces.OrderNumberGeneratorInterface;
+
+/**
+ * This class represents a thread safe BevShop that several registers can share. Each register works
+ * through its own ShopTerminal, which holds that register's current order; the BevShopInterface methods
+ * use a terminal bound to the calling thread. Orders are appended to a lock-free ConcurrentOrderLog,
+ * the order number index and lock are split into stripes, and the totals are kept in LongAdders,
+ * so terminals on different stripes do not contend with each other.
+ */
+public class ConcurrentBevShop implements BevShopInterface
+{
+	private static final TYPE[] TYPES = TYPE.values();
+
+	private final int MAX_ORDER_FOR_ALCOHOL = 3;
+	private final int MIN_AGE_FOR_ALCOHOL = 21;
+	private final ConcurrentOrderLog Orders = new ConcurrentOrderLog();
+	private final ReentrantReadWriteLock[] stripeLocks;
+	private final OrderIndex[] indexStripes;
+	private final int stripeMask;
+	private final AtomicInteger nextStripe = new AtomicInteger();
+	private final LongAdder revenueCents = new LongAdder();
+	private final LongAdder orderCount = new LongAdder();
+	private final LongAdder[] beverageCounts = new LongAdder[TYPES.length];
+	private final ShopMetrics metrics = new ShopMetrics();
+	private final ThreadLocal<ShopTerminal> terminals = ThreadLocal.withInitial(this::openTerminal);
+	private volatile OrderNumberGeneratorInterface orderNumbers = Order.getOrderNumberGenerator();
+
+	/**
+	 * Standard constructor to build a ConcurrentBevShop with one stripe per available processor
+	 */
+	public ConcurrentBevShop()
+	{
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructor to build a ConcurrentBevShop with a given number of stripes
+	 * @param stripes the number of lock and index stripes, rounded up to a power of two
+	 */
+	public ConcurrentBevShop(int stripes)
+	{
+		int count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+		stripeLocks = new ReentrantReadWriteLock[count];
+		indexStripes = new OrderIndex[count];
+		stripeMask = count - 1;
+
+		for (int i = 0; i < count; i++)
+		{
+			stripeLocks[i] = new ReentrantReadWriteLock();
+			indexStripes[i] = new OrderIndex();
+		}
+		for (int i = 0; i < beverageCounts.length; i++)
+		{
+			beverageCounts[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Method used to open a new terminal with its own current order
+	 * @return a ShopTerminal, the new terminal
+	 */
+	public ShopTerminal openTerminal()
+	{
+		return new ShopTerminal(this, nextStripe.getAndIncrement() & stripeMask);
+	}
+
+	/**
+	 * Method used to get the terminal bound to the calling thread, used by the BevShopInterface methods
+	 * @return a ShopTerminal, the calling thread's terminal
+	 */
+	public ShopTerminal currentTerminal()
+	{
+		return terminals.get();
+	}
+
+	/**
+	 * Method used to determine if the time the order was made at is valid
+	 * @param time the time the order was made at
+	 * @return a boolean, whether the time is valid or not
+	 */
+	public boolean validTime(int time)
+	{
+		return time >= BevShopInterface.MIN_TIME && time <= BevShopInterface.MAX_TIME;
+	}
+
+	/**
+	 * Method used to determine if the customer of the calling thread's current order may order another alcoholic drink
+	 * @return a boolean, whether the customer may order another alcoholic drink or not
+	 */
+	public boolean eligibleForMore()
+	{
+		return currentTerminal().eligibleForMore();
+	}
+
+	/**
+	 * Method used to determine if the customer may order alcohol
+	 * @param age the customers age
+	 * @return a boolean, whether the customers age is valid or not
+	 */
+	public boolean validAge(int age)
+	{
+		return age >= MIN_AGE_FOR_ALCOHOL;
+	}
+
+	/**
+	 * Method used to get the latency metrics of the shop's operations, shared by every terminal, which can be
+	 * registered over JMX or scraped as text
+	 * @return a ShopMetrics, the metrics
+	 */
+	public ShopMetrics getMetrics()
+	{
+		return metrics;
+	}
+
+	/**
+	 * Method used to start a new order on the calling thread's terminal and add it to the order log
+	 * @param time the order time
+	 * @param day the order day
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 */
+	public void startNewOrder(int time, DAY day, String customerName, int customerAge)
+	{
+		currentTerminal().startNewOrder(time, day, customerName, customerAge);
+	}
+
+	/**
+	 * Method used to add a coffee (object) to the calling thread's current order
+	 * @param bevName Beverage name
+	 * @param size Beverage size
+	 * @param extraShot If the customer wants an extra shot
+	 * @param extraSyrup If the customer wants extra syrup
+	 */
+	public void processCoffeeOrder(String bevName, SIZE size, boolean extraShot, boolean extraSyrup)
+	{
+		currentTerminal().processCoffeeOrder(bevName, size, extraShot, extraSyrup);
+	}
+
+	/**
+	 * Method used to add an alcoholic drink (object) to the calling thread's current order
+	 * @param bevName the name of the drink
+	 * @param size the size of the drink
+	 */
+	public void processAlcoholOrder(String bevName, SIZE size)
+	{
+		currentTerminal().processAlcoholOrder(bevName, size);
+	}
+
+	/**
+	 * Method used to add a smoothie (object) to the calling thread's current order
+	 * @param bevName the beverage name
+	 * @param size beverage size
+	 * @param numOfFruits How many fruits the customer wants
+	 * @param addProtein Whether the customer wants protein
+	 */
+	public void processSmoothieOrder(String bevName, SIZE size, int numOfFruits, boolean addProtein)
+	{
+		currentTerminal().processSmoothieOrder(bevName, size, numOfFruits, addProtein);
+	}
+
+	/**
+	 * Method used to validate a complete order and append it, with all of its beverages, to the order log; it becomes
+	 * the calling thread's current order
+	 * @param request the order to add
+	 */
+	public void processOrder(OrderRequest request)
+	{
+		long start = metrics.start(OPERATION.PROCESS_ORDER);
+		try
+		{
+			request.validate(this);
+			ShopTerminal terminal = currentTerminal();
+			Order order = request.toOrder(orderNumbers.nextOrderNumber());
+			append(order, terminal.getStripe());
+			terminal.setCurrentOrder(order);
+		}
+		finally
+		{
+			metrics.stop(OPERATION.PROCESS_ORDER, start);
+		}
+	}
+
+	/**
+	 * Method used to validate a batch of complete orders and append all of them to the order log, or none of them if
+	 * any is not valid. The orders are built before any lock is taken, then every stripe is locked once while the
+	 * whole batch is appended, indexed and added to the running totals, so lookups see either none or all of the
+	 * batch, and never an order whose totals are missing. The last order becomes the calling thread's current order
+	 * @param requests the orders to add
+	 */
+	public void processOrders(List<OrderRequest> requests)
+	{
+		long start = metrics.start(OPERATION.PROCESS_ORDERS);
+		try
+		{
+			int n = requests.size();
+			for (int i = 0; i < n; i++)
+			{
+				requests.get(i).validate(this);
+			}
+			if (n == 0)
+			{
+				return;
+			}
+
+			Order[] orders = new Order[n];
+			for (int i = 0; i < n; i++)
+			{
+				orders[i] = requests.get(i).toOrder(orderNumbers.nextOrderNumber());
+			}
+
+			lockAll();
+			try
+			{
+				for (int i = 0; i < n; i++)
+				{
+					index(orders[i].getOrderNumber(), Orders.add(orders[i]));
+					addToTotals(orders[i]);
+				}
+				orderCount.add(n);
+			}
+			finally
+			{
+				unlockAll();
+			}
+			currentTerminal().setCurrentOrder(orders[n - 1]);
+		}
+		finally
+		{
+			metrics.stop(OPERATION.PROCESS_ORDERS, start);
+		}
+	}
+
+	/**
+	 * Method used to find an order in the order log via order number
+	 * @param orderNo the order number
+	 * @return an int, the index of the order, or -1 if it is not found
+	 */
+	public int findOrder(int orderNo)
+	{
+		long start = metrics.start(OPERATION.FIND_ORDER);
+		try
+		{
+			ReentrantReadWriteLock.ReadLock lock = stripeLocks[currentTerminal().getStripe()].readLock();
+			lock.lock();
+			try
+			{
+				return lookup(orderNo);
+			}
+			finally
+			{
+				lock.unlock();
+			}
+		}
+		finally
+		{
+			metrics.stop(OPERATION.FIND_ORDER, start);
+		}
+	}
+
+	/**
+	 * Method to calculate the total price of an order given it's order number
+	 * @param orderNo the order number
+	 * @return a double, the order total, or -1 if it is not found
+	 */
+	public double totalOrderPrice(int orderNo)
+	{
+		ReentrantReadWriteLock.ReadLock lock = stripeLocks[currentTerminal().getStripe()].readLock();
+		lock.lock();
+		try
+		{
+			int i = lookup(orderNo);
+			if (i == -1)
+			{
+				return -1;
+			}
+
+			Order order = Orders.get(i);
+			synchronized (order)
+			{
+				return order.calcOrderTotal();
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Method to get the total of all orders, kept up to date as beverages are added
+	 * @return a double, the total monthly sales
+	 */
+	public double totalMonthlySale()
+	{
+		long start = metrics.start(OPERATION.TOTAL_MONTHLY_SALE);
+		try
+		{
+			return PricingEngine.toPrice(revenueCents.sum());
+		}
+		finally
+		{
+			metrics.stop(OPERATION.TOTAL_MONTHLY_SALE, start);
+		}
+	}
+
+	/**
+	 * Method to get the exact total of all orders in cents
+	 * @return a long, the total monthly sales in cents
+	 */
+	public long totalMonthlySaleCents()
+	{
+		long start = metrics.start(OPERATION.TOTAL_MONTHLY_SALE);
+		try
+		{
+			return revenueCents.sum();
+		}
+		finally
+		{
+			metrics.stop(OPERATION.TOTAL_MONTHLY_SALE, start);
+		}
+	}
+	
+	/**
+	 * Method used to get the number of beverages of a type sold in all orders
+	 * @param type the beverage type
+	 * @return an int, the number of beverages of the type
+	 */
+	public int totalNumOfMonthlyBeverages(TYPE type)
+	{
+		return beverageCounts[type.ordinal()].intValue();
+	}
+
+	/**
+	 * Method to sort the orders in increasing order number. Every stripe is locked while the log is rewritten,
+	 * so this is the one operation that stops all terminals
+	 */
+	public void sortOrders()
+	{
+		long start = metrics.start(OPERATION.SORT_ORDERS);
+		try
+		{
+			lockAll();
+			try
+			{
+				int n = Orders.size();
+				ArrayList<Order> sorted = new ArrayList<Order>(n);
+				for (int i = 0; i < n; i++)
+				{
+					sorted.add(Orders.get(i));
+				}
+
+				OrderSorter.sort(sorted);
+
+				for (int s = 0; s < indexStripes.length; s++)
+				{
+					indexStripes[s].clear();
+				}
+				for (int i = 0; i < n; i++)
+				{
+					Order order = sorted.get(i);
+					Orders.set(i, order);
+					index(order.getOrderNumber(), i);
+				}
+			}
+			finally
+			{
+				unlockAll();
+			}
+		}
+		finally
+		{
+			metrics.stop(OPERATION.SORT_ORDERS, start);
+		}
+	}
+
+	/**
+	 * Method to get an Order object listed at an index specified as the argument
+	 * @param index the index at which the order is listed in the order log
+	 * @return an Order, a copy of the order at the specified index
+	 */
+	public Order getOrderAtIndex(int index)
+	{
+		ReentrantReadWriteLock.ReadLock lock = stripeLocks[currentTerminal().getStripe()].readLock();
+		lock.lock();
+		try
+		{
+			Order order = Orders.get(index);
+			synchronized (order)
+			{
+				return new Order(order);
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Method used to get the calling thread's current order
+	 * @return an Order, a copy of the current order
+	 */
+	public Order getCurrentOrder()
+	{
+		return currentTerminal().getCurrentOrder();
+	}
+
+	/**
+	 * Method used to count the number of alcoholic drinks in the calling thread's current order
+	 * @return an int, the number of alcoholic drinks in the current order
+	 */
+	public int getNumOfAlcoholDrink()
+	{
+		return currentTerminal().getNumOfAlcoholDrink();
+	}
+
+	/**
+	 * Method used to get the number of total orders
+	 * @return an int, the number of total order
+	 */
+	public int totalNumOfMonthlyOrders()
+	{
+		return orderCount.intValue();
+	}
+
+	/**
+	 * Method to determine if a smoothie has ordered more than the maximum number of fruits
+	 * @param i the number of fruits ordered
+	 * @return a boolean, whether or not a smoothie has ordered more than the maximum number of fruits
+	 */
+	public boolean isMaxFruit(int i)
+	{
+		return i > BevShopInterface.MAX_FRUIT;
+	}
+
+	/**
+	 * Method to get the maximum number of alcoholic drinks one can order
+	 * @return an int, the maximum number of alcoholic drinks one can order
+	 */
+	public int getMaxOrderForAlcohol()
+	{
+		return MAX_ORDER_FOR_ALCOHOL;
+	}
+
+	/**
+	 * Method to get the minimum age required to get an alcoholic drink
+	 * @return an int, the minimum age required to get an alcoholic drink
+	 */
+	public int getMinAgeForAlcohol()
+	{
+		return MIN_AGE_FOR_ALCOHOL;
+	}
+
+	/**
+	 * Setter to set the generator used for the order numbers of orders started by this shop
+	 * @param orderNumbers the order number generator
+	 */
+	public void setOrderNumberGenerator(OrderNumberGeneratorInterface orderNumbers)
+	{
+		if (orderNumbers == null)
+		{
+			throw new IllegalArgumentException("orderNumbers must not be null");
+		}
+		this.orderNumbers = orderNumbers;
+	}
+
+	/**
+	 * toString method used to print out the pertinent information about each order
+	 * @return a string, the information about each order
+	 */
+	@Override
+	public String toString()
+	{
+		StringBuilder orders = new StringBuilder();
+		
+		try
+		{
+			writeReport(orders);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		
+		return orders.toString();
+	}
+
+	/**
+	 * Method used to stream the information about each order and the total of all orders, in the same format as toString.
+	 * Each order is locked only while it is written
+	 * @param out where the report is written to, for example a Writer or a ChannelReportSink
+	 * @throws IOException if writing the report fails
+	 */
+	public void writeReport(Appendable out) throws IOException
+	{
+		OrderReportWriter report = new OrderReportWriter(out);
+		int n = Orders.size();
+
+		out.append("Orders: ");
+		for (int i = 0; i < n; i++)
+		{
+			Order order = Orders.get(i);
+			synchronized (order)
+			{
+				report.writeOrder(order);
+			}
+			out.append(". ");
+		}
+		out.append("Orders Total: ");
+		report.writePrice(revenueCents.sum());
+	}
+
+	/**
+	 * Method used by a terminal to create a new order and append it to the order log
+	 * @param stripe the lock stripe of the terminal
+	 * @return an Order, the new order
+	 */
+	Order newOrder(int time, DAY day, String customerName, int customerAge, int stripe)
+	{
+		Order order = new Order(orderNumbers.nextOrderNumber(), time, day, customerName, customerAge);
+		append(order, stripe);
+		return order;
+	}
+
+	/**
+	 * Method used to append an order to the order log, index it and add its beverages to the running totals
+	 * @param order the order
+	 * @param stripe the lock stripe of the terminal
+	 */
+	private void append(Order order, int stripe)
+	{
+		ReentrantReadWriteLock.ReadLock lock = stripeLocks[stripe].readLock();
+		lock.lock();
+		try
+		{
+			index(order.getOrderNumber(), Orders.add(order));
+			addToTotals(order);
+			orderCount.increment();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Method used by a terminal to add a beverage to the running totals
+	 * @param bev the beverage added to an order
+	 */
+	void addToTotals(Beverage bev)
+	{
+		revenueCents.add(bev.calcPriceCents());
+		beverageCounts[bev.getType().ordinal()].increment();
+	}
+
+	/**
+	 * Method used to add every beverage of a new complete order to the running totals
+	 * @param order the order
+	 */
+	private void addToTotals(Order order)
+	{
+		for (int i = 0; i < order.getTotalItems(); i++)
+		{
+			addToTotals(order.getBeverage(i));
+		}
+	}
+
+	/**
+	 * Method used to add an order number to the index stripe it hashes to
+	 * @param orderNo the order number
+	 * @param slot the position of the order in the order log
+	 */
+	private void index(int orderNo, int slot)
+	{
+		OrderIndex stripe = indexStripes[indexStripe(orderNo)];
+		synchronized (stripe)
+		{
+			stripe.put(orderNo, slot);
+		}
+	}
+
+	/**
+	 * Method used to look up an order number in the index stripe it hashes to
+	 * @param orderNo the order number
+	 * @return an int, the position of the order in the order log, or -1 if it is not found
+	 */
+	private int lookup(int orderNo)
+	{
+		OrderIndex stripe = indexStripes[indexStripe(orderNo)];
+		synchronized (stripe)
+		{
+			return stripe.get(orderNo);
+		}
+	}
+
+	/**
+	 * Method used to pick the index stripe of an order number
+	 * @param orderNo the order number
+	 * @return an int, the index stripe
+	 */
+	private int indexStripe(int orderNo)
+	{
+		int h = orderNo * 0x85EBCA6B;
+		return (h ^ (h >>> 15)) & stripeMask;
+	}
+
+	/**
+	 * Method used to take the write lock of every stripe, always in the same order
+	 */
+	private void lockAll()
+	{
+		for (int i = 0; i < stripeLocks.length; i++)
+		{
+			stripeLocks[i].writeLock().lock();
+		}
+	}
+
+	/**
+	 * Method used to release the write lock of every stripe
+	 */
+	private void unlockAll()
+	{
+		for (int i = stripeLocks.length - 1; i >= 0; i--)
+		{
+			stripeLocks[i].writeLock().unlock();
+		}
+	}
+}
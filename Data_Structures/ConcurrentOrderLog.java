@@ -0,0 +1,98 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * This class represents an append-only list of orders that several threads can add to at once without
+ * a lock. An append claims the next position with a single atomic increment and writes the order into
+ * a fixed size chunk; chunks are created on demand with a compare-and-set, so appends never wait on each other.
+ */
+public class ConcurrentOrderLog
+{
+	private static final int CHUNK_BITS = 12;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+	private static final int MAX_CHUNKS = 1 << 18;
+
+	private final AtomicReferenceArray<AtomicReferenceArray<Order>> chunks = new AtomicReferenceArray<AtomicReferenceArray<Order>>(MAX_CHUNKS);
+	private final AtomicInteger size = new AtomicInteger();
+
+	/**
+	 * Method used to append an order to the log
+	 * @param order the order to append
+	 * @return an int, the position of the order in the log
+	 */
+	public int add(Order order)
+	{
+		int index = size.getAndIncrement();
+		if (index < 0 || (index >>> CHUNK_BITS) >= MAX_CHUNKS)
+		{
+			size.decrementAndGet();
+			throw new IllegalStateException("order log is full");
+		}
+		chunk(index >>> CHUNK_BITS).set(index & CHUNK_MASK, order);
+		return index;
+	}
+
+	/**
+	 * Method used to get the order at a position of the log. If the position was claimed by an append that has
+	 * not finished writing yet, this waits the few instructions it takes for the order to appear
+	 * @param index the position of the order
+	 * @return an Order, the order at the position
+	 */
+	public Order get(int index)
+	{
+		if (index < 0 || index >= size.get())
+		{
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size.get());
+		}
+
+		AtomicReferenceArray<Order> chunk = chunk(index >>> CHUNK_BITS);
+		Order order;
+		while ((order = chunk.get(index & CHUNK_MASK)) == null)
+		{
+			Thread.onSpinWait();
+		}
+		return order;
+	}
+
+	/**
+	 * Method used to replace the order at a position of the log, only safe while no appends are running
+	 * @param index the position of the order
+	 * @param order the new order at the position
+	 */
+	void set(int index, Order order)
+	{
+		chunk(index >>> CHUNK_BITS).set(index & CHUNK_MASK, order);
+	}
+
+	/**
+	 * Getter to get the number of orders appended to the log
+	 * @return an int, the number of orders
+	 */
+	public int size()
+	{
+		return size.get();
+	}
+
+	/**
+	 * Method used to get a chunk of the log, creating it if no append has needed it yet
+	 * @param chunkIndex the position of the chunk
+	 * @return an AtomicReferenceArray, the chunk
+	 */
+	private AtomicReferenceArray<Order> chunk(int chunkIndex)
+	{
+		AtomicReferenceArray<Order> chunk = chunks.get(chunkIndex);
+		if (chunk == null)
+		{
+			chunks.compareAndSet(chunkIndex, null, new AtomicReferenceArray<Order>(CHUNK_SIZE));
+			chunk = chunks.get(chunkIndex);
+		}
+		return chunk;
+	}
+}
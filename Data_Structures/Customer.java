@@ -6,12 +6,13 @@ package Data_Structures;
 
 /**
  * This class represents a customer to whom an Order belongs to, and includes fields for
- * their name and age
+ * their name and age. Names are the shared instances from the NamePool.
  */
 public class Customer 
 {
 	private String customerName;
 	private int customerAge;
+	private CustomerView view;
 	
 	/**
 	 * Standard constructor to build a Customer object
@@ -20,7 +21,7 @@ public class Customer
 	 */
 	public Customer(String customerName, int customerAge)
 	{
-		this.customerName = new String(customerName);
+		this.customerName = NamePool.intern(customerName);
 		this.customerAge = customerAge;
 	}
 	
@@ -30,7 +31,7 @@ public class Customer
 	 */
 	public Customer(Customer o2)
 	{
-		this.customerName = new String(o2.customerName);
+		this.customerName = o2.customerName;
 		this.customerAge = o2.customerAge;
 	}
 	
@@ -40,7 +41,7 @@ public class Customer
 	 */
 	public void setName(String customerName)
 	{
-		this.customerName = new String(customerName);
+		this.customerName = NamePool.intern(customerName);
 	}
 
 	/**
@@ -70,6 +71,19 @@ public class Customer
 		return customerAge;
 	}
 	
+	/**
+	 * Method used to get a read-only view of this customer, created once and reused
+	 * @return a CustomerView, the view of this customer
+	 */
+	public CustomerView asView()
+	{
+		if (view == null)
+		{
+			view = new CustomerView(this);
+		}
+		return view;
+	}
+	
 	/**
 	 * toString method used to print out the pertinent information about the customer
 	 * @return a string, information about the customer
@@ -0,0 +1,284 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.util.Arrays;
+
+/**
+ * This class represents a shop's registry of customers. A customer is a name and an age, so orders by the same
+ * person share one Customer instead of each making its own. For every customer the registry keeps the positions
+ * of their orders in the shop's order log, in the order they were taken, and for every name the customer who
+ * ordered under it last. Finding a customer is one probe of an open-addressing table keyed on the NamePool id of
+ * the name and the age, so loyalty lookups cost O(1) plus the customer's own number of orders.
+ */
+public class CustomerRegistry
+{
+	private static final int INITIAL_CAPACITY = 16;
+	private static final int EMPTY = -1;
+
+	private Customer[] customers = new Customer[INITIAL_CAPACITY];
+	private int[][] positions = new int[INITIAL_CAPACITY][];
+	private int[] orderCounts = new int[INITIAL_CAPACITY];
+	private int customerCount;
+	private int orderCount;
+	private long[] tableKeys = new long[INITIAL_CAPACITY * 2];
+	private int[] tableSlots = new int[INITIAL_CAPACITY * 2];
+	private int[] lastByName = new int[INITIAL_CAPACITY];
+
+	/**
+	 * Standard constructor to build an empty CustomerRegistry
+	 */
+	public CustomerRegistry()
+	{
+		Arrays.fill(tableSlots, EMPTY);
+		Arrays.fill(lastByName, EMPTY);
+	}
+
+	/**
+	 * Method used to get the shared Customer of a name and age, registering the customer if they are new
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 * @return a Customer, the shared customer
+	 */
+	Customer intern(String customerName, int customerAge)
+	{
+		int customer = register(customerName, customerAge);
+		return customers[customer];
+	}
+
+	/**
+	 * Method used to record the order at the next position of the order log
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 */
+	void addOrder(String customerName, int customerAge)
+	{
+		int customer = register(customerName, customerAge);
+		int count = orderCounts[customer];
+		if (positions[customer] == null)
+		{
+			positions[customer] = new int[2];
+		}
+		else if (count == positions[customer].length)
+		{
+			positions[customer] = Arrays.copyOf(positions[customer], count * 2);
+		}
+
+		positions[customer][count] = orderCount++;
+		orderCounts[customer] = count + 1;
+		lastByName[NamePool.idOf(customerName)] = customer;
+	}
+
+	/**
+	 * Method used to forget every order position after the orders were moved, keeping the customers
+	 */
+	void clearOrders()
+	{
+		Arrays.fill(orderCounts, 0, customerCount, 0);
+		Arrays.fill(lastByName, EMPTY);
+		orderCount = 0;
+	}
+
+	/**
+	 * Getter to get the number of order positions recorded
+	 * @return an int, the number of orders
+	 */
+	public int getOrderCount()
+	{
+		return orderCount;
+	}
+
+	/**
+	 * Getter to get the number of different customers
+	 * @return an int, the number of customers
+	 */
+	public int getCustomerCount()
+	{
+		return customerCount;
+	}
+
+	/**
+	 * Method used to count the orders of a customer
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 * @return an int, the number of orders of the customer
+	 */
+	public int getOrderCount(String customerName, int customerAge)
+	{
+		int customer = find(customerName, customerAge);
+		return customer == EMPTY ? 0 : orderCounts[customer];
+	}
+
+	/**
+	 * Method used to get the positions of the orders of a customer in the order log
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 * @return an int array, the positions in the order they were taken, empty if the customer has no orders
+	 */
+	public int[] getOrderPositions(String customerName, int customerAge)
+	{
+		int customer = find(customerName, customerAge);
+		if (customer == EMPTY || orderCounts[customer] == 0)
+		{
+			return new int[0];
+		}
+		return Arrays.copyOf(positions[customer], orderCounts[customer]);
+	}
+
+	/**
+	 * Method used to get the position of the last order of a customer in the order log
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 * @return an int, the position, or -1 if the customer has no orders
+	 */
+	public int getLastOrderPosition(String customerName, int customerAge)
+	{
+		int customer = find(customerName, customerAge);
+		if (customer == EMPTY || orderCounts[customer] == 0)
+		{
+			return EMPTY;
+		}
+		return positions[customer][orderCounts[customer] - 1];
+	}
+
+	/**
+	 * Method used to get the age given with the last order under a name, for example to check an age again
+	 * @param customerName the customers name
+	 * @return an int, the age, or -1 if nobody ordered under the name
+	 */
+	public int getLastKnownAge(String customerName)
+	{
+		int id = NamePool.find(customerName);
+		if (id == EMPTY || id >= lastByName.length || lastByName[id] == EMPTY)
+		{
+			return EMPTY;
+		}
+		return customers[lastByName[id]].getAge();
+	}
+
+	/**
+	 * Method used to find a customer
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 * @return an int, the customer, or -1 if they are not registered
+	 */
+	private int find(String customerName, int customerAge)
+	{
+		int nameId = NamePool.find(customerName);
+		if (nameId == EMPTY)
+		{
+			return EMPTY;
+		}
+		long key = key(nameId, customerAge);
+		int mask = tableSlots.length - 1;
+		int i = home(key, mask);
+		int customer;
+		while ((customer = tableSlots[i]) != EMPTY)
+		{
+			if (tableKeys[i] == key)
+			{
+				return customer;
+			}
+			i = (i + 1) & mask;
+		}
+		return EMPTY;
+	}
+
+	/**
+	 * Method used to find a customer, registering them if they are new
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 * @return an int, the customer
+	 */
+	private int register(String customerName, int customerAge)
+	{
+		int nameId = NamePool.idOf(customerName);
+		long key = key(nameId, customerAge);
+		int mask = tableSlots.length - 1;
+		int i = home(key, mask);
+		int customer;
+		while ((customer = tableSlots[i]) != EMPTY)
+		{
+			if (tableKeys[i] == key)
+			{
+				return customer;
+			}
+			i = (i + 1) & mask;
+		}
+
+		customer = customerCount++;
+		if (customer == customers.length)
+		{
+			customers = Arrays.copyOf(customers, customer * 2);
+			positions = Arrays.copyOf(positions, customer * 2);
+			orderCounts = Arrays.copyOf(orderCounts, customer * 2);
+		}
+		customers[customer] = new Customer(customerName, customerAge);
+
+		if (nameId >= lastByName.length)
+		{
+			int length = lastByName.length;
+			lastByName = Arrays.copyOf(lastByName, Math.max(length * 2, nameId + 1));
+			Arrays.fill(lastByName, length, lastByName.length, EMPTY);
+		}
+
+		tableKeys[i] = key;
+		tableSlots[i] = customer;
+		if (customerCount * 2 > tableSlots.length)
+		{
+			rehash();
+		}
+		return customer;
+	}
+
+	/**
+	 * Method used to double the table once it is half full
+	 */
+	private void rehash()
+	{
+		long[] oldKeys = tableKeys;
+		int[] oldSlots = tableSlots;
+		tableKeys = new long[oldKeys.length * 2];
+		tableSlots = new int[oldSlots.length * 2];
+		Arrays.fill(tableSlots, EMPTY);
+
+		int mask = tableSlots.length - 1;
+		for (int j = 0; j < oldSlots.length; j++)
+		{
+			if (oldSlots[j] != EMPTY)
+			{
+				int i = home(oldKeys[j], mask);
+				while (tableSlots[i] != EMPTY)
+				{
+					i = (i + 1) & mask;
+				}
+				tableKeys[i] = oldKeys[j];
+				tableSlots[i] = oldSlots[j];
+			}
+		}
+	}
+
+	/**
+	 * Method used to get the key of a customer
+	 * @param nameId the NamePool id of the customers name
+	 * @param customerAge the customers age
+	 * @return a long, the id of the name and the age
+	 */
+	private static long key(int nameId, int customerAge)
+	{
+		return ((long) nameId << 32) | (customerAge & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Method used to get the home slot of a key
+	 * @param key the key
+	 * @param mask the table size minus one
+	 * @return an int, the home slot
+	 */
+	private static int home(long key, int mask)
+	{
+		return OrderIndex.mix((int) (key >>> 32) * 0x9E3779B1 + (int) key) & mask;
+	}
+}
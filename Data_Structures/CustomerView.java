@@ -0,0 +1,51 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+/**
+ * This class represents a read-only view of a Customer. It reads through to the customer instead of
+ * copying it and has no setters, so it can be handed out freely without letting callers change the shop's data.
+ */
+public final class CustomerView
+{
+	private final Customer customer;
+	
+	/**
+	 * Standard constructor to build a view of a customer
+	 * @param customer the customer to view
+	 */
+	CustomerView(Customer customer)
+	{
+		this.customer = customer;
+	}
+	
+	/**
+	 * Getter method to get the customers name
+	 * @return a string, the customers name
+	 */
+	public String getName()
+	{
+		return customer.getName();
+	}
+	
+	/**
+	 * Getter method to get the customers age
+	 * @return an int, the customers age
+	 */
+	public int getAge()
+	{
+		return customer.getAge();
+	}
+	
+	/**
+	 * toString method used to print out the pertinent information about the customer
+	 * @return a string, information about the customer
+	 */
+	@Override
+	public String toString()
+	{
+		return customer.toString();
+	}
+}
@@ -0,0 +1,246 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class represents a latency histogram with a fixed set of log-linear buckets, in the style of an HDR
+ * histogram: values below 16 have a bucket each, and every power of two above that is split into 16 buckets, so
+ * a bucket is never wider than 1/16 of the values it holds and percentiles are within 6.25% of the true value.
+ * Values are in nanoseconds, and values above about 73 minutes are counted in the last bucket.
+ *
+ * Recording is lock-free and allocates nothing once a thread has recorded: one increment of a bucket, a LongAdder
+ * for the sum and a compare-and-set for the maximum only when the value is a new maximum. Like the cells of a
+ * LongAdder, the buckets are striped: each thread counts into one of up to as many bucket arrays as there are
+ * processors, picked by its thread id and created the first time a thread records into it, so threads recording
+ * at once do not fight over the cache lines of the same hot buckets. Reading merges the stripes while values may
+ * still be recorded, so a reading taken under load is a close but not exact snapshot.
+ */
+public class LatencyHistogram
+{
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_EXPONENT = 42;
+	private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+	private static final int BUCKETS = SUB_BUCKETS + (MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+	private static final int STRIPES = 1 << (32 - Integer.numberOfLeadingZeros(Runtime.getRuntime().availableProcessors() - 1));
+
+	private final AtomicReferenceArray<AtomicLongArray> stripes = new AtomicReferenceArray<AtomicLongArray>(STRIPES);
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	/**
+	 * Method used to record a value
+	 * @param nanos the value in nanoseconds; negative values are recorded as 0
+	 */
+	public void record(long nanos)
+	{
+		long value = Math.max(0, nanos);
+		stripe().incrementAndGet(bucketOf(value));
+		sum.add(value);
+
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value))
+		{
+			current = max.get();
+		}
+	}
+
+	/**
+	 * Method used to add the values of another histogram to this one, for example to merge the histograms of several threads
+	 * @param other the other histogram
+	 */
+	public void add(LatencyHistogram other)
+	{
+		AtomicLongArray counts = stripe();
+		long[] values = other.snapshot();
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			if (values[i] != 0)
+			{
+				counts.addAndGet(i, values[i]);
+			}
+		}
+		sum.add(other.getSum());
+
+		long value = other.getMax();
+		long current = max.get();
+		while (value > current && !max.compareAndSet(current, value))
+		{
+			current = max.get();
+		}
+	}
+
+	/**
+	 * Getter to get the number of values recorded
+	 * @return a long, the number of values
+	 */
+	public long getCount()
+	{
+		long count = 0;
+		for (int s = 0; s < STRIPES; s++)
+		{
+			AtomicLongArray counts = stripes.get(s);
+			for (int i = 0; counts != null && i < BUCKETS; i++)
+			{
+				count += counts.get(i);
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Getter to get the sum of the values recorded
+	 * @return a long, the sum in nanoseconds
+	 */
+	public long getSum()
+	{
+		return sum.sum();
+	}
+
+	/**
+	 * Getter to get the largest value recorded
+	 * @return a long, the maximum in nanoseconds, or 0 if nothing was recorded
+	 */
+	public long getMax()
+	{
+		return max.get();
+	}
+
+	/**
+	 * Getter to get the mean of the values recorded
+	 * @return a double, the mean in nanoseconds, or 0 if nothing was recorded
+	 */
+	public double getMean()
+	{
+		long count = getCount();
+		return count == 0 ? 0 : (double) getSum() / count;
+	}
+
+	/**
+	 * Method used to get a percentile of the values recorded
+	 * @param percentile the percentile, from 0 to 100
+	 * @return a long, the highest value of the bucket the percentile falls in, at most the maximum, or 0 if nothing was recorded
+	 */
+	public long getPercentile(double percentile)
+	{
+		if (!(percentile >= 0 && percentile <= 100))
+		{
+			throw new IllegalArgumentException("percentile must be from 0 to 100: " + percentile);
+		}
+
+		long[] snapshot = snapshot();
+		long count = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			count += snapshot[i];
+		}
+		if (count == 0)
+		{
+			return 0;
+		}
+
+		long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKETS; i++)
+		{
+			seen += snapshot[i];
+			if (seen >= rank)
+			{
+				return Math.min(highestValueOf(i), getMax());
+			}
+		}
+		return getMax();
+	}
+
+	/**
+	 * Method used to forget every value recorded. Values recorded while the histogram is being reset may be kept or dropped
+	 */
+	public void reset()
+	{
+		for (int s = 0; s < STRIPES; s++)
+		{
+			AtomicLongArray counts = stripes.get(s);
+			for (int i = 0; counts != null && i < BUCKETS; i++)
+			{
+				counts.set(i, 0);
+			}
+		}
+		sum.reset();
+		max.set(0);
+	}
+
+	/**
+	 * Method used to get the bucket array of the calling thread's stripe, creating it the first time a thread records into it
+	 * @return an AtomicLongArray, the bucket counts of the stripe
+	 */
+	private AtomicLongArray stripe()
+	{
+		int s = (int) ((Thread.currentThread().getId() * 0x9E3779B97F4A7C15L) >>> 32) & (STRIPES - 1);
+		AtomicLongArray counts = stripes.get(s);
+		if (counts == null)
+		{
+			stripes.compareAndSet(s, null, new AtomicLongArray(BUCKETS));
+			counts = stripes.get(s);
+		}
+		return counts;
+	}
+
+	/**
+	 * Method used to merge the counts of every stripe
+	 * @return a long array, the count of each bucket
+	 */
+	private long[] snapshot()
+	{
+		long[] snapshot = new long[BUCKETS];
+		for (int s = 0; s < STRIPES; s++)
+		{
+			AtomicLongArray counts = stripes.get(s);
+			for (int i = 0; counts != null && i < BUCKETS; i++)
+			{
+				snapshot[i] += counts.get(i);
+			}
+		}
+		return snapshot;
+	}
+
+	/**
+	 * Method used to find the bucket of a value
+	 * @param value the value, not negative
+	 * @return an int, the bucket
+	 */
+	static int bucketOf(long value)
+	{
+		if (value < SUB_BUCKETS)
+		{
+			return (int) value;
+		}
+		long capped = Math.min(value, MAX_VALUE);
+		int exponent = 63 - Long.numberOfLeadingZeros(capped);
+		int shift = exponent - SUB_BUCKET_BITS;
+		int subBucket = (int) (capped >>> shift) & (SUB_BUCKETS - 1);
+		return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+	}
+
+	/**
+	 * Method used to get the highest value a bucket holds
+	 * @param bucket the bucket
+	 * @return a long, the highest value
+	 */
+	static long highestValueOf(int bucket)
+	{
+		if (bucket < SUB_BUCKETS)
+		{
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowest = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+}
@@ -0,0 +1,44 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+/**
+ * This class represents the shop's menu catalog, which interns beverage names to compact integer ids.
+ * Every Beverage keeps the id of its name instead of its own copy of the String, so a thousand lattes
+ * share one "Latte" and comparing two beverage names is an int compare.
+ */
+public class MenuCatalog
+{
+	private static final NameDictionary NAMES = new NameDictionary();
+
+	/**
+	 * Method used to get the id of a beverage name, adding the name to the catalog if it is new
+	 * @param bevName the beverage name
+	 * @return an int, the id of the name
+	 */
+	public static int idOf(String bevName)
+	{
+		return NAMES.encode(bevName);
+	}
+
+	/**
+	 * Method used to get the beverage name of an id
+	 * @param id the id of the name
+	 * @return a String, the canonical beverage name
+	 */
+	public static String nameOf(int id)
+	{
+		return NAMES.decode(id);
+	}
+
+	/**
+	 * Getter to get the number of beverage names in the catalog
+	 * @return an int, the number of names
+	 */
+	public static int size()
+	{
+		return NAMES.size();
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * This class represents a dictionary that encodes names as small integer ids, so that a column of names
+ * can be stored as an int array and every use of a name can share one canonical String. Ids are handed out
+ * in the order names are first seen, starting at 0. Looking up a known name takes no lock; adding a new
+ * name is synchronized, so the dictionary can be shared between threads.
+ */
+public class NameDictionary
+{
+	private final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+	private volatile String[] names = new String[16];
+	private volatile int size;
+
+	/**
+	 * Method used to get the id of a name, adding the name to the dictionary if it is new
+	 * @param name the name
+	 * @return an int, the id of the name
+	 */
+	public int encode(String name)
+	{
+		Integer id = ids.get(name);
+		if (id != null)
+		{
+			return id;
+		}
+		return add(name);
+	}
+
+	/**
+	 * Method used to get the id of a name without adding it to the dictionary
+	 * @param name the name
+	 * @return an int, the id of the name, or -1 if it is not in the dictionary
+	 */
+	public int find(String name)
+	{
+		Integer id = ids.get(name);
+		return id == null ? -1 : id;
+	}
+
+	/**
+	 * Method used to get the name of an id
+	 * @param id the id of the name
+	 * @return a String, the name
+	 */
+	public String decode(int id)
+	{
+		if (id < 0 || id >= size)
+		{
+			throw new IndexOutOfBoundsException("unknown name id: " + id);
+		}
+		return names[id];
+	}
+
+	/**
+	 * Method used to get the canonical instance of a name, adding the name to the dictionary if it is new
+	 * @param name the name
+	 * @return a String, the canonical instance equal to name
+	 */
+	public String canonical(String name)
+	{
+		return decode(encode(name));
+	}
+
+	/**
+	 * Getter to get the number of names in the dictionary
+	 * @return an int, the number of names
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Method used to add a new name, the name array is filled in before the id is published
+	 * @param name the name
+	 * @return an int, the id of the name
+	 */
+	private synchronized int add(String name)
+	{
+		Integer id = ids.get(name);
+		if (id != null)
+		{
+			return id;
+		}
+
+		String[] current = names;
+		int next = size;
+		if (next == current.length)
+		{
+			current = Arrays.copyOf(current, next * 2);
+		}
+		current[next] = name;
+		names = current;
+		size = next + 1;
+		ids.put(name, next);
+		return next;
+	}
+}
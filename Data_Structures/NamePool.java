@@ -0,0 +1,64 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+/**
+ * This class represents the shared pool of customer names. Customers keep the canonical instance of their
+ * name from the pool instead of their own copy, so repeat customers and copies of an Order do not add
+ * new Strings to the heap.
+ */
+public class NamePool
+{
+	private static final NameDictionary NAMES = new NameDictionary();
+
+	/**
+	 * Method used to get the canonical instance of a customer name, adding the name to the pool if it is new
+	 * @param customerName the customer name
+	 * @return a String, the canonical customer name
+	 */
+	public static String intern(String customerName)
+	{
+		return NAMES.canonical(customerName);
+	}
+
+	/**
+	 * Method used to get the id of a customer name, adding the name to the pool if it is new
+	 * @param customerName the customer name
+	 * @return an int, the id of the name
+	 */
+	public static int idOf(String customerName)
+	{
+		return NAMES.encode(customerName);
+	}
+
+	/**
+	 * Method used to get the id of a customer name without adding it to the pool
+	 * @param customerName the customer name
+	 * @return an int, the id of the name, or -1 if it is not in the pool
+	 */
+	public static int find(String customerName)
+	{
+		return NAMES.find(customerName);
+	}
+
+	/**
+	 * Method used to get the customer name of an id
+	 * @param id the id of the name
+	 * @return a String, the canonical customer name
+	 */
+	public static String nameOf(int id)
+	{
+		return NAMES.decode(id);
+	}
+
+	/**
+	 * Getter to get the number of customer names in the pool
+	 * @return an int, the number of names
+	 */
+	public static int size()
+	{
+		return NAMES.size();
+	}
+}
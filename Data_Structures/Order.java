@@ -5,11 +5,11 @@
 package Data_Structures;
 
 import java.util.ArrayList;
-import java.util.Random;
 
 import Data_Structures.Beverage.SIZE;
 import Data_Structures.Beverage.TYPE;
 import Interfaces.OrderInterface;
+import Interfaces.OrderNumberGeneratorInterface;
 
 /**
  * This class represents an Order, and includes fields for
@@ -20,11 +20,17 @@ public class Order implements OrderInterface
 {
 	public enum DAY {MONDAY, TUESDAY, WEDNESDAY, THURSDAY, FRIDAY, SATURDAY, SUNDAY}
 	
+	private static final TYPE[] TYPES = TYPE.values();
+	private static volatile OrderNumberGeneratorInterface orderNumbers = new PermutedOrderNumbers(System.nanoTime());
+	
 	private int orderNumber;
 	private int orderTime;
 	private DAY orderDay;
 	private Customer customer;
 	private ArrayList<Beverage> Bevs;
+	private int[] typeCounts = new int[TYPES.length];
+	private int priceVersion = PricingEngine.currentVersion();
+	private OrderView view;
 	
 	/**
 	 * Standard constructor to build an Order object
@@ -35,7 +41,20 @@ public class Order implements OrderInterface
 	 */
 	public Order(int orderTime, DAY orderDay, String customerName, int customerAge)
 	{
-		this.orderNumber = randomNumber();
+		this(orderNumbers.nextOrderNumber(), orderTime, orderDay, customerName, customerAge);
+	}
+	
+	/**
+	 * Constructor to build an Order object with an order number that was already chosen
+	 * @param orderNumber
+	 * @param orderTime
+	 * @param orderDay
+	 * @param customerName
+	 * @param customerAge
+	 */
+	public Order(int orderNumber, int orderTime, DAY orderDay, String customerName, int customerAge)
+	{
+		this.orderNumber = orderNumber;
 		this.orderTime = orderTime;
 		this.orderDay = orderDay;
 		this.customer = new Customer(customerName, customerAge);
@@ -43,7 +62,40 @@ public class Order implements OrderInterface
 	}
 	
 	/**
-	 * Copy constructor to build an Order object
+	 * Constructor to build an Order object for a customer shared with other orders, used by a shop's CustomerRegistry
+	 * @param orderNumber
+	 * @param orderTime
+	 * @param orderDay
+	 * @param customer the shared customer, which is never changed through the order
+	 */
+	Order(int orderNumber, int orderTime, DAY orderDay, Customer customer)
+	{
+		this.orderNumber = orderNumber;
+		this.orderTime = orderTime;
+		this.orderDay = orderDay;
+		this.customer = customer;
+		this.Bevs = new ArrayList<Beverage>();
+	}
+	
+	/**
+	 * Constructor to build an Order object whose beverage list is sized for a known number of beverages
+	 * @param orderNumber
+	 * @param orderTime
+	 * @param orderDay
+	 * @param customer the customer, which may be shared with other orders
+	 * @param expectedItems the number of beverages the order will hold
+	 */
+	Order(int orderNumber, int orderTime, DAY orderDay, Customer customer, int expectedItems)
+	{
+		this.orderNumber = orderNumber;
+		this.orderTime = orderTime;
+		this.orderDay = orderDay;
+		this.customer = customer;
+		this.Bevs = new ArrayList<Beverage>(expectedItems);
+	}
+	
+	/**
+	 * Copy constructor to build an Order object, with a copy of each of its beverages
 	 * @param o2 the object to copy
 	 */
 	public Order(Order o2)
@@ -52,7 +104,13 @@ public class Order implements OrderInterface
 		this.orderTime = o2.getOrderTime();
 		this.orderDay = o2.getOrderDay();
 		this.customer = new Customer(o2.getCustomer());
-		this.Bevs = new ArrayList<Beverage>(o2.Bevs);
+		this.Bevs = new ArrayList<Beverage>(o2.Bevs.size());
+		for (int i = 0; i < o2.Bevs.size(); i++)
+		{
+			this.Bevs.add(o2.Bevs.get(i).copy());
+		}
+		this.typeCounts = o2.typeCounts.clone();
+		this.priceVersion = o2.priceVersion;
 	}
 	
 	/**
@@ -91,7 +149,9 @@ public class Order implements OrderInterface
 	public void addNewBeverage(String bevName, SIZE size, boolean extraShot, boolean extraSyrup)
 	{
 		Coffee coffee = new Coffee(bevName, size, extraShot, extraSyrup);
+		coffee.setPriceVersion(priceVersion);
 		Bevs.add(coffee);
+		typeCounts[coffee.getType().ordinal()]++;
 	}
 	
 	/**
@@ -102,7 +162,9 @@ public class Order implements OrderInterface
 	public void addNewBeverage(String bevName, SIZE size)
 	{
 		Alcohol alcohol = new Alcohol(bevName, size, isWeekend());
+		alcohol.setPriceVersion(priceVersion);
 		Bevs.add(alcohol);
+		typeCounts[alcohol.getType().ordinal()]++;
 	}
 	
 	/**
@@ -115,7 +177,20 @@ public class Order implements OrderInterface
 	public void addNewBeverage(String bevName, SIZE size, boolean addProtein, int numOfFruits)
 	{
 		Smoothie smoothie = new Smoothie(bevName, size, addProtein, numOfFruits);
+		smoothie.setPriceVersion(priceVersion);
 		Bevs.add(smoothie);
+		typeCounts[smoothie.getType().ordinal()]++;
+	}
+	
+	/**
+	 * Method to add an already built beverage to the beverage list, used when an order is decoded
+	 * @param bev the beverage
+	 */
+	void addBeverage(Beverage bev)
+	{
+		bev.setPriceVersion(priceVersion);
+		Bevs.add(bev);
+		typeCounts[bev.getType().ordinal()]++;
 	}
 	
 	/**
@@ -124,30 +199,31 @@ public class Order implements OrderInterface
 	 */
 	public double calcOrderTotal()
 	{
-		double sum = 0;
+		return PricingEngine.toPrice(calcOrderTotalCents());
+	}
+	
+	/**
+	 * Method to calculate the exact total price in cents for all of the drinks ordered
+	 * @return a long, the order total in cents
+	 */
+	public long calcOrderTotalCents()
+	{
+		long sum = 0;
 		for (int i = 0; i < Bevs.size(); i++)
 		{
-			sum += Bevs.get(i).calcPrice();
+			sum += Bevs.get(i).calcPriceCents();
 		}
 		return sum;
 	}
 	
 	/**
-	 * Method to determine the number of a unique beverage type for the whole order
+	 * Method to determine the number of a unique beverage type for the whole order, counted as beverages are added
 	 * @param type the type of beverage specified
 	 * @return an int, the number of beverages of the type specified that are in the order
 	 */
 	public int findNumOfBeveType(TYPE type)
 	{
-		int total = 0;
-		for (int i = 0; i < Bevs.size(); i++)
-		{
-			if (Bevs.get(i).getType() == type)
-			{
-				total += 1;
-			}
-		}
-		return total;
+		return typeCounts[type.ordinal()];
 	}
 	
 	/**
@@ -160,14 +236,35 @@ public class Order implements OrderInterface
 	}
 	
 	/**
-	 * Method used to generate a random number between 10000 and 90000, used as an order number
-	 * @return an int, the randomly generated order number
+	 * Method used to get the next order number from the order number generator. By default the numbers
+	 * look random between 10000 and 89999 but do not repeat until all 80000 have been used
+	 * @return an int, the generated order number
 	 */
 	public int randomNumber() 
 	{
-		Random rand = new Random();
-		int randInt = rand.nextInt(80000) + 10000;
-		return randInt;
+		return orderNumbers.nextOrderNumber();
+	}
+	
+	/**
+	 * Getter to get the generator used for the order numbers of new orders
+	 * @return an OrderNumberGeneratorInterface, the order number generator
+	 */
+	public static OrderNumberGeneratorInterface getOrderNumberGenerator()
+	{
+		return orderNumbers;
+	}
+	
+	/**
+	 * Setter to set the generator used for the order numbers of new orders
+	 * @param generator the order number generator
+	 */
+	public static void setOrderNumberGenerator(OrderNumberGeneratorInterface generator)
+	{
+		if (generator == null)
+		{
+			throw new IllegalArgumentException("generator must not be null");
+		}
+		orderNumbers = generator;
 	}
 	
 	/**
@@ -177,15 +274,7 @@ public class Order implements OrderInterface
 	@Override
 	public String toString()
 	{
-		String bevs = "";
-		
-		for (int i = 0; i < Bevs.size(); i++)
-		{
-			bevs = bevs.concat(Bevs.get(i).toString() + ". ");
-		}
-		bevs = bevs.concat("Order Total: " + calcOrderTotal());
-		//System.out.println("Order Number: " + orderNumber + ", Order Time: " + orderTime + ", Order Day: " + orderDay + ", Customer Name: " + customer.getName() + ", Customer Age: " + customer.getAge() + ", Beverages: " + bevs);
-		return "Order Number: " + orderNumber + ", Order Time: " + orderTime + ", Order Day: " + orderDay + ", Customer Name: " + customer.getName() + ", Customer Age: " + customer.getAge() + ", Beverages: " + bevs ;
+		return OrderReportWriter.toString(this);
 	}
 	
 	/**
@@ -246,6 +335,20 @@ public class Order implements OrderInterface
 		this.customer = new Customer(customerName, customerAge);
 	}
 	
+	/**
+	 * Setter method to set the version of the pricing catalog the order is priced with, used when an order is decoded
+	 * or restored; the beverages already in the order are priced with it too
+	 * @param priceVersion the catalog version
+	 */
+	void setPriceVersion(int priceVersion)
+	{
+		this.priceVersion = priceVersion;
+		for (int i = 0; i < Bevs.size(); i++)
+		{
+			Bevs.get(i).setPriceVersion(priceVersion);
+		}
+	}
+	
 	/**
 	 * Getter method to get the order number
 	 * @return an int, the order number
@@ -273,6 +376,16 @@ public class Order implements OrderInterface
 		return orderDay;
 	}
 	
+	/**
+	 * Getter method to get the version of the pricing catalog the order is priced with, the version that was current
+	 * when the order was started
+	 * @return an int, the catalog version
+	 */
+	public int getPriceVersion()
+	{
+		return priceVersion;
+	}
+	
 	/**
 	 * Getter method to get the customer who made this order
 	 * @return a Customer, the customer who made this order
@@ -281,4 +394,26 @@ public class Order implements OrderInterface
 	{
 		return new Customer(this.customer);
 	}
+	
+	/**
+	 * Getter method to get a read-only view of the customer who made this order, without copying the customer
+	 * @return a CustomerView, the customer who made this order
+	 */
+	public CustomerView getCustomerView()
+	{
+		return customer.asView();
+	}
+	
+	/**
+	 * Method used to get a read-only view of this order, created once and reused
+	 * @return an OrderView, the view of this order
+	 */
+	public OrderView asView()
+	{
+		if (view == null)
+		{
+			view = new OrderView(this);
+		}
+		return view;
+	}
 }
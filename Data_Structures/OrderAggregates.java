@@ -0,0 +1,114 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import Data_Structures.Beverage.TYPE;
+import Data_Structures.Order.DAY;
+
+/**
+ * This class holds the whole-log totals of a ColumnarOrderStore: the number of orders and beverages, the
+ * revenue, the beverages of each type and the orders and sales of each day. Every amount is an exact sum
+ * of integer cents, so the result is the same bit for bit however the work was split between threads.
+ */
+public class OrderAggregates
+{
+	private static final int TYPE_COUNT = TYPE.values().length;
+	private static final int DAY_COUNT = DAY.values().length;
+
+	long orderCount;
+	long itemCount;
+	long totalCents;
+	final long[] beverageCounts = new long[TYPE_COUNT];
+	final long[] centsByDay = new long[DAY_COUNT];
+	final long[] ordersByDay = new long[DAY_COUNT];
+
+	/**
+	 * Method used to add the totals of another part of the log to these
+	 * @param other the totals of the other part
+	 * @return these totals
+	 */
+	OrderAggregates add(OrderAggregates other)
+	{
+		orderCount += other.orderCount;
+		itemCount += other.itemCount;
+		totalCents += other.totalCents;
+		for (int i = 0; i < TYPE_COUNT; i++)
+		{
+			beverageCounts[i] += other.beverageCounts[i];
+		}
+		for (int i = 0; i < DAY_COUNT; i++)
+		{
+			centsByDay[i] += other.centsByDay[i];
+			ordersByDay[i] += other.ordersByDay[i];
+		}
+		return this;
+	}
+
+	/**
+	 * Getter to get the number of orders
+	 * @return a long, the number of orders
+	 */
+	public long getOrderCount()
+	{
+		return orderCount;
+	}
+
+	/**
+	 * Getter to get the number of beverages
+	 * @return a long, the number of beverages
+	 */
+	public long getItemCount()
+	{
+		return itemCount;
+	}
+
+	/**
+	 * Getter to get the total of all orders in cents
+	 * @return a long, the total in cents
+	 */
+	public long getTotalCents()
+	{
+		return totalCents;
+	}
+
+	/**
+	 * Getter to get the total of all orders
+	 * @return a double, the total
+	 */
+	public double getTotal()
+	{
+		return PricingEngine.toPrice(totalCents);
+	}
+
+	/**
+	 * Getter to get the number of beverages of a type
+	 * @param type the beverage type
+	 * @return a long, the number of beverages of the type
+	 */
+	public long getBeverageCount(TYPE type)
+	{
+		return beverageCounts[type.ordinal()];
+	}
+
+	/**
+	 * Getter to get the sales of a day of the week in cents
+	 * @param day the day of the week
+	 * @return a long, the sales on that day in cents
+	 */
+	public long getCentsOnDay(DAY day)
+	{
+		return centsByDay[day.ordinal()];
+	}
+
+	/**
+	 * Getter to get the number of orders taken on a day of the week
+	 * @param day the day of the week
+	 * @return a long, the number of orders on that day
+	 */
+	public long getOrdersOnDay(DAY day)
+	{
+		return ordersByDay[day.ordinal()];
+	}
+}
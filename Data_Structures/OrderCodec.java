@@ -0,0 +1,352 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Beverage.TYPE;
+import Data_Structures.Order.DAY;
+
+/**
+ * This class encodes orders, customers and beverages in a compact, versioned binary form for persistence
+ * and IPC, without reflection or java.io.Serializable. All values are big-endian and written at the
+ * buffer's position, which is advanced past them:
+ *
+ * Order:    version u8, day u8, time i32, order number i32, beverage count i32, pricing catalog version u16,
+ *           customer, beverages
+ * Customer: age i32, name length u16, name (UTF-8)
+ * Beverage: type and size u8 (type &lt;&lt; 4 | size), options u8, fruits i32, name length u16, name (UTF-8)
+ *
+ * The options are bit 0 extra shot and bit 1 extra syrup for a coffee, bit 0 weekend for an alcoholic
+ * drink and bit 0 protein for a smoothie. The beverages of an order are priced with the order's pricing
+ * catalog version. Times, ages and counts are stored as ints like in the OrderJournal, so any order a
+ * shop accepts can be encoded; names are limited to MAX_NAME_BYTES of UTF-8 in both formats, and BevShop
+ * rejects longer names when they are ordered. A one-latte order takes about 45 bytes. Encoding allocates
+ * nothing; an encoded order can be read in place with an OrderFlyweight or decoded back into an Order.
+ */
+public class OrderCodec
+{
+	public static final int VERSION = 3;
+	public static final int MAX_NAME_BYTES = 0xFFFF;
+
+	static final int ORDER_HEADER_SIZE = 16;
+	static final int CUSTOMER_HEADER_SIZE = 6;
+	static final int BEVERAGE_HEADER_SIZE = 8;
+
+	static final int EXTRA_SHOT = 1;
+	static final int EXTRA_SYRUP = 2;
+	static final int WEEKEND = 1;
+	static final int PROTEIN = 1;
+
+	static final TYPE[] TYPES = TYPE.values();
+	static final SIZE[] SIZES = SIZE.values();
+	static final DAY[] DAYS = DAY.values();
+
+	/**
+	 * Method used to get the number of bytes encode writes for an order
+	 * @param order the order
+	 * @return an int, the encoded length in bytes
+	 */
+	public static int encodedLength(Order order)
+	{
+		int length = ORDER_HEADER_SIZE + encodedLength(order.getCustomerView());
+		for (int i = 0; i < order.getTotalItems(); i++)
+		{
+			length += encodedLength(order.getBeverage(i));
+		}
+		return length;
+	}
+
+	/**
+	 * Method used to encode an order, its customer and its beverages
+	 * @param order the order
+	 * @param out the buffer the order is written to
+	 * @throws IllegalArgumentException if a field does not fit the format: a pricing catalog version over 65535, or a
+	 * customer or beverage name longer than MAX_NAME_BYTES UTF-8 bytes
+	 * @throws java.nio.BufferOverflowException if the buffer has less room than encodedLength(order)
+	 */
+	public static void encode(Order order, ByteBuffer out)
+	{
+		int items = order.getTotalItems();
+		out.put((byte) VERSION);
+		out.put((byte) order.getOrderDay().ordinal());
+		out.putInt(order.getOrderTime());
+		out.putInt(order.getOrderNumber());
+		out.putInt(items);
+		out.putShort(checkU16("pricing catalog version", order.getPriceVersion()));
+		encode(order.getCustomerView(), out);
+
+		for (int i = 0; i < items; i++)
+		{
+			encode(order.getBeverage(i), out);
+		}
+	}
+
+	/**
+	 * Method used to decode an order written by encode into a new Order
+	 * @param in the buffer the order is read from
+	 * @return an Order, the decoded order
+	 * @throws IllegalArgumentException if the order was written by an unsupported version of the codec
+	 */
+	public static Order decode(ByteBuffer in)
+	{
+		checkVersion(in.get());
+		DAY day = DAYS[in.get()];
+		int time = in.getInt();
+		int orderNumber = in.getInt();
+		int items = in.getInt();
+		int priceVersion = in.getShort() & 0xFFFF;
+		int age = in.getInt();
+		Order order = new Order(orderNumber, time, day, readName(in, in.getShort() & 0xFFFF), age);
+		order.setPriceVersion(priceVersion);
+
+		for (int i = 0; i < items; i++)
+		{
+			order.addBeverage(decodeBeverage(in));
+		}
+		return order;
+	}
+
+	/**
+	 * Method used to get the number of bytes encode writes for a customer
+	 * @param customer the customer
+	 * @return an int, the encoded length in bytes
+	 */
+	public static int encodedLength(CustomerView customer)
+	{
+		return CUSTOMER_HEADER_SIZE + utf8Length(customer.getName());
+	}
+
+	/**
+	 * Method used to encode a customer
+	 * @param customer the customer
+	 * @param out the buffer the customer is written to
+	 */
+	public static void encode(CustomerView customer, ByteBuffer out)
+	{
+		String name = customer.getName();
+		out.putInt(customer.getAge());
+		out.putShort(checkU16("customer name length", utf8Length(name)));
+		putUtf8(name, out);
+	}
+
+	/**
+	 * Method used to encode a customer
+	 * @param customer the customer
+	 * @param out the buffer the customer is written to
+	 */
+	public static void encode(Customer customer, ByteBuffer out)
+	{
+		encode(customer.asView(), out);
+	}
+
+	/**
+	 * Method used to decode a customer written by encode into a new Customer
+	 * @param in the buffer the customer is read from
+	 * @return a Customer, the decoded customer
+	 */
+	public static Customer decodeCustomer(ByteBuffer in)
+	{
+		int age = in.getInt();
+		return new Customer(readName(in, in.getShort() & 0xFFFF), age);
+	}
+
+	/**
+	 * Method used to get the number of bytes encode writes for a beverage
+	 * @param bev the beverage
+	 * @return an int, the encoded length in bytes
+	 */
+	public static int encodedLength(Beverage bev)
+	{
+		return BEVERAGE_HEADER_SIZE + utf8Length(bev.getBevName());
+	}
+
+	/**
+	 * Method used to encode a beverage
+	 * @param bev the beverage
+	 * @param out the buffer the beverage is written to
+	 */
+	public static void encode(Beverage bev, ByteBuffer out)
+	{
+		int options = 0;
+		int fruits = 0;
+		if (bev instanceof Coffee)
+		{
+			Coffee coffee = (Coffee) bev;
+			options = (coffee.getShot() ? EXTRA_SHOT : 0) | (coffee.getSyrup() ? EXTRA_SYRUP : 0);
+		}
+		else if (bev instanceof Alcohol)
+		{
+			options = ((Alcohol) bev).getWeekendAvailability() ? WEEKEND : 0;
+		}
+		else if (bev instanceof Smoothie)
+		{
+			Smoothie smoothie = (Smoothie) bev;
+			options = smoothie.getProtein() ? PROTEIN : 0;
+			fruits = smoothie.getFruits();
+		}
+
+		String name = bev.getBevName();
+		out.put((byte) (bev.getType().ordinal() << 4 | bev.getSize().ordinal()));
+		out.put((byte) options);
+		out.putInt(fruits);
+		out.putShort(checkU16("beverage name length", utf8Length(name)));
+		putUtf8(name, out);
+	}
+
+	/**
+	 * Method used to decode a beverage written by encode into a new Coffee, Alcohol or Smoothie
+	 * @param in the buffer the beverage is read from
+	 * @return a Beverage, the decoded beverage
+	 */
+	public static Beverage decodeBeverage(ByteBuffer in)
+	{
+		int typeAndSize = in.get() & 0xFF;
+		int options = in.get();
+		int fruits = in.getInt();
+		String name = readName(in, in.getShort() & 0xFFFF);
+		SIZE size = SIZES[typeAndSize & 0xF];
+
+		switch (TYPES[typeAndSize >>> 4])
+		{
+			case COFFEE:	return new Coffee(name, size, (options & EXTRA_SHOT) != 0, (options & EXTRA_SYRUP) != 0);
+			case ALCOHOLIC:	return new Alcohol(name, size, (options & WEEKEND) != 0);
+			default:		return new Smoothie(name, size, (options & PROTEIN) != 0, fruits);
+		}
+	}
+
+	/**
+	 * Method used to reject an order written by a version of the codec this one cannot read
+	 * @param version the version read from the order
+	 */
+	static void checkVersion(int version)
+	{
+		if (version != VERSION)
+		{
+			throw new IllegalArgumentException("unsupported order codec version: " + version);
+		}
+	}
+
+	/**
+	 * Method used to get the number of bytes of a String in UTF-8 without encoding it
+	 * @param s the String
+	 * @return an int, the number of bytes
+	 */
+	static int utf8Length(String s)
+	{
+		int length = 0;
+		for (int i = 0; i < s.length(); i++)
+		{
+			char c = s.charAt(i);
+			if (c < 0x80)
+			{
+				length += 1;
+			}
+			else if (c < 0x800)
+			{
+				length += 2;
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1)))
+			{
+				length += 4;
+				i++;
+			}
+			else if (Character.isSurrogate(c))
+			{
+				length += 1;
+			}
+			else
+			{
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Method used to write a String as UTF-8 without allocating, an unpaired surrogate is written as '?'
+	 * the same way String.getBytes does
+	 * @param s the String
+	 * @param out the buffer the bytes are written to
+	 */
+	static void putUtf8(String s, ByteBuffer out)
+	{
+		for (int i = 0; i < s.length(); i++)
+		{
+			char c = s.charAt(i);
+			if (c < 0x80)
+			{
+				out.put((byte) c);
+			}
+			else if (c < 0x800)
+			{
+				out.put((byte) (0xC0 | c >> 6));
+				out.put((byte) (0x80 | c & 0x3F));
+			}
+			else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1)))
+			{
+				int cp = Character.toCodePoint(c, s.charAt(++i));
+				out.put((byte) (0xF0 | cp >> 18));
+				out.put((byte) (0x80 | cp >> 12 & 0x3F));
+				out.put((byte) (0x80 | cp >> 6 & 0x3F));
+				out.put((byte) (0x80 | cp & 0x3F));
+			}
+			else if (Character.isSurrogate(c))
+			{
+				out.put((byte) '?');
+			}
+			else
+			{
+				out.put((byte) (0xE0 | c >> 12));
+				out.put((byte) (0x80 | c >> 6 & 0x3F));
+				out.put((byte) (0x80 | c & 0x3F));
+			}
+		}
+	}
+
+	/**
+	 * Method used to read a UTF-8 name
+	 * @param in the buffer the name is read from
+	 * @param length the number of bytes of the name
+	 * @return a String, the name
+	 */
+	static String readName(ByteBuffer in, int length)
+	{
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Method used to reject a name that does not fit the persisted formats, before anything is changed
+	 * @param field the kind of name, used in the error message
+	 * @param name the name
+	 * @throws IllegalArgumentException if the name is longer than MAX_NAME_BYTES in UTF-8
+	 */
+	static void checkName(String field, String name)
+	{
+		if (name.length() > MAX_NAME_BYTES / 3 && utf8Length(name) > MAX_NAME_BYTES)
+		{
+			throw new IllegalArgumentException(field + " must be at most " + MAX_NAME_BYTES + " bytes in UTF-8: " + utf8Length(name));
+		}
+	}
+
+	/**
+	 * Method used to check that a value fits in an unsigned short
+	 * @param field the name of the value, used in the error message
+	 * @param value the value
+	 * @return a short, the value
+	 */
+	private static short checkU16(String field, int value)
+	{
+		if (value < 0 || value > 0xFFFF)
+		{
+			throw new IllegalArgumentException(field + " must be from 0 to 65535: " + value);
+		}
+		return (short) value;
+	}
+}
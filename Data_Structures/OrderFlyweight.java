@@ -0,0 +1,195 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import Data_Structures.Order.DAY;
+
+/**
+ * This class reads an order written by OrderCodec in place, without decoding it into an Order. One
+ * flyweight can be wrapped around order after order, and its beverages are read through a
+ * BeverageFlyweight the caller keeps, so reading allocates nothing except for the Strings returned by the
+ * name getters. Beverages have variable length, so finding the i-th one walks the ones before it.
+ */
+public class OrderFlyweight
+{
+	private static final int DAY_OFFSET = 1;
+	private static final int TIME_OFFSET = 2;
+	private static final int ORDER_NUMBER_OFFSET = 6;
+	private static final int ITEMS_OFFSET = 10;
+	private static final int PRICE_VERSION_OFFSET = 14;
+	private static final int AGE_OFFSET = OrderCodec.ORDER_HEADER_SIZE;
+	private static final int NAME_LENGTH_OFFSET = AGE_OFFSET + 4;
+	private static final int NAME_OFFSET = AGE_OFFSET + OrderCodec.CUSTOMER_HEADER_SIZE;
+
+	private final BeverageFlyweight scratch = new BeverageFlyweight();
+	private ByteBuffer buffer;
+	private int offset;
+
+	/**
+	 * Method used to point this flyweight at an encoded order
+	 * @param buffer the buffer holding the order
+	 * @param offset the position of the order in the buffer
+	 * @return this flyweight
+	 * @throws IllegalArgumentException if the order was written by an unsupported version of the codec
+	 */
+	public OrderFlyweight wrap(ByteBuffer buffer, int offset)
+	{
+		OrderCodec.checkVersion(buffer.get(offset) & 0xFF);
+		this.buffer = buffer;
+		this.offset = offset;
+		return this;
+	}
+
+	/**
+	 * Getter to get the order number
+	 * @return an int, the order number
+	 */
+	public int getOrderNumber()
+	{
+		return buffer.getInt(offset + ORDER_NUMBER_OFFSET);
+	}
+
+	/**
+	 * Getter to get the order time
+	 * @return an int, the order time
+	 */
+	public int getOrderTime()
+	{
+		return buffer.getInt(offset + TIME_OFFSET);
+	}
+
+	/**
+	 * Getter to get the order day
+	 * @return a DAY, the order day
+	 */
+	public DAY getOrderDay()
+	{
+		return OrderCodec.DAYS[buffer.get(offset + DAY_OFFSET)];
+	}
+
+	/**
+	 * Getter to get the number of beverages of the order
+	 * @return an int, the number of beverages
+	 */
+	public int getTotalItems()
+	{
+		return buffer.getInt(offset + ITEMS_OFFSET);
+	}
+
+	/**
+	 * Getter to get the version of the pricing catalog the order is priced with
+	 * @return an int, the catalog version
+	 */
+	public int getPriceVersion()
+	{
+		return buffer.getShort(offset + PRICE_VERSION_OFFSET) & 0xFFFF;
+	}
+
+	/**
+	 * Getter to get the customer's age
+	 * @return an int, the customer's age
+	 */
+	public int getCustomerAge()
+	{
+		return buffer.getInt(offset + AGE_OFFSET);
+	}
+
+	/**
+	 * Getter to get the length of the customer's name
+	 * @return an int, the number of UTF-8 bytes of the name
+	 */
+	public int getCustomerNameLength()
+	{
+		return buffer.getShort(offset + NAME_LENGTH_OFFSET) & 0xFFFF;
+	}
+
+	/**
+	 * Method used to copy the UTF-8 bytes of the customer's name without allocating
+	 * @param dst the array the name is copied to
+	 * @param dstOffset the position in dst of the first byte
+	 * @return an int, the number of bytes copied
+	 */
+	public int getCustomerName(byte[] dst, int dstOffset)
+	{
+		int length = getCustomerNameLength();
+		buffer.get(offset + NAME_OFFSET, dst, dstOffset, length);
+		return length;
+	}
+
+	/**
+	 * Getter to get the customer's name
+	 * @return a String, the customer's name
+	 */
+	public String getCustomerName()
+	{
+		byte[] name = new byte[getCustomerNameLength()];
+		getCustomerName(name, 0);
+		return new String(name, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Method used to point a beverage flyweight at one of the order's beverages
+	 * @param itemNo the index of the beverage
+	 * @param into the flyweight to point at the beverage
+	 * @return the beverage flyweight
+	 */
+	public BeverageFlyweight getBeverage(int itemNo, BeverageFlyweight into)
+	{
+		if (itemNo < 0 || itemNo >= getTotalItems())
+		{
+			throw new IndexOutOfBoundsException("beverage " + itemNo + " of " + getTotalItems());
+		}
+		int position = firstBeverage();
+		for (int i = 0; i < itemNo; i++)
+		{
+			position += into.wrap(buffer, position).getEncodedLength();
+		}
+		return into.wrap(buffer, position, getPriceVersion());
+	}
+
+	/**
+	 * Method used to calculate the total price of the order's beverages
+	 * @return a long, the order total in cents
+	 */
+	public long calcOrderTotalCents()
+	{
+		long total = 0;
+		int priceVersion = getPriceVersion();
+		int position = firstBeverage();
+		for (int i = getTotalItems(); i > 0; i--)
+		{
+			scratch.wrap(buffer, position, priceVersion);
+			total += scratch.calcPriceCents();
+			position += scratch.getEncodedLength();
+		}
+		return total;
+	}
+
+	/**
+	 * Getter to get the number of bytes of the encoded order
+	 * @return an int, the encoded length in bytes
+	 */
+	public int getEncodedLength()
+	{
+		int position = firstBeverage();
+		for (int i = getTotalItems(); i > 0; i--)
+		{
+			position += scratch.wrap(buffer, position).getEncodedLength();
+		}
+		return position - offset;
+	}
+
+	/**
+	 * Method used to get the position of the first beverage
+	 * @return an int, the position in the buffer
+	 */
+	private int firstBeverage()
+	{
+		return offset + NAME_OFFSET + getCustomerNameLength();
+	}
+}
@@ -0,0 +1,189 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.util.Arrays;
+
+/**
+ * This class represents an index from order numbers to the position (slot) of the order in the
+ * shop's list of orders. It is an open-addressing hash table with linear probing that stores the
+ * keys and slots in primitive int arrays, so no Integer objects are created on lookups or inserts.
+ */
+public class OrderIndex
+{
+	private static final int EMPTY = -1;
+	private static final int DEFAULT_CAPACITY = 16;
+
+	private int[] keys;
+	private int[] slots;
+	private int mask;
+	private int size;
+
+	/**
+	 * Standard constructor to build an empty OrderIndex
+	 */
+	public OrderIndex()
+	{
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Constructor to build an empty OrderIndex able to hold the expected number of orders without resizing
+	 * @param expectedOrders the number of orders expected to be indexed
+	 */
+	public OrderIndex(int expectedOrders)
+	{
+		allocate(tableSizeFor(expectedOrders));
+	}
+
+	/**
+	 * Method used to add an order number to the index. If the order number is already indexed
+	 * the existing slot is kept, so lookups return the first order with that number, like a linear scan would.
+	 * @param orderNo the order number
+	 * @param slot the position of the order in the list of orders, must not be negative
+	 * @return a boolean, true if the order number was added, false if it was already indexed
+	 */
+	public boolean put(int orderNo, int slot)
+	{
+		if (slot < 0)
+		{
+			throw new IllegalArgumentException("slot must not be negative: " + slot);
+		}
+
+		int i = mix(orderNo) & mask;
+		while (slots[i] != EMPTY)
+		{
+			if (keys[i] == orderNo)
+			{
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+
+		keys[i] = orderNo;
+		slots[i] = slot;
+		size++;
+
+		if (size * 2 > slots.length)
+		{
+			resize(slots.length * 2);
+		}
+		return true;
+	}
+
+	/**
+	 * Method used to look up the slot of an order number
+	 * @param orderNo the order number
+	 * @return an int, the position of the order in the list of orders, or -1 if it is not indexed
+	 */
+	public int get(int orderNo)
+	{
+		int i = mix(orderNo) & mask;
+		int slot;
+		while ((slot = slots[i]) != EMPTY)
+		{
+			if (keys[i] == orderNo)
+			{
+				return slot;
+			}
+			i = (i + 1) & mask;
+		}
+		return EMPTY;
+	}
+
+	/**
+	 * Method used to remove every entry from the index, keeping the allocated capacity
+	 */
+	public void clear()
+	{
+		Arrays.fill(slots, EMPTY);
+		size = 0;
+	}
+
+	/**
+	 * Method used to make sure the index can hold the expected number of orders without resizing
+	 * @param expectedOrders the number of orders expected to be indexed
+	 */
+	public void ensureCapacity(int expectedOrders)
+	{
+		int capacity = tableSizeFor(expectedOrders);
+		if (capacity > slots.length)
+		{
+			resize(capacity);
+		}
+	}
+
+	/**
+	 * Getter to get the number of indexed order numbers
+	 * @return an int, the number of indexed order numbers
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Method used to rehash every entry into tables of a new capacity
+	 * @param capacity the new table capacity, a power of two
+	 */
+	private void resize(int capacity)
+	{
+		int[] oldKeys = keys;
+		int[] oldSlots = slots;
+
+		allocate(capacity);
+		for (int j = 0; j < oldSlots.length; j++)
+		{
+			if (oldSlots[j] != EMPTY)
+			{
+				int i = mix(oldKeys[j]) & mask;
+				while (slots[i] != EMPTY)
+				{
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				slots[i] = oldSlots[j];
+			}
+		}
+	}
+
+	/**
+	 * Method used to allocate empty tables
+	 * @param capacity the table capacity, a power of two
+	 */
+	private void allocate(int capacity)
+	{
+		keys = new int[capacity];
+		slots = new int[capacity];
+		Arrays.fill(slots, EMPTY);
+		mask = capacity - 1;
+	}
+
+	/**
+	 * Method used to find the power of two table size that keeps the load factor at or below one half
+	 * @param expectedOrders the number of orders expected to be indexed
+	 * @return an int, the table size
+	 */
+	private static int tableSizeFor(int expectedOrders)
+	{
+		int capacity = DEFAULT_CAPACITY;
+		while (capacity < (1 << 30) && capacity < expectedOrders * 2L)
+		{
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	/**
+	 * Method used to spread the bits of an order number, since order numbers are often sequential
+	 * @param key the order number
+	 * @return an int, the mixed hash
+	 */
+	static int mix(int key)
+	{
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,783 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32C;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Order.DAY;
+
+/**
+ * This class represents an append-only write-ahead journal of the orders of a BevShop. Every startNewOrder
+ * and process*Order call is written as one compact record (length, CRC32C, kind, fields) into an in-memory
+ * batch; a processOrder or processOrders call is written as one record holding every order of the call, so
+ * a crash replays all of them or none. A background thread writes the batch to the file and forces it to disk every commit interval, so
+ * one fsync covers every record of the interval (group commit) and appending costs no disk access. A crash
+ * loses at most the records of the last interval; commit() waits until everything appended is on disk.
+ *
+ * The file grows in preallocated, zero-filled chunks so a commit only changes the file size once per chunk.
+ * Opening a journal checks every record and cuts the file after the last intact one, so a record torn by a
+ * crash is dropped instead of being replayed. When a segmented shop seals its orders into a segment file the
+ * seal is journaled too; replaying skips every order that is already in a segment of the shop (see
+ * BevShop.recover(Path, OrderSegments)).
+ */
+public class OrderJournal implements Closeable
+{
+	public static final long DEFAULT_COMMIT_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+	private static final int MAGIC = 0x42564A32;
+	private static final int HEADER_SIZE = 8;
+	private static final int RECORD_HEADER_SIZE = 8;
+	private static final int BATCH_SIZE = 256 * 1024;
+	private static final long PREALLOCATE_SIZE = 16L * 1024 * 1024;
+
+	private static final byte START = 1;
+	private static final byte COFFEE = 2;
+	private static final byte ALCOHOL = 3;
+	private static final byte SMOOTHIE = 4;
+	private static final byte ORDERS = 5;
+	private static final byte SEAL = 6;
+
+	private static final SIZE[] SIZES = SIZE.values();
+	private static final DAY[] DAYS = DAY.values();
+
+	private final FileChannel channel;
+	private final long commitIntervalNanos;
+	private final CRC32C crc = new CRC32C();
+	private final Object lock = new Object();
+	private final Thread flusher;
+	private final long recordsEnd;
+	private ByteBuffer active = ByteBuffer.allocateDirect(BATCH_SIZE);
+	private ByteBuffer spare = ByteBuffer.allocateDirect(BATCH_SIZE);
+	private long writePosition;
+	private long durablePosition;
+	private long allocated;
+	private boolean commitRequested;
+	private boolean closed;
+	private IOException failure;
+
+	/**
+	 * Standard constructor to open a journal with the default commit interval, creating the file if it does not exist
+	 * @param file the journal file
+	 * @throws IOException if the file cannot be opened or is not an order journal
+	 */
+	public OrderJournal(Path file) throws IOException
+	{
+		this(file, DEFAULT_COMMIT_INTERVAL_NANOS);
+	}
+
+	/**
+	 * Constructor to open a journal with a given commit interval, creating the file if it does not exist
+	 * @param file the journal file
+	 * @param commitIntervalNanos how long appended records may wait before they are written and forced to disk
+	 * @throws IOException if the file cannot be opened or is not an order journal
+	 */
+	public OrderJournal(Path file, long commitIntervalNanos) throws IOException
+	{
+		if (commitIntervalNanos <= 0)
+		{
+			throw new IllegalArgumentException("commitIntervalNanos must be positive: " + commitIntervalNanos);
+		}
+		this.commitIntervalNanos = commitIntervalNanos;
+		this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+		try
+		{
+			if (channel.size() == 0)
+			{
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(0);
+				header.flip();
+				writeFully(header, 0);
+				channel.force(true);
+			}
+			recordsEnd = scan(null);
+			channel.truncate(recordsEnd);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			channel.close();
+			throw e;
+		}
+
+		writePosition = recordsEnd;
+		durablePosition = recordsEnd;
+		allocated = recordsEnd;
+
+		flusher = new Thread(this::flushLoop, "order-journal-flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/**
+	 * Method used to rebuild a shop from the records the journal held when it was opened. Orders that are already
+	 * in a sealed segment of the shop are skipped. The shop must not journal to this journal while it is replayed
+	 * @param shop the shop to add the journaled orders to
+	 * @return an int, the number of records replayed
+	 * @throws IOException if the journal cannot be read or a beverage belongs to an unknown order
+	 */
+	public int replay(BevShop shop) throws IOException
+	{
+		int[] records = new int[1];
+		scan(new Replayer(shop, records));
+		return records[0];
+	}
+
+	/**
+	 * Method used to journal the start of an order, before it is added to the shop
+	 * @param order the new order
+	 */
+	void logStart(Order order)
+	{
+		CustomerView customer = order.getCustomerView();
+		byte[] name = encode(customer.getName());
+		synchronized (lock)
+		{
+			int start = reserve(START, 4 + 4 + 1 + 2 + 4 + 2 + name.length);
+			active.putInt(order.getOrderNumber());
+			active.putInt(order.getOrderTime());
+			active.put((byte) order.getOrderDay().ordinal());
+			active.putShort((short) order.getPriceVersion());
+			active.putInt(customer.getAge());
+			active.putShort((short) name.length).put(name);
+			seal(start);
+		}
+	}
+
+	/**
+	 * Method used to journal complete orders, each with all of its beverages, as one record, before they are added
+	 * to the shop. The record is built before the lock is taken; a record larger than a batch gets a batch of its own
+	 * @param orders the new orders
+	 * @throws IllegalArgumentException if a name is too long or the orders are too large for one record
+	 */
+	void logOrders(List<Order> orders)
+	{
+		byte[][] names = new byte[orders.size()][];
+		byte[][][] bevNames = new byte[orders.size()][][];
+		long payload = 4;
+		for (int i = 0; i < orders.size(); i++)
+		{
+			Order order = orders.get(i);
+			names[i] = encode(order.getCustomerView().getName());
+			bevNames[i] = new byte[order.getTotalItems()][];
+			payload += 4 + 4 + 1 + 2 + 4 + 2 + names[i].length + 4;
+			for (int j = 0; j < order.getTotalItems(); j++)
+			{
+				Beverage bev = order.getBeverage(j);
+				bevNames[i][j] = encode(bev.getBevName());
+				payload += 1 + 1 + 2 + bevNames[i][j].length + (bev instanceof Coffee ? 1 : bev instanceof Smoothie ? 1 + 4 : 0);
+			}
+		}
+		if (payload > Integer.MAX_VALUE - RECORD_HEADER_SIZE - 1)
+		{
+			throw new IllegalArgumentException("orders are too large to journal as one record: " + payload + " bytes");
+		}
+
+		ByteBuffer record = ByteBuffer.allocate((int) payload);
+		record.putInt(orders.size());
+		for (int i = 0; i < orders.size(); i++)
+		{
+			Order order = orders.get(i);
+			record.putInt(order.getOrderNumber());
+			record.putInt(order.getOrderTime());
+			record.put((byte) order.getOrderDay().ordinal());
+			record.putShort((short) order.getPriceVersion());
+			record.putInt(order.getCustomerView().getAge());
+			record.putShort((short) names[i].length).put(names[i]);
+			record.putInt(order.getTotalItems());
+			for (int j = 0; j < order.getTotalItems(); j++)
+			{
+				Beverage bev = order.getBeverage(j);
+				if (bev instanceof Coffee)
+				{
+					Coffee coffee = (Coffee) bev;
+					record.put(COFFEE).put((byte) bev.getSize().ordinal());
+					record.put((byte) ((coffee.getShot() ? 1 : 0) | (coffee.getSyrup() ? 2 : 0)));
+				}
+				else if (bev instanceof Smoothie)
+				{
+					Smoothie smoothie = (Smoothie) bev;
+					record.put(SMOOTHIE).put((byte) bev.getSize().ordinal());
+					record.put((byte) (smoothie.getProtein() ? 1 : 0)).putInt(smoothie.getFruits());
+				}
+				else
+				{
+					record.put(ALCOHOL).put((byte) bev.getSize().ordinal());
+				}
+				record.putShort((short) bevNames[i][j].length).put(bevNames[i][j]);
+			}
+		}
+		record.flip();
+
+		synchronized (lock)
+		{
+			int start = reserve(ORDERS, record.remaining());
+			active.put(record);
+			seal(start);
+		}
+	}
+
+	/**
+	 * Method used to journal a coffee, before it is added to an order
+	 * @param orderNo the order number
+	 * @param bevName Beverage name
+	 * @param size Beverage size
+	 * @param extraShot If the customer wants an extra shot
+	 * @param extraSyrup If the customer wants extra syrup
+	 */
+	void logCoffee(int orderNo, String bevName, SIZE size, boolean extraShot, boolean extraSyrup)
+	{
+		byte[] name = encode(bevName);
+		synchronized (lock)
+		{
+			int start = reserve(COFFEE, 4 + 1 + 1 + 2 + name.length);
+			active.putInt(orderNo);
+			active.put((byte) size.ordinal());
+			active.put((byte) ((extraShot ? 1 : 0) | (extraSyrup ? 2 : 0)));
+			active.putShort((short) name.length).put(name);
+			seal(start);
+		}
+	}
+
+	/**
+	 * Method used to journal an alcoholic drink, before it is added to an order
+	 * @param orderNo the order number
+	 * @param bevName the name of the drink
+	 * @param size the size of the drink
+	 */
+	void logAlcohol(int orderNo, String bevName, SIZE size)
+	{
+		byte[] name = encode(bevName);
+		synchronized (lock)
+		{
+			int start = reserve(ALCOHOL, 4 + 1 + 2 + name.length);
+			active.putInt(orderNo);
+			active.put((byte) size.ordinal());
+			active.putShort((short) name.length).put(name);
+			seal(start);
+		}
+	}
+
+	/**
+	 * Method used to journal a smoothie, before it is added to an order
+	 * @param orderNo the order number
+	 * @param bevName the beverage name
+	 * @param size beverage size
+	 * @param numOfFruits How many fruits the customer wants
+	 * @param addProtein Whether the customer wants protein
+	 */
+	void logSmoothie(int orderNo, String bevName, SIZE size, int numOfFruits, boolean addProtein)
+	{
+		byte[] name = encode(bevName);
+		synchronized (lock)
+		{
+			int start = reserve(SMOOTHIE, 4 + 1 + 1 + 4 + 2 + name.length);
+			active.putInt(orderNo);
+			active.put((byte) size.ordinal());
+			active.put((byte) (addProtein ? 1 : 0));
+			active.putInt(numOfFruits);
+			active.putShort((short) name.length).put(name);
+			seal(start);
+		}
+	}
+
+	/**
+	 * Method used to journal that the orders in memory of a segmented shop were sealed into a segment file
+	 * @param sealedOrders the number of sealed orders after the seal
+	 */
+	void logSeal(int sealedOrders)
+	{
+		synchronized (lock)
+		{
+			int start = reserve(SEAL, 4);
+			active.putInt(sealedOrders);
+			seal(start);
+		}
+	}
+
+	/**
+	 * Method used to wait until every record appended so far has been written and forced to disk
+	 * @throws IOException if the journal failed or the wait was interrupted
+	 */
+	public void commit() throws IOException
+	{
+		synchronized (lock)
+		{
+			long target = writePosition + active.position();
+			commitRequested = true;
+			lock.notifyAll();
+			while (durablePosition < target)
+			{
+				checkFailure();
+				awaitLock();
+			}
+		}
+	}
+
+	/**
+	 * Getter to get the position after the last record on disk
+	 * @return a long, the number of bytes of the journal that are durable
+	 */
+	public long getDurablePosition()
+	{
+		synchronized (lock)
+		{
+			return durablePosition;
+		}
+	}
+
+	/**
+	 * Method used to commit every appended record, cut off the unused preallocated space and close the file
+	 * @throws IOException if the last commit or closing the file fails
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		synchronized (lock)
+		{
+			if (closed)
+			{
+				return;
+			}
+			closed = true;
+			lock.notifyAll();
+		}
+
+		try
+		{
+			flusher.join();
+			checkFailure();
+			channel.truncate(durablePosition);
+			channel.force(true);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while closing the journal");
+		}
+		finally
+		{
+			channel.close();
+		}
+	}
+
+	/**
+	 * Method used to reserve room for a record in the active batch and write its length and kind, waiting
+	 * for the flusher if the batch is full. A record larger than a batch waits until the batch is empty and
+	 * replaces it with one large enough. The caller holds the lock until the record is sealed
+	 * @param kind the kind of the record
+	 * @param payload the number of bytes of the record's fields
+	 * @return an int, the position of the record in the active batch
+	 */
+	private int reserve(byte kind, int payload)
+	{
+		int size = RECORD_HEADER_SIZE + 1 + payload;
+		while (active.remaining() < size)
+		{
+			if (closed)
+			{
+				throw new IllegalStateException("journal is closed");
+			}
+			if (active.position() == 0 && active.capacity() < size)
+			{
+				active = ByteBuffer.allocateDirect(size);
+				break;
+			}
+			commitRequested = true;
+			lock.notifyAll();
+			try
+			{
+				checkFailure();
+				awaitLock();
+			}
+			catch (IOException e)
+			{
+				throw new UncheckedIOException(e);
+			}
+		}
+		if (closed)
+		{
+			throw new IllegalStateException("journal is closed");
+		}
+		if (failure != null)
+		{
+			throw new UncheckedIOException(failure);
+		}
+
+		int start = active.position();
+		active.putInt(1 + payload).putInt(0).put(kind);
+		return start;
+	}
+
+	/**
+	 * Method used to fill in the CRC of the record written last
+	 * @param start the position of the record in the active batch
+	 */
+	private void seal(int start)
+	{
+		ByteBuffer body = active.duplicate();
+		body.position(start + RECORD_HEADER_SIZE).limit(active.position());
+		crc.reset();
+		crc.update(body);
+		active.putInt(start + 4, (int) crc.getValue());
+	}
+
+	/**
+	 * Method used by the flusher thread to write and force each batch of records, waiting up to one commit
+	 * interval for more records to join the batch
+	 */
+	private void flushLoop()
+	{
+		while (true)
+		{
+			ByteBuffer batch;
+			long start;
+			synchronized (lock)
+			{
+				try
+				{
+					while (active.position() == 0 && !closed)
+					{
+						lock.wait();
+					}
+					long deadline = System.nanoTime() + commitIntervalNanos;
+					long remaining;
+					while (!commitRequested && !closed && (remaining = deadline - System.nanoTime()) > 0)
+					{
+						TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+					}
+				}
+				catch (InterruptedException e)
+				{
+					// nothing interrupts the flusher on purpose, so the batch is written as usual
+				}
+				if (active.position() == 0)
+				{
+					if (closed)
+					{
+						return;
+					}
+					continue;
+				}
+
+				batch = active;
+				active = spare;
+				spare = null;
+				start = writePosition;
+				writePosition += batch.position();
+				commitRequested = false;
+				lock.notifyAll();
+			}
+
+			long end;
+			try
+			{
+				batch.flip();
+				end = start + batch.remaining();
+				preallocate(end);
+				writeFully(batch, start);
+				channel.force(false);
+			}
+			catch (IOException e)
+			{
+				synchronized (lock)
+				{
+					failure = e;
+					lock.notifyAll();
+				}
+				return;
+			}
+
+			synchronized (lock)
+			{
+				batch.clear();
+				spare = batch;
+				durablePosition = end;
+				lock.notifyAll();
+			}
+		}
+	}
+
+	/**
+	 * Method used to grow the file in zero-filled chunks so that it holds at least a given number of bytes
+	 * @param size the number of bytes the file must hold
+	 * @throws IOException if the file cannot be written
+	 */
+	private void preallocate(long size) throws IOException
+	{
+		if (size <= allocated)
+		{
+			return;
+		}
+		long target = (size + PREALLOCATE_SIZE - 1) / PREALLOCATE_SIZE * PREALLOCATE_SIZE;
+		ByteBuffer zeros = ByteBuffer.allocateDirect(64 * 1024);
+		for (long position = allocated; position < target; position += zeros.capacity())
+		{
+			zeros.clear();
+			zeros.limit((int) Math.min(zeros.capacity(), target - position));
+			writeFully(zeros, position);
+		}
+		allocated = target;
+	}
+
+	/**
+	 * Method used to write every remaining byte of a buffer at a position of the file
+	 * @param buffer the bytes
+	 * @param position the position of the file
+	 * @throws IOException if the file cannot be written
+	 */
+	private void writeFully(ByteBuffer buffer, long position) throws IOException
+	{
+		while (buffer.hasRemaining())
+		{
+			position += channel.write(buffer, position);
+		}
+	}
+
+	/**
+	 * Method used to walk the intact records of the file, handing each to a replayer if one is given
+	 * @param replayer the replayer, or null to only find the end of the records
+	 * @return a long, the position after the last intact record
+	 * @throws IOException if the file is not an order journal or a record cannot be replayed
+	 */
+	private long scan(Replayer replayer) throws IOException
+	{
+		long size = replayer == null ? channel.size() : recordsEnd;
+		if (size < HEADER_SIZE)
+		{
+			throw new IOException("not an order journal: file is too short");
+		}
+		if (size > Integer.MAX_VALUE)
+		{
+			throw new IOException("order journal is too large to map: " + size + " bytes");
+		}
+
+		MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+		if (map.getInt(0) != MAGIC)
+		{
+			throw new IOException("not an order journal: bad magic number");
+		}
+
+		CRC32C check = new CRC32C();
+		int position = HEADER_SIZE;
+		while (size - position >= RECORD_HEADER_SIZE)
+		{
+			int length = map.getInt(position);
+			if (length <= 0 || length > size - position - RECORD_HEADER_SIZE)
+			{
+				break;
+			}
+
+			ByteBuffer body = map.duplicate();
+			body.position(position + RECORD_HEADER_SIZE).limit(position + RECORD_HEADER_SIZE + length);
+			check.reset();
+			check.update(body.duplicate());
+			if ((int) check.getValue() != map.getInt(position + 4))
+			{
+				break;
+			}
+
+			if (replayer != null)
+			{
+				replayer.apply(body);
+			}
+			position += RECORD_HEADER_SIZE + length;
+		}
+		return position;
+	}
+
+	/**
+	 * Method used to encode a name as UTF-8
+	 * @param name the name
+	 * @return a byte array, the encoded name
+	 */
+	private static byte[] encode(String name)
+	{
+		byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > OrderCodec.MAX_NAME_BYTES)
+		{
+			throw new IllegalArgumentException("name is too long to journal: " + bytes.length + " bytes");
+		}
+		return bytes;
+	}
+
+	/**
+	 * Method used to read a name written by encode
+	 * @param body the record
+	 * @return a String, the name
+	 */
+	private static String decodeName(ByteBuffer body)
+	{
+		byte[] bytes = new byte[body.getShort() & 0xFFFF];
+		body.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Method used to wait on the lock, which the caller holds
+	 * @throws InterruptedIOException if the wait is interrupted
+	 */
+	private void awaitLock() throws InterruptedIOException
+	{
+		try
+		{
+			lock.wait();
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("interrupted while waiting for the journal");
+		}
+	}
+
+	/**
+	 * Method used to rethrow the failure of the flusher thread, if there was one
+	 * @throws IOException the failure of the flusher thread
+	 */
+	private void checkFailure() throws IOException
+	{
+		if (failure != null)
+		{
+			throw new IOException("journal write failed", failure);
+		}
+	}
+
+	/**
+	 * This class applies journaled records to a shop
+	 */
+	private static class Replayer
+	{
+		private final BevShop shop;
+		private final int[] records;
+
+		/**
+		 * Standard constructor to build a replayer
+		 * @param shop the shop the records are applied to
+		 * @param records a one element array counting the records applied
+		 */
+		Replayer(BevShop shop, int[] records)
+		{
+			this.shop = shop;
+			this.records = records;
+		}
+
+		/**
+		 * Method used to apply one record
+		 * @param body the kind and fields of the record
+		 * @throws IOException if the record is unknown or its order is not in the shop
+		 */
+		void apply(ByteBuffer body) throws IOException
+		{
+			byte kind = body.get();
+			if (kind == ORDERS)
+			{
+				int count = body.getInt();
+				for (int i = 0; i < count; i++)
+				{
+					boolean sealed = applyStart(body);
+					int items = body.getInt();
+					for (int j = 0; j < items; j++)
+					{
+						applyBeverage(body.get(), body, !sealed);
+					}
+				}
+			}
+			else if (kind == START)
+			{
+				applyStart(body);
+			}
+			else if (kind == SEAL)
+			{
+				shop.replaySeal(body.getInt());
+			}
+			else
+			{
+				int orderNo = body.getInt();
+				boolean sealed = shop.isSealed(orderNo);
+				if (!sealed && !shop.resumeOrder(orderNo))
+				{
+					throw new IOException("journaled beverage belongs to unknown order " + orderNo);
+				}
+				applyBeverage(kind, body, !sealed);
+			}
+			records[0]++;
+		}
+
+		/**
+		 * Method used to add a journaled order to the shop, unless it is already in a sealed segment of the shop
+		 * @param body the record, positioned at the order number
+		 * @return a boolean, whether the order was skipped because it is sealed
+		 */
+		private boolean applyStart(ByteBuffer body)
+		{
+			int orderNo = body.getInt();
+			int time = body.getInt();
+			DAY day = DAYS[body.get()];
+			int priceVersion = body.getShort() & 0xFFFF;
+			int age = body.getInt();
+			String name = decodeName(body);
+			if (shop.isSealed(orderNo))
+			{
+				return true;
+			}
+			shop.restoreOrder(orderNo, time, day, name, age, priceVersion);
+			return false;
+		}
+
+		/**
+		 * Method used to read a journaled beverage and add it to the current order of the shop
+		 * @param kind the kind of the beverage
+		 * @param body the record, positioned at the size of the beverage
+		 * @param add whether to add the beverage, false to only read past it
+		 * @throws IOException if the kind is unknown
+		 */
+		private void applyBeverage(byte kind, ByteBuffer body, boolean add) throws IOException
+		{
+			SIZE size = SIZES[body.get()];
+			if (kind == COFFEE)
+			{
+				int options = body.get();
+				String name = decodeName(body);
+				if (add)
+				{
+					shop.processCoffeeOrder(name, size, (options & 1) != 0, (options & 2) != 0);
+				}
+			}
+			else if (kind == ALCOHOL)
+			{
+				String name = decodeName(body);
+				if (add)
+				{
+					shop.processAlcoholOrder(name, size);
+				}
+			}
+			else if (kind == SMOOTHIE)
+			{
+				boolean protein = body.get() != 0;
+				int fruits = body.getInt();
+				String name = decodeName(body);
+				if (add)
+				{
+					shop.processSmoothieOrder(name, size, fruits, protein);
+				}
+			}
+			else
+			{
+				throw new IOException("unknown journal record kind " + kind);
+			}
+		}
+	}
+}
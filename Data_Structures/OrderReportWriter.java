@@ -0,0 +1,226 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * This class writes the month report of a shop, an order or a single beverage to an Appendable (a Writer,
+ * a StringBuilder or a ChannelReportSink) in one pass. The text is the same as the toString methods of
+ * BevShop, Order and the Beverage classes, but it is streamed instead of concatenated, numbers are written
+ * digit by digit from a reusable buffer and each price is read once in cents, so a report over n orders
+ * takes linear time and constant extra memory.
+ */
+public class OrderReportWriter
+{
+	private static final long MAX_PLAIN_CENTS = 1000000000L;
+
+	private final Appendable out;
+	private final char[] digits = new char[20];
+
+	/**
+	 * Standard constructor to build a report writer
+	 * @param out where the report is written to
+	 */
+	public OrderReportWriter(Appendable out)
+	{
+		this.out = out;
+	}
+
+	/**
+	 * Method used to write the report of every order followed by the total of all orders
+	 * @param orders the orders to report
+	 * @return a long, the total of all orders in cents
+	 * @throws IOException if the Appendable fails
+	 */
+	public long writeShop(List<Order> orders) throws IOException
+	{
+		long total = 0;
+
+		out.append("Orders: ");
+		for (int i = 0; i < orders.size(); i++)
+		{
+			total += writeOrder(orders.get(i));
+			out.append(". ");
+		}
+		out.append("Orders Total: ");
+		writePrice(total);
+
+		return total;
+	}
+
+	/**
+	 * Method used to write the report of one order, its beverages and its total
+	 * @param order the order to report
+	 * @return a long, the order total in cents
+	 * @throws IOException if the Appendable fails
+	 */
+	public long writeOrder(Order order) throws IOException
+	{
+		CustomerView customer = order.getCustomerView();
+		long total = 0;
+
+		out.append("Order Number: ");
+		writeInt(order.getOrderNumber());
+		out.append(", Order Time: ");
+		writeInt(order.getOrderTime());
+		out.append(", Order Day: ").append(order.getOrderDay().name());
+		out.append(", Customer Name: ").append(customer.getName());
+		out.append(", Customer Age: ");
+		writeInt(customer.getAge());
+		out.append(", Beverages: ");
+
+		for (int i = 0; i < order.getTotalItems(); i++)
+		{
+			total += writeBeverage(order.getBeverage(i));
+			out.append(". ");
+		}
+		out.append("Order Total: ");
+		writePrice(total);
+
+		return total;
+	}
+
+	/**
+	 * Method used to write the report of one beverage, its options and its price
+	 * @param bev the beverage to report
+	 * @return an int, the beverage price in cents
+	 * @throws IOException if the Appendable fails
+	 */
+	public int writeBeverage(Beverage bev) throws IOException
+	{
+		int price = bev.calcPriceCents();
+
+		out.append("Beverage Name: ").append(bev.getBevName());
+		out.append(", Type: ").append(bev.getType().name());
+		out.append(", Size: ").append(bev.getSize().name()).append(' ');
+
+		if (bev instanceof Coffee)
+		{
+			Coffee coffee = (Coffee) bev;
+			out.append("Extra Shot: ").append(yesNo(coffee.getShot()));
+			out.append(", Extra Syrup: ").append(yesNo(coffee.getSyrup()));
+		}
+		else if (bev instanceof Alcohol)
+		{
+			out.append("Weekend Availability: ").append(yesNo(((Alcohol) bev).getWeekendAvailability()));
+		}
+		else if (bev instanceof Smoothie)
+		{
+			Smoothie smoothie = (Smoothie) bev;
+			out.append("Protein: ").append(yesNo(smoothie.getProtein()));
+			out.append(", Fruits: ");
+			writeInt(smoothie.getFruits());
+		}
+		out.append(", Price: ");
+		writePrice(price);
+
+		return price;
+	}
+
+	/**
+	 * Method used to write an int without creating a String
+	 * @param value the value to write
+	 * @throws IOException if the Appendable fails
+	 */
+	public void writeInt(int value) throws IOException
+	{
+		writeLong(value);
+	}
+
+	/**
+	 * Method used to write an amount in cents the way Double.toString writes it as a price, for example
+	 * 300 as "3.0", 260 as "2.6" and 1235 as "12.35". Amounts of ten million or more, which Double.toString
+	 * writes in scientific notation, are written with Double.toString itself
+	 * @param cents the amount in cents
+	 * @throws IOException if the Appendable fails
+	 */
+	public void writePrice(long cents) throws IOException
+	{
+		if (cents <= -MAX_PLAIN_CENTS || cents >= MAX_PLAIN_CENTS)
+		{
+			out.append(Double.toString(PricingEngine.toPrice(cents)));
+			return;
+		}
+
+		if (cents < 0)
+		{
+			out.append('-');
+			cents = -cents;
+		}
+
+		int fraction = (int) (cents % 100);
+		writeLong(cents / 100);
+		out.append('.');
+		out.append((char) ('0' + fraction / 10));
+		if (fraction % 10 != 0)
+		{
+			out.append((char) ('0' + fraction % 10));
+		}
+	}
+
+	/**
+	 * Method used to write the report of an order to a String
+	 * @param order the order to report
+	 * @return a String, the report of the order
+	 */
+	public static String toString(Order order)
+	{
+		StringBuilder report = new StringBuilder(128 + 96 * order.getTotalItems());
+		try
+		{
+			new OrderReportWriter(report).writeOrder(order);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		return report.toString();
+	}
+
+	/**
+	 * Method used to write a long digit by digit through the reusable buffer
+	 * @param value the value to write
+	 * @throws IOException if the Appendable fails
+	 */
+	private void writeLong(long value) throws IOException
+	{
+		if (value == Long.MIN_VALUE)
+		{
+			out.append(Long.toString(value));
+			return;
+		}
+		if (value < 0)
+		{
+			out.append('-');
+			value = -value;
+		}
+
+		int pos = digits.length;
+		do
+		{
+			digits[--pos] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		while (value != 0);
+
+		for (int i = pos; i < digits.length; i++)
+		{
+			out.append(digits[i]);
+		}
+	}
+
+	/**
+	 * Method used to turn a boolean into the Yes or No used by the reports
+	 * @param value the boolean
+	 * @return a String, Yes or No
+	 */
+	private static String yesNo(boolean value)
+	{
+		return value ? "Yes" : "No";
+	}
+}
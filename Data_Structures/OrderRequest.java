@@ -0,0 +1,252 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.util.Arrays;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Beverage.TYPE;
+import Data_Structures.Order.DAY;
+import Interfaces.BevShopInterface;
+
+/**
+ * This class represents a complete order as it arrives from an online or kiosk channel: the order details
+ * and every beverage, collected before anything reaches the shop. A shop validates the whole request in
+ * one pass and publishes it as one Order whose beverage list is sized exactly once. The beverages are kept
+ * as primitive columns, so building a request creates no Beverage objects.
+ */
+public class OrderRequest
+{
+	private static final int INITIAL_CAPACITY = 4;
+	private static final TYPE[] TYPES = TYPE.values();
+	private static final SIZE[] SIZES = SIZE.values();
+
+	private final int orderTime;
+	private final DAY orderDay;
+	private final String customerName;
+	private final int customerAge;
+	private int itemCount;
+	private byte[] types = new byte[INITIAL_CAPACITY];
+	private byte[] sizes = new byte[INITIAL_CAPACITY];
+	private String[] names = new String[INITIAL_CAPACITY];
+	private boolean[] firstOptions = new boolean[INITIAL_CAPACITY];
+	private boolean[] secondOptions = new boolean[INITIAL_CAPACITY];
+	private int[] fruits = new int[INITIAL_CAPACITY];
+	private int[] typeCounts = new int[TYPES.length];
+
+	/**
+	 * Standard constructor to build an empty order request
+	 * @param orderTime the order time
+	 * @param orderDay the order day
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 */
+	public OrderRequest(int orderTime, DAY orderDay, String customerName, int customerAge)
+	{
+		this.orderTime = orderTime;
+		this.orderDay = orderDay;
+		this.customerName = customerName;
+		this.customerAge = customerAge;
+	}
+
+	/**
+	 * Method used to add a coffee to the request
+	 * @param bevName Beverage name
+	 * @param size Beverage size
+	 * @param extraShot If the customer wants an extra shot
+	 * @param extraSyrup If the customer wants extra syrup
+	 */
+	public void addCoffee(String bevName, SIZE size, boolean extraShot, boolean extraSyrup)
+	{
+		add(TYPE.COFFEE, bevName, size, extraShot, extraSyrup, 0);
+	}
+
+	/**
+	 * Method used to add an alcoholic drink to the request
+	 * @param bevName the name of the drink
+	 * @param size the size of the drink
+	 */
+	public void addAlcohol(String bevName, SIZE size)
+	{
+		add(TYPE.ALCOHOLIC, bevName, size, false, false, 0);
+	}
+
+	/**
+	 * Method used to add a smoothie to the request
+	 * @param bevName the beverage name
+	 * @param size beverage size
+	 * @param numOfFruits How many fruits the customer wants
+	 * @param addProtein Whether the customer wants protein
+	 */
+	public void addSmoothie(String bevName, SIZE size, int numOfFruits, boolean addProtein)
+	{
+		add(TYPE.SMOOTHIE, bevName, size, addProtein, false, numOfFruits);
+	}
+
+	/**
+	 * Getter to get the order time
+	 * @return an int, the order time
+	 */
+	public int getOrderTime()
+	{
+		return orderTime;
+	}
+
+	/**
+	 * Getter to get the order day
+	 * @return a DAY, the order day
+	 */
+	public DAY getOrderDay()
+	{
+		return orderDay;
+	}
+
+	/**
+	 * Getter to get the customers name
+	 * @return a String, the customers name
+	 */
+	public String getCustomerName()
+	{
+		return customerName;
+	}
+
+	/**
+	 * Getter to get the customers age
+	 * @return an int, the customers age
+	 */
+	public int getCustomerAge()
+	{
+		return customerAge;
+	}
+
+	/**
+	 * Getter to get the number of beverages in the request
+	 * @return an int, the number of beverages
+	 */
+	public int getTotalItems()
+	{
+		return itemCount;
+	}
+
+	/**
+	 * Method used to count the beverages of a type in the request
+	 * @param type the beverage type
+	 * @return an int, the number of beverages of the type
+	 */
+	public int findNumOfBeveType(TYPE type)
+	{
+		return typeCounts[type.ordinal()];
+	}
+
+	/**
+	 * Method used to check the request against the rules of a shop: the order time, the customers age and the
+	 * number of alcoholic drinks if any are ordered, the number of fruits of every smoothie, and names that fit the
+	 * persisted formats
+	 * @param shop the shop the request is for
+	 * @throws IllegalArgumentException naming the first rule the request breaks
+	 */
+	void validate(BevShopInterface shop)
+	{
+		if (orderDay == null || customerName == null)
+		{
+			throw new IllegalArgumentException("order day and customer name are required");
+		}
+		OrderCodec.checkName("customer name", customerName);
+		if (!shop.validTime(orderTime))
+		{
+			throw new IllegalArgumentException("invalid order time: " + orderTime);
+		}
+
+		int alcohol = typeCounts[TYPE.ALCOHOLIC.ordinal()];
+		if (alcohol > 0 && !shop.validAge(customerAge))
+		{
+			throw new IllegalArgumentException("customer is too young for alcohol: " + customerAge);
+		}
+		if (alcohol > BevShopInterface.MAX_ORDER_FOR_ALCOHOL)
+		{
+			throw new IllegalArgumentException("too many alcoholic drinks: " + alcohol);
+		}
+
+		for (int i = 0; i < itemCount; i++)
+		{
+			if (types[i] == TYPE.SMOOTHIE.ordinal() && (fruits[i] < 0 || fruits[i] > BevShopInterface.MAX_FRUIT))
+			{
+				throw new IllegalArgumentException("invalid number of fruits: " + fruits[i]);
+			}
+			OrderCodec.checkName("beverage name", names[i]);
+		}
+	}
+
+	/**
+	 * Method used to build the Order of the request, with a beverage list sized for exactly its beverages
+	 * @param orderNumber the order number
+	 * @return an Order, the new order
+	 */
+	Order toOrder(int orderNumber)
+	{
+		return toOrder(orderNumber, new Customer(customerName, customerAge));
+	}
+
+	/**
+	 * Method used to build the Order of the request for a customer shared with other orders
+	 * @param orderNumber the order number
+	 * @param customer the customer of the request
+	 * @return an Order, the new order
+	 */
+	Order toOrder(int orderNumber, Customer customer)
+	{
+		Order order = new Order(orderNumber, orderTime, orderDay, customer, itemCount);
+		for (int i = 0; i < itemCount; i++)
+		{
+			SIZE size = SIZES[sizes[i]];
+			switch (TYPES[types[i]])
+			{
+				case COFFEE:	order.addNewBeverage(names[i], size, firstOptions[i], secondOptions[i]);
+								break;
+				case ALCOHOLIC:	order.addNewBeverage(names[i], size);
+								break;
+				default:		order.addNewBeverage(names[i], size, firstOptions[i], fruits[i]);
+								break;
+			}
+		}
+		return order;
+	}
+
+	/**
+	 * Method used to add a beverage to the columns
+	 * @param type the beverage type
+	 * @param bevName the beverage name
+	 * @param size the beverage size
+	 * @param first the extra shot of a coffee or the protein of a smoothie
+	 * @param second the extra syrup of a coffee
+	 * @param numOfFruits the number of fruits of a smoothie
+	 */
+	private void add(TYPE type, String bevName, SIZE size, boolean first, boolean second, int numOfFruits)
+	{
+		if (bevName == null || size == null)
+		{
+			throw new IllegalArgumentException("beverage name and size are required");
+		}
+		if (itemCount == types.length)
+		{
+			int capacity = itemCount * 2;
+			types = Arrays.copyOf(types, capacity);
+			sizes = Arrays.copyOf(sizes, capacity);
+			names = Arrays.copyOf(names, capacity);
+			firstOptions = Arrays.copyOf(firstOptions, capacity);
+			secondOptions = Arrays.copyOf(secondOptions, capacity);
+			fruits = Arrays.copyOf(fruits, capacity);
+		}
+
+		types[itemCount] = (byte) type.ordinal();
+		sizes[itemCount] = (byte) size.ordinal();
+		names[itemCount] = bevName;
+		firstOptions[itemCount] = first;
+		secondOptions[itemCount] = second;
+		fruits[itemCount] = numOfFruits;
+		typeCounts[type.ordinal()]++;
+		itemCount++;
+	}
+}
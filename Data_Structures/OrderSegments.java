@@ -0,0 +1,371 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import Data_Structures.Order.DAY;
+
+/**
+ * This class represents the sealed, cold part of a shop's order log. A shop keeps the orders of the current
+ * period (a day or a month, by the given clock) in memory as its hot segment; when the period ends, or the hot
+ * segment reaches its order limit, the segment is sealed into a file of the segment directory in ShopSnapshot
+ * format and dropped from the heap. Sealed segments are memory-mapped, so their orders are paged in from the
+ * file only when they are read and the operating system can evict them again under memory pressure.
+ *
+ * The segments are numbered in the order they were sealed, so a directory can be reopened after a restart and
+ * every segment in it is loaded again. A shop restored from a snapshot keeps that snapshot as its first segment
+ * even without a segment directory; such segments are never sealed into or deleted.
+ */
+public class OrderSegments
+{
+	private static final String PREFIX = "segment-";
+	private static final String SUFFIX = ".snap";
+
+	private final Path directory;
+	private final ChronoUnit period;
+	private final int hotOrderLimit;
+	private final Clock clock;
+	private final ArrayList<ShopSnapshot> segments = new ArrayList<ShopSnapshot>();
+	private int[] starts = new int[4];
+	private int size;
+	private int nextSegment;
+	private long periodEnd = Long.MIN_VALUE;
+
+	/**
+	 * Constructor to build OrderSegments that never seal, used by shops without a segment directory
+	 */
+	OrderSegments()
+	{
+		this.directory = null;
+		this.period = null;
+		this.hotOrderLimit = Integer.MAX_VALUE;
+		this.clock = null;
+	}
+
+	/**
+	 * Standard constructor to build OrderSegments sealing into a directory by the system clock, loading the
+	 * segments already in the directory
+	 * @param directory the segment directory, created if it does not exist
+	 * @param period ChronoUnit.DAYS or ChronoUnit.MONTHS to seal at the end of every day or month, or null to seal only at the limit
+	 * @param hotOrderLimit the largest number of orders kept in memory before the hot segment is sealed early
+	 * @throws IOException if the directory cannot be created or a segment in it cannot be opened
+	 */
+	public OrderSegments(Path directory, ChronoUnit period, int hotOrderLimit) throws IOException
+	{
+		this(directory, period, hotOrderLimit, Clock.systemDefaultZone());
+	}
+
+	/**
+	 * Constructor to build OrderSegments sealing into a directory by a given clock, loading the segments already
+	 * in the directory
+	 * @param directory the segment directory, created if it does not exist
+	 * @param period ChronoUnit.DAYS or ChronoUnit.MONTHS to seal at the end of every day or month, or null to seal only at the limit
+	 * @param hotOrderLimit the largest number of orders kept in memory before the hot segment is sealed early
+	 * @param clock the clock the periods are measured by
+	 * @throws IOException if the directory cannot be created or a segment in it cannot be opened
+	 */
+	public OrderSegments(Path directory, ChronoUnit period, int hotOrderLimit, Clock clock) throws IOException
+	{
+		if (directory == null || clock == null)
+		{
+			throw new IllegalArgumentException("directory and clock must not be null");
+		}
+		if (period != null && period != ChronoUnit.DAYS && period != ChronoUnit.MONTHS)
+		{
+			throw new IllegalArgumentException("period must be DAYS, MONTHS or null: " + period);
+		}
+		if (hotOrderLimit < 1)
+		{
+			throw new IllegalArgumentException("hotOrderLimit must be at least 1: " + hotOrderLimit);
+		}
+		this.directory = directory;
+		this.period = period;
+		this.hotOrderLimit = hotOrderLimit;
+		this.clock = clock;
+
+		Files.createDirectories(directory);
+		for (Path file : segmentFiles())
+		{
+			add(ShopSnapshot.open(file));
+			nextSegment = segmentNumber(file) + 1;
+		}
+	}
+
+	/**
+	 * Getter to get the number of orders in every segment
+	 * @return an int, the number of cold orders
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Getter to get the number of segments
+	 * @return an int, the number of segments
+	 */
+	public int getSegmentCount()
+	{
+		return segments.size();
+	}
+
+	/**
+	 * Getter to get a segment, for example to report on one day or month
+	 * @param segment the number of the segment, oldest first
+	 * @return a ShopSnapshot, the segment
+	 */
+	public ShopSnapshot getSegment(int segment)
+	{
+		return segments.get(segment);
+	}
+
+	/**
+	 * Getter to get the segment directory
+	 * @return a Path, the segment directory, or null if these segments never seal
+	 */
+	public Path getDirectory()
+	{
+		return directory;
+	}
+
+	/**
+	 * Getter to get the largest number of orders kept in memory
+	 * @return an int, the hot order limit
+	 */
+	public int getHotOrderLimit()
+	{
+		return hotOrderLimit;
+	}
+
+	/**
+	 * Method used to find an order in the segments via order number, newest segment first
+	 * @param orderNo the order number
+	 * @return an int, the index of the order over every segment, or -1 if it is not found
+	 */
+	public int find(int orderNo)
+	{
+		for (int s = segments.size() - 1; s >= 0; s--)
+		{
+			int i = segments.get(s).find(orderNo);
+			if (i != -1)
+			{
+				return starts[s] + i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Method used to decode an order of the segments into a new Order
+	 * @param index the index of the order over every segment
+	 * @return an Order, the decoded order
+	 */
+	public Order getOrder(int index)
+	{
+		int s = segmentOf(index);
+		return segments.get(s).getOrder(index - starts[s]);
+	}
+
+	/**
+	 * Method used to point a flyweight at an order of the segments, without decoding it
+	 * @param index the index of the order over every segment
+	 * @param into the flyweight to point at the order
+	 * @return the order flyweight
+	 */
+	public OrderFlyweight getOrder(int index, OrderFlyweight into)
+	{
+		int s = segmentOf(index);
+		return segments.get(s).getOrder(index - starts[s], into);
+	}
+
+	/**
+	 * Method used to calculate the total of an order of the segments
+	 * @param index the index of the order over every segment
+	 * @return a long, the order total in cents
+	 */
+	public long orderTotalCents(int index)
+	{
+		int s = segmentOf(index);
+		return segments.get(s).orderTotalCents(index - starts[s]);
+	}
+
+	/**
+	 * Method used to get the sales of a day of the week over every segment
+	 * @param day the day of the week
+	 * @return a long, the sales on that day in cents
+	 */
+	public long getCentsOnDay(DAY day)
+	{
+		long cents = 0;
+		for (int s = 0; s < segments.size(); s++)
+		{
+			cents += segments.get(s).getCentsOnDay(day);
+		}
+		return cents;
+	}
+
+	/**
+	 * Method used to total every order of the segments again, reading each order in place from its segment
+	 * @return an OrderAggregates, the totals of the sealed orders
+	 */
+	public OrderAggregates aggregate()
+	{
+		OrderAggregates totals = new OrderAggregates();
+		for (int s = 0; s < segments.size(); s++)
+		{
+			totals.add(segments.get(s).aggregate());
+		}
+		return totals;
+	}
+
+	/**
+	 * Method used by a shop before it adds an order, to decide whether its hot segment has to be sealed first:
+	 * because the current period is over, or because the hot segment is full
+	 * @param hotOrders the number of orders in the hot segment
+	 * @return a boolean, whether to seal the hot segment
+	 */
+	boolean shouldSeal(int hotOrders)
+	{
+		if (directory == null)
+		{
+			return false;
+		}
+
+		if (period != null)
+		{
+			long now = clock.millis();
+			if (now >= periodEnd)
+			{
+				periodEnd = nextPeriodEnd();
+				if (hotOrders > 0)
+				{
+					return true;
+				}
+			}
+		}
+		return hotOrders >= hotOrderLimit;
+	}
+
+	/**
+	 * Method used to seal a hot segment into a new segment file and map it
+	 * @param orders the orders of the hot segment
+	 */
+	void seal(List<Order> orders)
+	{
+		Path file = directory.resolve(String.format("%s%06d%s", PREFIX, nextSegment, SUFFIX));
+		try
+		{
+			ShopSnapshot.write(orders, file);
+			add(ShopSnapshot.open(file));
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		nextSegment++;
+	}
+
+	/**
+	 * Method used to add a segment after the others
+	 * @param segment the segment
+	 */
+	void add(ShopSnapshot segment)
+	{
+		if (segments.size() == starts.length)
+		{
+			starts = Arrays.copyOf(starts, starts.length * 2);
+		}
+		starts[segments.size()] = size;
+		segments.add(segment);
+		size += segment.size();
+	}
+
+	/**
+	 * Method used to find the segment of an order
+	 * @param index the index of the order over every segment
+	 * @return an int, the number of the segment
+	 */
+	private int segmentOf(int index)
+	{
+		if (index < 0 || index >= size)
+		{
+			throw new IndexOutOfBoundsException("order " + index + " of " + size);
+		}
+		int s = Arrays.binarySearch(starts, 0, segments.size(), index);
+		if (s < 0)
+		{
+			s = -s - 2;
+		}
+		while (s + 1 < segments.size() && starts[s + 1] == index)
+		{
+			s++;
+		}
+		return s;
+	}
+
+	/**
+	 * Method used to get the time the current period ends
+	 * @return a long, the end of the period in epoch milliseconds
+	 */
+	private long nextPeriodEnd()
+	{
+		LocalDate today = LocalDate.now(clock);
+		LocalDate next = period == ChronoUnit.DAYS ? today.plusDays(1) : today.withDayOfMonth(1).plusMonths(1);
+		ZonedDateTime end = next.atStartOfDay(clock.getZone());
+		return end.toInstant().toEpochMilli();
+	}
+
+	/**
+	 * Method used to list the segment files of the directory, oldest first
+	 * @return a List of Path, the segment files
+	 * @throws IOException if the directory cannot be read
+	 */
+	private List<Path> segmentFiles() throws IOException
+	{
+		ArrayList<Path> files = new ArrayList<Path>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX))
+		{
+			for (Path file : stream)
+			{
+				if (segmentNumber(file) >= 0)
+				{
+					files.add(file);
+				}
+			}
+		}
+		files.sort((a, b) -> Integer.compare(segmentNumber(a), segmentNumber(b)));
+		return files;
+	}
+
+	/**
+	 * Method used to read the number of a segment file from its name
+	 * @param file the segment file
+	 * @return an int, the segment number, or -1 if the name is not a segment name
+	 */
+	private static int segmentNumber(Path file)
+	{
+		String name = file.getFileName().toString();
+		try
+		{
+			return Integer.parseInt(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+		}
+		catch (NumberFormatException | IndexOutOfBoundsException e)
+		{
+			return -1;
+		}
+	}
+}
@@ -0,0 +1,281 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class sorts lists of orders in ascending order of order number. Order numbers come from a
+ * bounded range, so a stable counting sort over the key range is used, running in O(n + range).
+ * Key ranges that are too wide for a single counting pass fall back to a stable LSD radix sort
+ * with two 16 bit digits. Large lists are sorted with a parallel fork-join variant that builds the
+ * per-chunk histograms and scatters the chunks concurrently.
+ */
+public class OrderSorter
+{
+	private static final int DIGIT_BITS = 16;
+	private static final int DIGIT_MASK = (1 << DIGIT_BITS) - 1;
+	private static final int MAX_COUNTING_RANGE = 1 << 20;
+	private static final int PARALLEL_THRESHOLD = 1 << 15;
+	private static final int MIN_CHUNK_SIZE = 1 << 13;
+	private static final int MAX_HISTOGRAM_CELLS = 1 << 23;
+
+	/**
+	 * Method used to sort orders in ascending order of order number, using the parallel variant for large lists
+	 * @param orders the orders to sort, sorted in place
+	 */
+	public static void sort(List<Order> orders)
+	{
+		if (orders.size() >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1)
+		{
+			sortParallel(orders, ForkJoinPool.commonPool());
+		}
+		else
+		{
+			sortSequential(orders);
+		}
+	}
+
+	/**
+	 * Method used to sort orders in ascending order of order number on the calling thread
+	 * @param orders the orders to sort, sorted in place
+	 */
+	public static void sortSequential(List<Order> orders)
+	{
+		sort(orders, null);
+	}
+
+	/**
+	 * Method used to sort orders in ascending order of order number, splitting the work across a fork-join pool
+	 * @param orders the orders to sort, sorted in place
+	 * @param pool the pool used to run the histogram and scatter phases
+	 */
+	public static void sortParallel(List<Order> orders, ForkJoinPool pool)
+	{
+		sort(orders, pool);
+	}
+
+	/**
+	 * Method used to run the counting or radix passes and write the sorted orders back to the list
+	 * @param orders the orders to sort
+	 * @param pool the pool to run on, or null to sort sequentially
+	 */
+	private static void sort(List<Order> orders, ForkJoinPool pool)
+	{
+		int n = orders.size();
+		if (n < 2)
+		{
+			return;
+		}
+
+		Order[] items = orders.toArray(new Order[n]);
+		int[] keys = new int[n];
+		int min = Integer.MAX_VALUE;
+		int max = Integer.MIN_VALUE;
+		boolean sorted = true;
+
+		for (int i = 0; i < n; i++)
+		{
+			int key = items[i].getOrderNumber();
+			keys[i] = key;
+			sorted &= key >= max;
+			min = Math.min(min, key);
+			max = Math.max(max, key);
+		}
+
+		if (sorted)
+		{
+			return;
+		}
+
+		Order[] itemsOut = new Order[n];
+		int[] keysOut = new int[n];
+		long range = (long) max - min + 1;
+
+		if (range <= Math.max(MAX_COUNTING_RANGE, n))
+		{
+			pass(keys, items, keysOut, itemsOut, min, 0, -1, (int) range, pool);
+		}
+		else
+		{
+			pass(keys, items, keysOut, itemsOut, min, 0, DIGIT_MASK, DIGIT_MASK + 1, pool);
+			pass(keysOut, itemsOut, keys, items, min, DIGIT_BITS, DIGIT_MASK, DIGIT_MASK + 1, pool);
+			itemsOut = items;
+		}
+
+		if (orders instanceof ArrayList)
+		{
+			for (int i = 0; i < n; i++)
+			{
+				orders.set(i, itemsOut[i]);
+			}
+		}
+		else
+		{
+			orders.clear();
+			for (int i = 0; i < n; i++)
+			{
+				orders.add(itemsOut[i]);
+			}
+		}
+	}
+
+	/**
+	 * Method used to run one stable counting pass on the digit selected by shift and mask
+	 * @param keysIn the order numbers, parallel to itemsIn
+	 * @param itemsIn the orders to distribute
+	 * @param keysOut receives the order numbers in digit order
+	 * @param itemsOut receives the orders in digit order
+	 * @param min the smallest order number, subtracted from every key
+	 * @param shift the bit position of the digit
+	 * @param mask the bits of the digit
+	 * @param buckets the number of distinct digit values
+	 * @param pool the pool to run on, or null to run sequentially
+	 */
+	private static void pass(int[] keysIn, Order[] itemsIn, int[] keysOut, Order[] itemsOut,
+							int min, int shift, int mask, int buckets, ForkJoinPool pool)
+	{
+		int n = keysIn.length;
+		int chunks = 1;
+
+		if (pool != null)
+		{
+			chunks = Math.min(pool.getParallelism() * 2, n / MIN_CHUNK_SIZE);
+			chunks = Math.min(chunks, MAX_HISTOGRAM_CELLS / buckets);
+		}
+
+		if (chunks <= 1)
+		{
+			int[] offsets = new int[buckets];
+			for (int i = 0; i < n; i++)
+			{
+				offsets[((keysIn[i] - min) >>> shift) & mask]++;
+			}
+			toOffsets(offsets);
+			scatter(keysIn, itemsIn, keysOut, itemsOut, 0, n, min, shift, mask, offsets);
+			return;
+		}
+
+		int[][] histograms = new int[chunks][buckets];
+		pool.invoke(new PassTask(keysIn, itemsIn, keysOut, itemsOut, min, shift, mask, histograms, 0, chunks, false));
+
+		int running = 0;
+		for (int b = 0; b < buckets; b++)
+		{
+			for (int c = 0; c < chunks; c++)
+			{
+				int count = histograms[c][b];
+				histograms[c][b] = running;
+				running += count;
+			}
+		}
+
+		pool.invoke(new PassTask(keysIn, itemsIn, keysOut, itemsOut, min, shift, mask, histograms, 0, chunks, true));
+	}
+
+	/**
+	 * Method used to turn digit counts into the starting offset of each digit
+	 * @param counts the digit counts, replaced by the offsets
+	 */
+	private static void toOffsets(int[] counts)
+	{
+		int running = 0;
+		for (int b = 0; b < counts.length; b++)
+		{
+			int count = counts[b];
+			counts[b] = running;
+			running += count;
+		}
+	}
+
+	/**
+	 * Method used to move a range of orders to their digit positions, keeping their relative order
+	 * @param from the first position of the range
+	 * @param to the position after the last one of the range
+	 * @param offsets the next free position of each digit, advanced as orders are moved
+	 */
+	private static void scatter(int[] keysIn, Order[] itemsIn, int[] keysOut, Order[] itemsOut,
+								int from, int to, int min, int shift, int mask, int[] offsets)
+	{
+		for (int i = from; i < to; i++)
+		{
+			int key = keysIn[i];
+			int pos = offsets[((key - min) >>> shift) & mask]++;
+			keysOut[pos] = key;
+			itemsOut[pos] = itemsIn[i];
+		}
+	}
+
+	/**
+	 * This class runs either the histogram phase or the scatter phase of a parallel pass over a range of chunks
+	 */
+	private static class PassTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		private final int[] keysIn;
+		private final Order[] itemsIn;
+		private final int[] keysOut;
+		private final Order[] itemsOut;
+		private final int min;
+		private final int shift;
+		private final int mask;
+		private final int[][] histograms;
+		private final int firstChunk;
+		private final int lastChunk;
+		private final boolean scatterPhase;
+
+		PassTask(int[] keysIn, Order[] itemsIn, int[] keysOut, Order[] itemsOut, int min, int shift, int mask,
+				int[][] histograms, int firstChunk, int lastChunk, boolean scatterPhase)
+		{
+			this.keysIn = keysIn;
+			this.itemsIn = itemsIn;
+			this.keysOut = keysOut;
+			this.itemsOut = itemsOut;
+			this.min = min;
+			this.shift = shift;
+			this.mask = mask;
+			this.histograms = histograms;
+			this.firstChunk = firstChunk;
+			this.lastChunk = lastChunk;
+			this.scatterPhase = scatterPhase;
+		}
+
+		@Override
+		protected void compute()
+		{
+			if (lastChunk - firstChunk > 1)
+			{
+				int mid = (firstChunk + lastChunk) >>> 1;
+				ForkJoinTask.invokeAll(
+						new PassTask(keysIn, itemsIn, keysOut, itemsOut, min, shift, mask, histograms, firstChunk, mid, scatterPhase),
+						new PassTask(keysIn, itemsIn, keysOut, itemsOut, min, shift, mask, histograms, mid, lastChunk, scatterPhase));
+				return;
+			}
+
+			int chunks = histograms.length;
+			long n = keysIn.length;
+			int from = (int) (n * firstChunk / chunks);
+			int to = (int) (n * (firstChunk + 1) / chunks);
+			int[] histogram = histograms[firstChunk];
+
+			if (scatterPhase)
+			{
+				scatter(keysIn, itemsIn, keysOut, itemsOut, from, to, min, shift, mask, histogram);
+			}
+			else
+			{
+				for (int i = from; i < to; i++)
+				{
+					histogram[((keysIn[i] - min) >>> shift) & mask]++;
+				}
+			}
+		}
+	}
+}
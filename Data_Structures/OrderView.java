@@ -0,0 +1,180 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Beverage.TYPE;
+import Data_Structures.Order.DAY;
+
+/**
+ * This class represents a read-only view of an Order. It reads through to the order instead of copying
+ * it, and beverages are read by item number rather than handed out as Beverage objects, so walking every
+ * order of a shop through views allocates nothing per order. Each order keeps a single view, created the
+ * first time it is asked for. A view has no setters, so the shop's data cannot be changed through it.
+ */
+public final class OrderView
+{
+	private final Order order;
+	
+	/**
+	 * Standard constructor to build a view of an order
+	 * @param order the order to view
+	 */
+	OrderView(Order order)
+	{
+		this.order = order;
+	}
+	
+	/**
+	 * Getter method to get the order number
+	 * @return an int, the order number
+	 */
+	public int getOrderNumber()
+	{
+		return order.getOrderNumber();
+	}
+	
+	/**
+	 * Getter method to get the order time
+	 * @return an int, the order time
+	 */
+	public int getOrderTime()
+	{
+		return order.getOrderTime();
+	}
+	
+	/**
+	 * Getter method to get the order day
+	 * @return a DAY, the order day
+	 */
+	public DAY getOrderDay()
+	{
+		return order.getOrderDay();
+	}
+	
+	/**
+	 * Method to determine if the order day is on a weekend
+	 * @return a boolean, whether the order day is a weekend or not
+	 */
+	public boolean isWeekend()
+	{
+		return order.isWeekend();
+	}
+	
+	/**
+	 * Getter method to get a read-only view of the customer who made this order
+	 * @return a CustomerView, the customer who made this order
+	 */
+	public CustomerView getCustomer()
+	{
+		return order.getCustomerView();
+	}
+	
+	/**
+	 * Method to get the total number of drinks for the entire order
+	 * @return an int, the total number of drinks
+	 */
+	public int getTotalItems()
+	{
+		return order.getTotalItems();
+	}
+	
+	/**
+	 * Getter to get the name of a beverage of the order
+	 * @param itemNo the item number
+	 * @return a string, the beverage name
+	 */
+	public String getBevName(int itemNo)
+	{
+		return order.getBeverage(itemNo).getBevName();
+	}
+	
+	/**
+	 * Getter to get the type of a beverage of the order
+	 * @param itemNo the item number
+	 * @return a TYPE, the beverage type
+	 */
+	public TYPE getType(int itemNo)
+	{
+		return order.getBeverage(itemNo).getType();
+	}
+	
+	/**
+	 * Getter to get the size of a beverage of the order
+	 * @param itemNo the item number
+	 * @return a SIZE, the beverage size
+	 */
+	public SIZE getSize(int itemNo)
+	{
+		return order.getBeverage(itemNo).getSize();
+	}
+	
+	/**
+	 * Getter to get the options of a beverage of the order as PricingEngine flags
+	 * @param itemNo the item number
+	 * @return an int, the option flags
+	 */
+	public int getOptionFlags(int itemNo)
+	{
+		return order.getBeverage(itemNo).getOptionFlags();
+	}
+	
+	/**
+	 * Getter to get the price of a beverage of the order in cents
+	 * @param itemNo the item number
+	 * @return an int, the price in cents
+	 */
+	public int getPriceCents(int itemNo)
+	{
+		return order.getBeverage(itemNo).calcPriceCents();
+	}
+	
+	/**
+	 * Method to determine the number of a unique beverage type for the whole order
+	 * @param type the type of beverage specified
+	 * @return an int, the number of beverages of the type specified that are in the order
+	 */
+	public int findNumOfBeveType(TYPE type)
+	{
+		return order.findNumOfBeveType(type);
+	}
+	
+	/**
+	 * Method to calculate the total price for all of the drinks ordered
+	 * @return a double, the order total
+	 */
+	public double calcOrderTotal()
+	{
+		return order.calcOrderTotal();
+	}
+	
+	/**
+	 * Method to calculate the exact total price in cents for all of the drinks ordered
+	 * @return a long, the order total in cents
+	 */
+	public long calcOrderTotalCents()
+	{
+		return order.calcOrderTotalCents();
+	}
+	
+	/**
+	 * Method used to make an independent copy of the viewed order; changing the copy or its beverages does not change the order
+	 * @return an Order, a copy of the order
+	 */
+	public Order toOrder()
+	{
+		return new Order(order);
+	}
+	
+	/**
+	 * toString method used to print out the pertinent information about the order
+	 * @return a string, the information about the order
+	 */
+	@Override
+	public String toString()
+	{
+		return order.toString();
+	}
+}
@@ -0,0 +1,138 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import Interfaces.OrderNumberGeneratorInterface;
+
+/**
+ * This class hands out order numbers that look random but never repeat within a period. A sequence
+ * counter is run through a keyed Feistel permutation of the order number range (cycle walking keeps
+ * the result inside the range), so every number of the range is handed out exactly once per period.
+ * It is thread safe and does not allocate per call.
+ */
+public class PermutedOrderNumbers implements OrderNumberGeneratorInterface
+{
+	public static final int FIRST_ORDER_NUMBER = 10000;
+	public static final int LAST_ORDER_NUMBER = 89999;
+	private static final int ROUNDS = 4;
+
+	private final int first;
+	private final long span;
+	private final int halfBits;
+	private final long halfMask;
+	private final long[] roundKeys = new long[ROUNDS];
+	private final AtomicLong counter = new AtomicLong();
+
+	/**
+	 * Standard constructor to build a permuted sequence over the shop's 10000 to 89999 order number range
+	 * @param seed the seed choosing the permutation
+	 */
+	public PermutedOrderNumbers(long seed)
+	{
+		this(FIRST_ORDER_NUMBER, LAST_ORDER_NUMBER, seed);
+	}
+
+	/**
+	 * Constructor to build a permuted sequence over a range of order numbers
+	 * @param first the first order number of the range
+	 * @param last the last order number of the range
+	 * @param seed the seed choosing the permutation
+	 */
+	public PermutedOrderNumbers(int first, int last, long seed)
+	{
+		if (last < first)
+		{
+			throw new IllegalArgumentException("empty order number range: " + first + " to " + last);
+		}
+		this.first = first;
+		this.span = (long) last - first + 1;
+
+		int bits = 2;
+		while ((1L << bits) < span)
+		{
+			bits += 2;
+		}
+		this.halfBits = bits / 2;
+		this.halfMask = (1L << halfBits) - 1;
+
+		long state = seed;
+		for (int i = 0; i < ROUNDS; i++)
+		{
+			state += 0x9E3779B97F4A7C15L;
+			roundKeys[i] = mix(state);
+		}
+	}
+
+	/**
+	 * Method used to build a permuted sequence over every positive int, for shops that outgrow the
+	 * five digit range. The counter is 64 bits wide, so the sequence runs 2147483647 orders before repeating
+	 * @param seed the seed choosing the permutation
+	 * @return a PermutedOrderNumbers, the wide sequence
+	 */
+	public static PermutedOrderNumbers wide(long seed)
+	{
+		return new PermutedOrderNumbers(1, Integer.MAX_VALUE, seed);
+	}
+
+	/**
+	 * Method used to get the next order number of the permuted sequence
+	 * @return an int, the next order number
+	 */
+	public int nextOrderNumber()
+	{
+		long x = counter.getAndIncrement() % span;
+
+		do
+		{
+			x = permute(x);
+		}
+		while (x >= span);
+
+		return (int) (first + x);
+	}
+
+	/**
+	 * Method used to get the number of order numbers handed out before a number can repeat
+	 * @return a long, the size of the range
+	 */
+	public long period()
+	{
+		return span;
+	}
+
+	/**
+	 * Method used to run one value through the Feistel network, a bijection on the power of four that covers the range
+	 * @param x the value to permute
+	 * @return a long, the permuted value
+	 */
+	private long permute(long x)
+	{
+		long left = x >>> halfBits;
+		long right = x & halfMask;
+
+		for (int i = 0; i < ROUNDS; i++)
+		{
+			long next = left ^ (mix(right + roundKeys[i]) & halfMask);
+			left = right;
+			right = next;
+		}
+
+		return (left << halfBits) | right;
+	}
+
+	/**
+	 * Method used to scramble the bits of a value (the SplitMix64 finalizer)
+	 * @param z the value to scramble
+	 * @return a long, the scrambled value
+	 */
+	static long mix(long z)
+	{
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+}
@@ -0,0 +1,252 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Beverage.TYPE;
+
+/**
+ * This class represents one version of the shop's prices, as a table in whole cents indexed by beverage type,
+ * size and option flags (see PricingEngine). A catalog never changes once built: a price change is a new
+ * catalog with a higher version, so an order priced with an older version keeps its total.
+ *
+ * A catalog file is a properties file with a version and any of the prices below, in dollars; prices that are
+ * left out keep the built-in price:
+ * <pre>
+ * version=2
+ * size.small=2.00
+ * size.medium=3.00
+ * size.large=4.00
+ * coffee.extraShot=0.50
+ * coffee.extraSyrup=0.50
+ * alcohol.weekend=0.60
+ * smoothie.protein=1.50
+ * smoothie.fruit=0.50
+ * </pre>
+ */
+public class PricingCatalog
+{
+	public static final int MAX_VERSION = 0xFFFF;
+
+	private static final SIZE[] SIZES = SIZE.values();
+	private static final TYPE[] TYPES = TYPE.values();
+
+	private final int version;
+	private final int[] prices;
+	private final int fruitCents;
+
+	/**
+	 * Constructor to build a catalog from its prices in cents
+	 * @param version the catalog version
+	 * @param sizeCents the price of each SIZE
+	 * @param extraShot the price of an extra shot
+	 * @param extraSyrup the price of extra syrup
+	 * @param weekend the weekend charge of an alcoholic drink
+	 * @param protein the price of protein
+	 * @param fruit the price of a fruit
+	 */
+	private PricingCatalog(int version, int[] sizeCents, int extraShot, int extraSyrup, int weekend, int protein, int fruit)
+	{
+		this.version = version;
+		this.fruitCents = fruit;
+		this.prices = new int[PricingEngine.TABLE_SIZE];
+
+		for (int t = 0; t < TYPES.length; t++)
+		{
+			for (int s = 0; s < SIZES.length; s++)
+			{
+				for (int flags = 0; flags < PricingEngine.FLAG_COMBINATIONS; flags++)
+				{
+					int price = sizeCents[s];
+					switch (TYPES[t])
+					{
+						case COFFEE:	if ((flags & PricingEngine.COFFEE_EXTRA_SHOT) != 0)
+										{
+											price += extraShot;
+										}
+										if ((flags & PricingEngine.COFFEE_EXTRA_SYRUP) != 0)
+										{
+											price += extraSyrup;
+										}
+										break;
+						case ALCOHOLIC:	if ((flags & PricingEngine.ALCOHOL_WEEKEND) != 0)
+										{
+											price += weekend;
+										}
+										break;
+						case SMOOTHIE:	if ((flags & PricingEngine.SMOOTHIE_PROTEIN) != 0)
+										{
+											price += protein;
+										}
+										price += (flags >>> PricingEngine.SMOOTHIE_FRUIT_SHIFT) * fruit;
+										break;
+					}
+					prices[PricingEngine.index(t, s, flags)] = price;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Method used to build version 0, the built-in prices of the Beverage, Coffee, Smoothie and Alcohol classes
+	 * @return a PricingCatalog, the built-in catalog
+	 */
+	static PricingCatalog builtIn()
+	{
+		return fromProperties(0, new Properties());
+	}
+
+	/**
+	 * Method used to read a catalog file
+	 * @param file the catalog file
+	 * @return a PricingCatalog, the catalog in the file
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the version is missing or not from 1 to MAX_VERSION, or a price is not a non-negative amount
+	 */
+	public static PricingCatalog load(Path file) throws IOException
+	{
+		Properties properties = new Properties();
+		try (Reader in = Files.newBufferedReader(file, StandardCharsets.UTF_8))
+		{
+			properties.load(in);
+		}
+		return parse(properties);
+	}
+
+	/**
+	 * Method used to build a catalog from properties in the catalog file format
+	 * @param properties the version and prices
+	 * @return a PricingCatalog, the catalog
+	 * @throws IllegalArgumentException if the version is missing or not from 1 to MAX_VERSION, or a price is not a non-negative amount
+	 */
+	public static PricingCatalog parse(Properties properties)
+	{
+		String version = properties.getProperty("version");
+		if (version == null)
+		{
+			throw new IllegalArgumentException("pricing catalog has no version");
+		}
+
+		int number;
+		try
+		{
+			number = Integer.parseInt(version.trim());
+		}
+		catch (NumberFormatException e)
+		{
+			throw new IllegalArgumentException("pricing catalog version is not a number: " + version);
+		}
+		if (number <= 0 || number > MAX_VERSION)
+		{
+			throw new IllegalArgumentException("pricing catalog version must be from 1 to " + MAX_VERSION + ": " + number);
+		}
+		return fromProperties(number, properties);
+	}
+
+	/**
+	 * Getter to get the catalog version
+	 * @return an int, the version
+	 */
+	public int getVersion()
+	{
+		return version;
+	}
+
+	/**
+	 * Method used to get the price of a beverage
+	 * @param type the beverage type
+	 * @param size the beverage size
+	 * @param optionFlags the option flags of the beverage, as returned by Beverage.getOptionFlags
+	 * @return an int, the price in cents
+	 */
+	public int priceCents(TYPE type, SIZE size, int optionFlags)
+	{
+		return prices[PricingEngine.index(type.ordinal(), size.ordinal(), optionFlags)];
+	}
+
+	/**
+	 * Method used to get the price of a smoothie, including smoothies with more fruits than the table holds
+	 * @param size the smoothie size
+	 * @param protein whether protein is added
+	 * @param numFruits the number of fruits
+	 * @return an int, the price in cents
+	 */
+	public int smoothieCents(SIZE size, boolean protein, int numFruits)
+	{
+		if (numFruits >= 0 && numFruits <= PricingEngine.MAX_TABLE_FRUITS)
+		{
+			return priceCents(TYPE.SMOOTHIE, size, PricingEngine.smoothieFlags(protein, numFruits));
+		}
+		return priceCents(TYPE.SMOOTHIE, size, PricingEngine.smoothieFlags(protein, 0)) + Math.max(0, numFruits) * fruitCents;
+	}
+
+	/**
+	 * Method used to determine if another catalog has the same prices
+	 * @param other the other catalog
+	 * @return a boolean, whether every price is the same
+	 */
+	public boolean samePrices(PricingCatalog other)
+	{
+		return fruitCents == other.fruitCents && Arrays.equals(prices, other.prices);
+	}
+
+	/**
+	 * Method used to build a catalog from properties, with the built-in price for every price left out
+	 * @param version the catalog version
+	 * @param properties the prices
+	 * @return a PricingCatalog, the catalog
+	 */
+	private static PricingCatalog fromProperties(int version, Properties properties)
+	{
+		int[] sizeCents = {
+			cents(properties, "size.small", Beverage.SMALL_PRICE),
+			cents(properties, "size.medium", Beverage.MEDIUM_PRICE),
+			cents(properties, "size.large", Beverage.LARGE_PRICE)
+		};
+		return new PricingCatalog(version, sizeCents,
+									cents(properties, "coffee.extraShot", Coffee.EXTRA_SHOT_PRICE),
+									cents(properties, "coffee.extraSyrup", Coffee.EXTRA_SYRUP_PRICE),
+									cents(properties, "alcohol.weekend", Alcohol.WEEKENDCHARGE),
+									cents(properties, "smoothie.protein", Smoothie.PROTEIN),
+									cents(properties, "smoothie.fruit", Smoothie.FRUIT));
+	}
+
+	/**
+	 * Method used to read a price in whole cents
+	 * @param properties the prices
+	 * @param key the name of the price
+	 * @param builtIn the price used if it is left out
+	 * @return an int, the price in cents
+	 */
+	private static int cents(Properties properties, String key, double builtIn)
+	{
+		String value = properties.getProperty(key);
+		double price = builtIn;
+		if (value != null)
+		{
+			try
+			{
+				price = Double.parseDouble(value.trim());
+			}
+			catch (NumberFormatException e)
+			{
+				throw new IllegalArgumentException(key + " is not a price: " + value);
+			}
+		}
+		if (!(price >= 0 && price < 1e6))
+		{
+			throw new IllegalArgumentException(key + " must be a price from 0 to 999999.99: " + value);
+		}
+		return (int) Math.round(price * 100);
+	}
+}
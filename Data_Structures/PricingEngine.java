@@ -0,0 +1,270 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Beverage.TYPE;
+
+/**
+ * This class prices beverages from a table of prices in whole cents, indexed by beverage type, size and option
+ * flags, so the price of a beverage is a single array lookup and totals can be summed exactly as longs. The
+ * tables are versioned PricingCatalogs: version 0 holds the prices of the Beverage, Coffee, Smoothie and Alcohol
+ * classes, and newer versions can be loaded from catalog files while the shop is running. Every order records
+ * the version that was current when it was started and is always priced with it.
+ *
+ * Loaded catalogs are kept in a copy-on-write array and the current one in a volatile field, so pricing never
+ * takes a lock; only loading a catalog is synchronized.
+ */
+public class PricingEngine
+{
+	public static final int COFFEE_EXTRA_SHOT = 1;
+	public static final int COFFEE_EXTRA_SYRUP = 2;
+	public static final int ALCOHOL_WEEKEND = 1;
+	public static final int SMOOTHIE_PROTEIN = 1;
+	public static final int SMOOTHIE_FRUIT_SHIFT = 1;
+	public static final int MAX_TABLE_FRUITS = 15;
+
+	private static final int FLAG_BITS = 5;
+	private static final SIZE[] SIZES = SIZE.values();
+	private static final TYPE[] TYPES = TYPE.values();
+
+	/**
+	 * The number of option flag combinations of each type and size in a price table
+	 */
+	static final int FLAG_COMBINATIONS = 1 << FLAG_BITS;
+
+	/**
+	 * The number of entries of a price table
+	 */
+	static final int TABLE_SIZE = TYPES.length * SIZES.length << FLAG_BITS;
+
+	private static final Object loadLock = new Object();
+	private static volatile PricingCatalog[] catalogs = {PricingCatalog.builtIn()};
+	private static volatile PricingCatalog current = catalogs[0];
+
+	/**
+	 * Method used to get the price of a beverage with the current catalog
+	 * @param type the beverage type
+	 * @param size the beverage size
+	 * @param optionFlags the option flags of the beverage, as returned by Beverage.getOptionFlags
+	 * @return an int, the price in cents
+	 */
+	public static int priceCents(TYPE type, SIZE size, int optionFlags)
+	{
+		return current.priceCents(type, size, optionFlags);
+	}
+
+	/**
+	 * Method used to get the price of a beverage with a catalog version
+	 * @param version the catalog version
+	 * @param type the beverage type
+	 * @param size the beverage size
+	 * @param optionFlags the option flags of the beverage, as returned by Beverage.getOptionFlags
+	 * @return an int, the price in cents
+	 * @throws IllegalStateException if the catalog version is not loaded
+	 */
+	public static int priceCents(int version, TYPE type, SIZE size, int optionFlags)
+	{
+		return getCatalog(version).priceCents(type, size, optionFlags);
+	}
+
+	/**
+	 * Method used to get the price of a smoothie with the current catalog, including smoothies with more fruits than the table holds
+	 * @param size the smoothie size
+	 * @param protein whether protein is added
+	 * @param numFruits the number of fruits
+	 * @return an int, the price in cents
+	 */
+	public static int smoothieCents(SIZE size, boolean protein, int numFruits)
+	{
+		return current.smoothieCents(size, protein, numFruits);
+	}
+
+	/**
+	 * Method used to get the price of a smoothie with a catalog version, including smoothies with more fruits than the table holds
+	 * @param version the catalog version
+	 * @param size the smoothie size
+	 * @param protein whether protein is added
+	 * @param numFruits the number of fruits
+	 * @return an int, the price in cents
+	 * @throws IllegalStateException if the catalog version is not loaded
+	 */
+	public static int smoothieCents(int version, SIZE size, boolean protein, int numFruits)
+	{
+		return getCatalog(version).smoothieCents(size, protein, numFruits);
+	}
+
+	/**
+	 * Getter to get the current catalog, the one new orders are priced with
+	 * @return a PricingCatalog, the current catalog
+	 */
+	public static PricingCatalog getCatalog()
+	{
+		return current;
+	}
+
+	/**
+	 * Getter to get the version of the current catalog
+	 * @return an int, the current version
+	 */
+	public static int currentVersion()
+	{
+		return current.getVersion();
+	}
+
+	/**
+	 * Method used to get a loaded catalog
+	 * @param version the catalog version
+	 * @return a PricingCatalog, the catalog
+	 * @throws IllegalStateException if the catalog version is not loaded
+	 */
+	public static PricingCatalog getCatalog(int version)
+	{
+		PricingCatalog catalog = current;
+		if (catalog.getVersion() == version)
+		{
+			return catalog;
+		}
+
+		PricingCatalog[] loaded = catalogs;
+		int i = find(loaded, version);
+		if (i < 0)
+		{
+			throw new IllegalStateException("pricing catalog version " + version + " is not loaded");
+		}
+		return loaded[i];
+	}
+
+	/**
+	 * Method used to load a catalog. The catalog with the highest version becomes the current one, so loading a newer
+	 * catalog swaps the prices of new orders in one step, and older catalogs can be loaded again after a restart to price
+	 * the orders that used them. Loading a version again with the same prices does nothing
+	 * @param catalog the catalog
+	 * @throws IllegalArgumentException if the version is already loaded with different prices
+	 */
+	public static void load(PricingCatalog catalog)
+	{
+		synchronized (loadLock)
+		{
+			PricingCatalog[] loaded = catalogs;
+			int i = find(loaded, catalog.getVersion());
+			if (i >= 0)
+			{
+				if (!loaded[i].samePrices(catalog))
+				{
+					throw new IllegalArgumentException("pricing catalog version " + catalog.getVersion() + " is already loaded with different prices");
+				}
+				return;
+			}
+
+			int at = -i - 1;
+			PricingCatalog[] updated = new PricingCatalog[loaded.length + 1];
+			System.arraycopy(loaded, 0, updated, 0, at);
+			updated[at] = catalog;
+			System.arraycopy(loaded, at, updated, at + 1, loaded.length - at);
+			catalogs = updated;
+			current = updated[updated.length - 1];
+		}
+	}
+
+	/**
+	 * Method used to load a catalog file
+	 * @param file the catalog file
+	 * @return a PricingCatalog, the loaded catalog
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if the file is not a valid catalog, or its version is already loaded with different prices
+	 */
+	public static PricingCatalog reload(Path file) throws IOException
+	{
+		PricingCatalog catalog = PricingCatalog.load(file);
+		load(catalog);
+		return catalog;
+	}
+
+	/**
+	 * Method used to build the option flags of a coffee
+	 * @param extraShot whether the coffee has an extra shot
+	 * @param extraSyrup whether the coffee has extra syrup
+	 * @return an int, the option flags
+	 */
+	public static int coffeeFlags(boolean extraShot, boolean extraSyrup)
+	{
+		return (extraShot ? COFFEE_EXTRA_SHOT : 0) | (extraSyrup ? COFFEE_EXTRA_SYRUP : 0);
+	}
+
+	/**
+	 * Method used to build the option flags of an alcoholic drink
+	 * @param weekend whether the drink is ordered on the weekend
+	 * @return an int, the option flags
+	 */
+	public static int alcoholFlags(boolean weekend)
+	{
+		return weekend ? ALCOHOL_WEEKEND : 0;
+	}
+
+	/**
+	 * Method used to build the option flags of a smoothie, the number of fruits is capped at the table size
+	 * @param protein whether protein is added
+	 * @param numFruits the number of fruits
+	 * @return an int, the option flags
+	 */
+	public static int smoothieFlags(boolean protein, int numFruits)
+	{
+		int fruits = Math.max(0, Math.min(numFruits, MAX_TABLE_FRUITS));
+		return (protein ? SMOOTHIE_PROTEIN : 0) | (fruits << SMOOTHIE_FRUIT_SHIFT);
+	}
+
+	/**
+	 * Method used to convert cents to a price
+	 * @param cents the amount in cents
+	 * @return a double, the amount as a price
+	 */
+	public static double toPrice(long cents)
+	{
+		return cents / 100.0;
+	}
+
+	/**
+	 * Method used to find the table entry of a type, size and option flags
+	 * @return an int, the position in the price table
+	 */
+	static int index(int type, int size, int optionFlags)
+	{
+		return ((type * SIZES.length + size) << FLAG_BITS) | (optionFlags & ((1 << FLAG_BITS) - 1));
+	}
+
+	/**
+	 * Method used to find a catalog version in the loaded catalogs, which are sorted by version
+	 * @param loaded the loaded catalogs
+	 * @param version the catalog version
+	 * @return an int, the position of the catalog, or -(insertion point) - 1 if it is not loaded
+	 */
+	private static int find(PricingCatalog[] loaded, int version)
+	{
+		int low = 0;
+		int high = loaded.length - 1;
+		while (low <= high)
+		{
+			int mid = (low + high) >>> 1;
+			int v = loaded[mid].getVersion();
+			if (v < version)
+			{
+				low = mid + 1;
+			}
+			else if (v > version)
+			{
+				high = mid - 1;
+			}
+			else
+			{
+				return mid;
+			}
+		}
+		return -(low + 1);
+	}
+}
@@ -0,0 +1,297 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.nio.ByteBuffer;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Beverage.TYPE;
+import Data_Structures.Order.DAY;
+import Interfaces.BevShopInterface;
+
+/**
+ * This class represents a dense cube of sales indexed by order day, order hour (MIN_TIME to MAX_TIME),
+ * beverage type and beverage size. Every axis has one extra "all" slot holding the sum over the axis, and
+ * each beverage is added to all 16 combinations of its own and the "all" slots, so any cell or rollup
+ * (revenue for Saturday 17:00, all smoothies on Sunday, every large drink) is one array read. Orders have
+ * no type or size, so they are counted in a smaller day by hour cube. Orders taken outside the opening
+ * hours only count towards ALL_HOURS.
+ */
+public class RevenueCube
+{
+	public static final int ALL_HOURS = -1;
+
+	private static final int HOURS = BevShopInterface.MAX_TIME - BevShopInterface.MIN_TIME + 1;
+	private static final int DAY_SLOTS = DAY.values().length + 1;
+	private static final int HOUR_SLOTS = HOURS + 1;
+	private static final int TYPE_SLOTS = TYPE.values().length + 1;
+	private static final int SIZE_SLOTS = SIZE.values().length + 1;
+
+	private static final int SIZE_STRIDE = 1;
+	private static final int TYPE_STRIDE = SIZE_SLOTS;
+	private static final int HOUR_STRIDE = TYPE_SLOTS * TYPE_STRIDE;
+	private static final int DAY_STRIDE = HOUR_SLOTS * HOUR_STRIDE;
+	private static final int CELLS = DAY_SLOTS * DAY_STRIDE;
+	private static final int ORDER_CELLS = DAY_SLOTS * HOUR_SLOTS;
+
+	/**
+	 * The number of bytes write and add use for a cube
+	 */
+	static final int BYTES = 8 * (2 * CELLS + ORDER_CELLS);
+
+	private final long[] cents = new long[CELLS];
+	private final long[] items = new long[CELLS];
+	private final long[] orders = new long[ORDER_CELLS];
+
+	/**
+	 * Method used to count an order
+	 * @param day the order day
+	 * @param time the order time
+	 */
+	public void addOrder(DAY day, int time)
+	{
+		int d = day.ordinal();
+		int h = hourSlot(time);
+		int allD = DAY_SLOTS - 1;
+		int allH = HOUR_SLOTS - 1;
+
+		orders[d * HOUR_SLOTS + h]++;
+		orders[allD * HOUR_SLOTS + h]++;
+		if (h != allH)
+		{
+			orders[d * HOUR_SLOTS + allH]++;
+			orders[allD * HOUR_SLOTS + allH]++;
+		}
+	}
+
+	/**
+	 * Method used to add a beverage to every cell it belongs to
+	 * @param day the order day
+	 * @param time the order time
+	 * @param type the beverage type
+	 * @param size the beverage size
+	 * @param priceCents the beverage price in cents
+	 */
+	public void addBeverage(DAY day, int time, TYPE type, SIZE size, int priceCents)
+	{
+		int d0 = day.ordinal() * DAY_STRIDE;
+		int d1 = (DAY_SLOTS - 1) * DAY_STRIDE;
+		int h0 = hourSlot(time) * HOUR_STRIDE;
+		int h1 = (HOUR_SLOTS - 1) * HOUR_STRIDE;
+		int t0 = type.ordinal() * TYPE_STRIDE;
+		int s0 = size.ordinal() * SIZE_STRIDE;
+
+		addCells(d0 + h0 + t0, s0, priceCents);
+		addCells(d1 + h0 + t0, s0, priceCents);
+		if (h0 != h1)
+		{
+			addCells(d0 + h1 + t0, s0, priceCents);
+			addCells(d1 + h1 + t0, s0, priceCents);
+		}
+	}
+
+	/**
+	 * Method used to add a beverage to the four cells of a day and hour slot that hold its type or every type,
+	 * and its size or every size
+	 * @param base the cell of the day and hour slot and the beverage type
+	 * @param s0 the offset of the beverage size
+	 * @param priceCents the beverage price in cents
+	 */
+	private void addCells(int base, int s0, int priceCents)
+	{
+		int allTypes = base - base % HOUR_STRIDE + (TYPE_SLOTS - 1) * TYPE_STRIDE;
+		int allSizes = (SIZE_SLOTS - 1) * SIZE_STRIDE;
+
+		cents[base + s0] += priceCents;
+		cents[base + allSizes] += priceCents;
+		cents[allTypes + s0] += priceCents;
+		cents[allTypes + allSizes] += priceCents;
+		items[base + s0]++;
+		items[base + allSizes]++;
+		items[allTypes + s0]++;
+		items[allTypes + allSizes]++;
+	}
+
+	/**
+	 * Method used to get the revenue of a cell or rollup in cents
+	 * @param day the order day, or null for every day
+	 * @param hour the order hour, or ALL_HOURS for every hour
+	 * @param type the beverage type, or null for every type
+	 * @param size the beverage size, or null for every size
+	 * @return a long, the revenue in cents
+	 */
+	public long getRevenueCents(DAY day, int hour, TYPE type, SIZE size)
+	{
+		return cents[cell(day, hour, type, size)];
+	}
+
+	/**
+	 * Method used to get the revenue of a cell or rollup
+	 * @param day the order day, or null for every day
+	 * @param hour the order hour, or ALL_HOURS for every hour
+	 * @param type the beverage type, or null for every type
+	 * @param size the beverage size, or null for every size
+	 * @return a double, the revenue
+	 */
+	public double getRevenue(DAY day, int hour, TYPE type, SIZE size)
+	{
+		return PricingEngine.toPrice(getRevenueCents(day, hour, type, size));
+	}
+
+	/**
+	 * Method used to get the number of beverages of a cell or rollup
+	 * @param day the order day, or null for every day
+	 * @param hour the order hour, or ALL_HOURS for every hour
+	 * @param type the beverage type, or null for every type
+	 * @param size the beverage size, or null for every size
+	 * @return a long, the number of beverages
+	 */
+	public long getItemCount(DAY day, int hour, TYPE type, SIZE size)
+	{
+		return items[cell(day, hour, type, size)];
+	}
+
+	/**
+	 * Method used to get the number of orders of a day and hour
+	 * @param day the order day, or null for every day
+	 * @param hour the order hour, or ALL_HOURS for every hour
+	 * @return a long, the number of orders
+	 */
+	public long getOrderCount(DAY day, int hour)
+	{
+		int d = day == null ? DAY_SLOTS - 1 : day.ordinal();
+		return orders[d * HOUR_SLOTS + querySlot(hour)];
+	}
+
+	/**
+	 * Method used to find the hour with the most orders on a day
+	 * @param day the order day, or null for every day
+	 * @return an int, the busiest hour (the earliest on a tie), or -1 if there are no orders in the opening hours
+	 */
+	public int getBusiestHour(DAY day)
+	{
+		int d = day == null ? DAY_SLOTS - 1 : day.ordinal();
+		int busiest = -1;
+		long most = 0;
+
+		for (int h = 0; h < HOURS; h++)
+		{
+			long count = orders[d * HOUR_SLOTS + h];
+			if (count > most)
+			{
+				most = count;
+				busiest = BevShopInterface.MIN_TIME + h;
+			}
+		}
+		return busiest;
+	}
+
+	/**
+	 * Method used to find the hour with the most revenue on a day
+	 * @param day the order day, or null for every day
+	 * @return an int, the hour with the most revenue (the earliest on a tie), or -1 if there are no sales in the opening hours
+	 */
+	public int getBestSellingHour(DAY day)
+	{
+		int busiest = -1;
+		long most = 0;
+
+		for (int h = 0; h < HOURS; h++)
+		{
+			long revenue = getRevenueCents(day, BevShopInterface.MIN_TIME + h, null, null);
+			if (revenue > most)
+			{
+				most = revenue;
+				busiest = BevShopInterface.MIN_TIME + h;
+			}
+		}
+		return busiest;
+	}
+
+	/**
+	 * Method used to write the cube, used by snapshots
+	 * @param out the buffer the cube is written to
+	 * @param offset the position of the cube in the buffer
+	 */
+	void write(ByteBuffer out, int offset)
+	{
+		for (int i = 0; i < CELLS; i++)
+		{
+			out.putLong(offset + 8 * i, cents[i]);
+			out.putLong(offset + 8 * (CELLS + i), items[i]);
+		}
+		for (int i = 0; i < ORDER_CELLS; i++)
+		{
+			out.putLong(offset + 8 * (2 * CELLS + i), orders[i]);
+		}
+	}
+
+	/**
+	 * Method used to add a cube written by write to this one, used when a shop is restored from a snapshot
+	 * @param in the buffer the cube is read from
+	 * @param offset the position of the cube in the buffer
+	 */
+	void add(ByteBuffer in, int offset)
+	{
+		for (int i = 0; i < CELLS; i++)
+		{
+			cents[i] += in.getLong(offset + 8 * i);
+			items[i] += in.getLong(offset + 8 * (CELLS + i));
+		}
+		for (int i = 0; i < ORDER_CELLS; i++)
+		{
+			orders[i] += in.getLong(offset + 8 * (2 * CELLS + i));
+		}
+	}
+
+	/**
+	 * Method used to get the cell of a query
+	 * @param day the order day, or null for every day
+	 * @param hour the order hour, or ALL_HOURS for every hour
+	 * @param type the beverage type, or null for every type
+	 * @param size the beverage size, or null for every size
+	 * @return an int, the cell
+	 */
+	private static int cell(DAY day, int hour, TYPE type, SIZE size)
+	{
+		return (day == null ? DAY_SLOTS - 1 : day.ordinal()) * DAY_STRIDE
+				+ querySlot(hour) * HOUR_STRIDE
+				+ (type == null ? TYPE_SLOTS - 1 : type.ordinal()) * TYPE_STRIDE
+				+ (size == null ? SIZE_SLOTS - 1 : size.ordinal()) * SIZE_STRIDE;
+	}
+
+	/**
+	 * Method used to get the hour slot of a query
+	 * @param hour the order hour, or ALL_HOURS for every hour
+	 * @return an int, the hour slot
+	 */
+	private static int querySlot(int hour)
+	{
+		if (hour == ALL_HOURS)
+		{
+			return HOUR_SLOTS - 1;
+		}
+		if (hour < BevShopInterface.MIN_TIME || hour > BevShopInterface.MAX_TIME)
+		{
+			throw new IllegalArgumentException("hour must be from " + BevShopInterface.MIN_TIME + " to "
+												+ BevShopInterface.MAX_TIME + " or ALL_HOURS: " + hour);
+		}
+		return hour - BevShopInterface.MIN_TIME;
+	}
+
+	/**
+	 * Method used to get the hour slot an order time is added to
+	 * @param time the order time
+	 * @return an int, the hour slot, the "all" slot for times outside the opening hours
+	 */
+	private static int hourSlot(int time)
+	{
+		if (time < BevShopInterface.MIN_TIME || time > BevShopInterface.MAX_TIME)
+		{
+			return HOUR_SLOTS - 1;
+		}
+		return time - BevShopInterface.MIN_TIME;
+	}
+}
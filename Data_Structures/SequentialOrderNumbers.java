@@ -0,0 +1,61 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import Interfaces.OrderNumberGeneratorInterface;
+
+/**
+ * This class hands out order numbers in sequence within a range, starting over at the beginning of the
+ * range once every number has been used. It is thread safe and does not allocate per call.
+ */
+public class SequentialOrderNumbers implements OrderNumberGeneratorInterface
+{
+	private final int first;
+	private final long span;
+	private final AtomicLong counter = new AtomicLong();
+
+	/**
+	 * Standard constructor to build a sequence over the shop's 10000 to 89999 order number range
+	 */
+	public SequentialOrderNumbers()
+	{
+		this(PermutedOrderNumbers.FIRST_ORDER_NUMBER, PermutedOrderNumbers.LAST_ORDER_NUMBER);
+	}
+
+	/**
+	 * Constructor to build a sequence over a range of order numbers
+	 * @param first the first order number, handed out first
+	 * @param last the last order number of the range
+	 */
+	public SequentialOrderNumbers(int first, int last)
+	{
+		if (last < first)
+		{
+			throw new IllegalArgumentException("empty order number range: " + first + " to " + last);
+		}
+		this.first = first;
+		this.span = (long) last - first + 1;
+	}
+
+	/**
+	 * Method used to get the next order number in the sequence
+	 * @return an int, the next order number
+	 */
+	public int nextOrderNumber()
+	{
+		return (int) (first + counter.getAndIncrement() % span);
+	}
+
+	/**
+	 * Method used to get the number of order numbers handed out before the sequence starts over
+	 * @return a long, the size of the range
+	 */
+	public long period()
+	{
+		return span;
+	}
+}
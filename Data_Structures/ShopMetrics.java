@@ -0,0 +1,392 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import Interfaces.ShopMetricsMXBean;
+
+/**
+ * This class represents the built-in metrics of a shop: for each timed operation, a LongAdder counting its calls
+ * and a LatencyHistogram of how long they took. A shop brackets each operation with start and stop, which cost two
+ * reads of System.nanoTime() and no allocation, so the metrics can stay on at peak load; an operation that is
+ * switched off costs one volatile read. Every operation is timed until it is switched off.
+ *
+ * The metrics can be read directly, registered as an MXBean to be read over JMX, or written in the plain-text
+ * exposition format used by Prometheus-style scrapers.
+ */
+public class ShopMetrics implements ShopMetricsMXBean
+{
+	public enum OPERATION {START_ORDER, PROCESS_COFFEE, PROCESS_ALCOHOL, PROCESS_SMOOTHIE, PROCESS_ORDER, PROCESS_ORDERS,
+							FIND_ORDER, SORT_ORDERS, TOTAL_MONTHLY_SALE}
+
+	/**
+	 * The start time returned by start when the operation is not timed
+	 */
+	public static final long DISABLED = Long.MIN_VALUE;
+
+	private static final OPERATION[] OPERATIONS = OPERATION.values();
+	private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+	private final LongAdder[] calls = new LongAdder[OPERATIONS.length];
+	private final LatencyHistogram[] latencies = new LatencyHistogram[OPERATIONS.length];
+	private volatile int enabled = (1 << OPERATIONS.length) - 1;
+	private ObjectName objectName;
+
+	/**
+	 * Standard constructor to build ShopMetrics with every operation timed
+	 */
+	public ShopMetrics()
+	{
+		for (int i = 0; i < OPERATIONS.length; i++)
+		{
+			calls[i] = new LongAdder();
+			latencies[i] = new LatencyHistogram();
+		}
+	}
+
+	/**
+	 * Method used when an operation starts
+	 * @param operation the operation
+	 * @return a long, the start time to pass to stop, or DISABLED if the operation is not timed
+	 */
+	public long start(OPERATION operation)
+	{
+		return (enabled & (1 << operation.ordinal())) != 0 ? System.nanoTime() : DISABLED;
+	}
+
+	/**
+	 * Method used when an operation ends, counting the call and recording how long it took
+	 * @param operation the operation
+	 * @param start the start time returned by start
+	 */
+	public void stop(OPERATION operation, long start)
+	{
+		if (start != DISABLED)
+		{
+			long nanos = System.nanoTime() - start;
+			calls[operation.ordinal()].increment();
+			latencies[operation.ordinal()].record(nanos);
+		}
+	}
+
+	/**
+	 * Method used to determine if an operation is timed
+	 * @param operation the operation
+	 * @return a boolean, whether the operation is timed
+	 */
+	public boolean isEnabled(OPERATION operation)
+	{
+		return (enabled & (1 << operation.ordinal())) != 0;
+	}
+
+	/**
+	 * Setter to turn timing of an operation on or off; what was recorded so far is kept
+	 * @param operation the operation
+	 * @param on whether the operation is timed
+	 */
+	public synchronized void setEnabled(OPERATION operation, boolean on)
+	{
+		int bit = 1 << operation.ordinal();
+		enabled = on ? enabled | bit : enabled & ~bit;
+	}
+
+	/**
+	 * Setter to turn timing of every operation on or off
+	 * @param on whether the operations are timed
+	 */
+	public synchronized void setAllEnabled(boolean on)
+	{
+		enabled = on ? (1 << OPERATIONS.length) - 1 : 0;
+	}
+
+	/**
+	 * Getter to get the number of calls of an operation that were timed
+	 * @param operation the operation
+	 * @return a long, the number of calls
+	 */
+	public long getCalls(OPERATION operation)
+	{
+		return calls[operation.ordinal()].sum();
+	}
+
+	/**
+	 * Getter to get the latency histogram of an operation
+	 * @param operation the operation
+	 * @return a LatencyHistogram, the latencies in nanoseconds
+	 */
+	public LatencyHistogram getLatencies(OPERATION operation)
+	{
+		return latencies[operation.ordinal()];
+	}
+
+	/**
+	 * Method used to register these metrics with the platform MBean server, so they can be read over JMX
+	 * @param name the name of the shop, used in the object name bevshop:type=ShopMetrics,name=...
+	 * @return an ObjectName, the name the metrics are registered under
+	 * @throws IllegalStateException if the metrics are already registered or the name is taken
+	 */
+	public synchronized ObjectName register(String name)
+	{
+		if (objectName != null)
+		{
+			throw new IllegalStateException("metrics are already registered as " + objectName);
+		}
+
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try
+		{
+			ObjectName registered = new ObjectName("bevshop:type=ShopMetrics,name=" + ObjectName.quote(name));
+			server.registerMBean(this, registered);
+			objectName = registered;
+			return registered;
+		}
+		catch (JMException e)
+		{
+			throw new IllegalStateException("metrics cannot be registered as " + name, e);
+		}
+	}
+
+	/**
+	 * Method used to remove these metrics from the platform MBean server, if they are registered
+	 */
+	public synchronized void unregister()
+	{
+		if (objectName == null)
+		{
+			return;
+		}
+
+		try
+		{
+			ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+		}
+		catch (JMException e)
+		{
+			throw new IllegalStateException("metrics cannot be unregistered from " + objectName, e);
+		}
+		objectName = null;
+	}
+
+	/**
+	 * Method used to write the metrics in the plain-text exposition format: a counter of calls, a summary of
+	 * latencies with the 50th, 90th, 99th and 99.9th percentiles, and the maximum latency of each operation,
+	 * in seconds
+	 * @param out the output the metrics are written to
+	 * @throws IOException if the output cannot be written
+	 */
+	public void writeText(Appendable out) throws IOException
+	{
+		out.append("# HELP bevshop_operation_calls_total Number of shop operations timed.\n");
+		out.append("# TYPE bevshop_operation_calls_total counter\n");
+		for (OPERATION operation : OPERATIONS)
+		{
+			sample(out, "bevshop_operation_calls_total", operation, null, Long.toString(getCalls(operation)));
+		}
+
+		out.append("# HELP bevshop_operation_latency_seconds Latency of shop operations.\n");
+		out.append("# TYPE bevshop_operation_latency_seconds summary\n");
+		for (OPERATION operation : OPERATIONS)
+		{
+			LatencyHistogram histogram = getLatencies(operation);
+			for (double quantile : QUANTILES)
+			{
+				sample(out, "bevshop_operation_latency_seconds", operation, Double.toString(quantile),
+						seconds(histogram.getPercentile(quantile * 100)));
+			}
+			sample(out, "bevshop_operation_latency_seconds_sum", operation, null, seconds(histogram.getSum()));
+			sample(out, "bevshop_operation_latency_seconds_count", operation, null, Long.toString(histogram.getCount()));
+		}
+
+		out.append("# HELP bevshop_operation_latency_max_seconds Largest latency of shop operations.\n");
+		out.append("# TYPE bevshop_operation_latency_max_seconds gauge\n");
+		for (OPERATION operation : OPERATIONS)
+		{
+			sample(out, "bevshop_operation_latency_max_seconds", operation, null, seconds(getLatencies(operation).getMax()));
+		}
+
+		out.append("# HELP bevshop_operation_enabled Whether a shop operation is timed.\n");
+		out.append("# TYPE bevshop_operation_enabled gauge\n");
+		for (OPERATION operation : OPERATIONS)
+		{
+			sample(out, "bevshop_operation_enabled", operation, null, isEnabled(operation) ? "1" : "0");
+		}
+	}
+
+	/**
+	 * Getter to get the metrics in the plain-text exposition format
+	 * @return a String, the scrape output
+	 */
+	@Override
+	public String getScrape()
+	{
+		StringBuilder text = new StringBuilder(4096);
+		try
+		{
+			writeText(text);
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Getter to get the number of calls timed for each operation
+	 * @return a Map, the number of calls by operation name
+	 */
+	@Override
+	public Map<String, Long> getCalls()
+	{
+		Map<String, Long> values = new LinkedHashMap<String, Long>();
+		for (OPERATION operation : OPERATIONS)
+		{
+			values.put(operation.name(), getCalls(operation));
+		}
+		return values;
+	}
+
+	/**
+	 * Getter to get the mean latency of each operation
+	 * @return a Map, the mean latency in nanoseconds by operation name
+	 */
+	@Override
+	public Map<String, Long> getMeanNanos()
+	{
+		Map<String, Long> values = new LinkedHashMap<String, Long>();
+		for (OPERATION operation : OPERATIONS)
+		{
+			values.put(operation.name(), Math.round(getLatencies(operation).getMean()));
+		}
+		return values;
+	}
+
+	/**
+	 * Getter to get the median latency of each operation
+	 * @return a Map, the 50th percentile in nanoseconds by operation name
+	 */
+	@Override
+	public Map<String, Long> getP50Nanos()
+	{
+		return percentiles(50);
+	}
+
+	/**
+	 * Getter to get the 99th percentile latency of each operation
+	 * @return a Map, the 99th percentile in nanoseconds by operation name
+	 */
+	@Override
+	public Map<String, Long> getP99Nanos()
+	{
+		return percentiles(99);
+	}
+
+	/**
+	 * Getter to get the largest latency of each operation
+	 * @return a Map, the maximum latency in nanoseconds by operation name
+	 */
+	@Override
+	public Map<String, Long> getMaxNanos()
+	{
+		Map<String, Long> values = new LinkedHashMap<String, Long>();
+		for (OPERATION operation : OPERATIONS)
+		{
+			values.put(operation.name(), getLatencies(operation).getMax());
+		}
+		return values;
+	}
+
+	/**
+	 * Method used to determine if an operation is timed, by name
+	 * @param operation the operation name, such as START_ORDER
+	 * @return a boolean, whether the operation is timed
+	 * @throws IllegalArgumentException if there is no operation by that name
+	 */
+	@Override
+	public boolean isEnabled(String operation)
+	{
+		return isEnabled(OPERATION.valueOf(operation));
+	}
+
+	/**
+	 * Setter to turn timing of an operation on or off, by name
+	 * @param operation the operation name, such as START_ORDER
+	 * @param on whether the operation is timed
+	 * @throws IllegalArgumentException if there is no operation by that name
+	 */
+	@Override
+	public void setEnabled(String operation, boolean on)
+	{
+		setEnabled(OPERATION.valueOf(operation), on);
+	}
+
+	/**
+	 * Method used to forget every call and latency recorded. Calls that end while the metrics are being reset may be kept or dropped
+	 */
+	@Override
+	public void reset()
+	{
+		for (int i = 0; i < OPERATIONS.length; i++)
+		{
+			calls[i].reset();
+			latencies[i].reset();
+		}
+	}
+
+	/**
+	 * Method used to get a percentile of the latency of every operation
+	 * @param percentile the percentile, from 0 to 100
+	 * @return a Map, the percentile in nanoseconds by operation name
+	 */
+	private Map<String, Long> percentiles(double percentile)
+	{
+		Map<String, Long> values = new LinkedHashMap<String, Long>();
+		for (OPERATION operation : OPERATIONS)
+		{
+			values.put(operation.name(), getLatencies(operation).getPercentile(percentile));
+		}
+		return values;
+	}
+
+	/**
+	 * Method used to write one sample line of the exposition format
+	 * @param out the output the sample is written to
+	 * @param metric the metric name
+	 * @param operation the operation, written as the operation label
+	 * @param quantile the quantile label, or null for none
+	 * @param value the sample value
+	 * @throws IOException if the output cannot be written
+	 */
+	private static void sample(Appendable out, String metric, OPERATION operation, String quantile, String value) throws IOException
+	{
+		out.append(metric).append("{operation=\"").append(operation.name().toLowerCase(Locale.ROOT)).append('"');
+		if (quantile != null)
+		{
+			out.append(",quantile=\"").append(quantile).append('"');
+		}
+		out.append("} ").append(value).append('\n');
+	}
+
+	/**
+	 * Method used to convert nanoseconds to seconds for the exposition format
+	 * @param nanos the time in nanoseconds
+	 * @return a String, the time in seconds
+	 */
+	private static String seconds(long nanos)
+	{
+		return Double.toString(nanos / 1e9);
+	}
+}
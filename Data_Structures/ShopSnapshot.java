@@ -0,0 +1,361 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import Data_Structures.Beverage.TYPE;
+import Data_Structures.Order.DAY;
+
+/**
+ * This class represents a point-in-time snapshot of a shop's orders in a single file, read through a
+ * read-only memory map. Besides the orders, encoded with OrderCodec, the file holds everything a shop
+ * derives from them: the position of each order, an open-addressing index from order number to order,
+ * the revenue, beverage counts and sales per day, and the revenue cube. Opening a snapshot only maps the
+ * file and checks its header, so a shop restored from one answers lookups and totals right away, paging
+ * in only the orders it actually reads.
+ *
+ * Layout (big-endian): magic, version, order count, index capacity, revenue in cents, beverage count per
+ * TYPE, cents per DAY, the RevenueCube, then the record position of each order, then the index as
+ * (order number, order) pairs with -1 marking an empty slot, then the encoded orders.
+ */
+public class ShopSnapshot
+{
+	private static final int MAGIC = 0x42565331;
+	private static final int VERSION = 4;
+	private static final int COUNTS_OFFSET = 24;
+	private static final int DAYS_OFFSET = 40;
+	private static final int CUBE_OFFSET = DAYS_OFFSET + 8 * 7;
+	private static final int HEADER_SIZE = CUBE_OFFSET + RevenueCube.BYTES;
+	private static final int EMPTY = -1;
+
+	private static final TYPE[] TYPES = TYPE.values();
+	private static final DAY[] DAYS = DAY.values();
+
+	private final Path file;
+	private final ByteBuffer map;
+	private final int size;
+	private final int indexMask;
+	private final int indexOffset;
+
+	/**
+	 * Constructor used by open to wrap a mapped snapshot
+	 * @param file the snapshot file
+	 * @param map the mapped file
+	 */
+	private ShopSnapshot(Path file, ByteBuffer map)
+	{
+		this.file = file;
+		this.map = map;
+		this.size = map.getInt(8);
+		this.indexMask = map.getInt(12) - 1;
+		this.indexOffset = HEADER_SIZE + 4 * size;
+	}
+
+	/**
+	 * Method used to write a snapshot of orders to a file. The snapshot is written to a temporary file next to
+	 * the target and moved over it once it is on disk, so a crash never leaves a half-written snapshot
+	 * @param orders the orders, in the order they are listed by the shop
+	 * @param file the snapshot file
+	 * @throws IOException if the file cannot be written, or the snapshot would be larger than 2 GB
+	 */
+	public static void write(List<Order> orders, Path file) throws IOException
+	{
+		int n = orders.size();
+		int capacity = Integer.highestOneBit(Math.max(1, n) * 2 - 1) << 1;
+		long recordsOffset = HEADER_SIZE + 4L * n + 8L * capacity;
+		long length = recordsOffset;
+		for (int i = 0; i < n; i++)
+		{
+			length += OrderCodec.encodedLength(orders.get(i));
+		}
+		if (length > Integer.MAX_VALUE)
+		{
+			throw new IOException("snapshot is too large to map: " + length + " bytes");
+		}
+
+		Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+		try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+													StandardOpenOption.READ, StandardOpenOption.WRITE))
+		{
+			MappedByteBuffer out = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+			long revenue = 0;
+			long[] centsByDay = new long[DAYS.length];
+			int[] beverageCounts = new int[TYPES.length];
+			RevenueCube cube = new RevenueCube();
+
+			for (int i = 0; i < capacity; i++)
+			{
+				out.putInt(indexOffset(n, i), 0);
+				out.putInt(indexOffset(n, i) + 4, EMPTY);
+			}
+
+			out.position((int) recordsOffset);
+			for (int i = 0; i < n; i++)
+			{
+				Order order = orders.get(i);
+				long cents = order.calcOrderTotalCents();
+				revenue += cents;
+				centsByDay[order.getOrderDay().ordinal()] += cents;
+				cube.addOrder(order.getOrderDay(), order.getOrderTime());
+				for (int j = 0; j < order.getTotalItems(); j++)
+				{
+					Beverage bev = order.getBeverage(j);
+					beverageCounts[bev.getType().ordinal()]++;
+					cube.addBeverage(order.getOrderDay(), order.getOrderTime(), bev.getType(), bev.getSize(), bev.calcPriceCents());
+				}
+
+				out.putInt(HEADER_SIZE + 4 * i, out.position());
+				putIndex(out, n, capacity - 1, order.getOrderNumber(), i);
+				OrderCodec.encode(order, out);
+			}
+
+			out.putInt(0, MAGIC);
+			out.putInt(4, VERSION);
+			out.putInt(8, n);
+			out.putInt(12, capacity);
+			out.putLong(16, revenue);
+			for (int i = 0; i < TYPES.length; i++)
+			{
+				out.putInt(COUNTS_OFFSET + 4 * i, beverageCounts[i]);
+			}
+			for (int i = 0; i < DAYS.length; i++)
+			{
+				out.putLong(DAYS_OFFSET + 8 * i, centsByDay[i]);
+			}
+			cube.write(out, CUBE_OFFSET);
+			out.force();
+		}
+		Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * Method used to open a snapshot by mapping its file
+	 * @param file the snapshot file
+	 * @return a ShopSnapshot, the opened snapshot
+	 * @throws IOException if the file cannot be mapped or is not a shop snapshot
+	 */
+	public static ShopSnapshot open(Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			long length = channel.size();
+			if (length < HEADER_SIZE || length > Integer.MAX_VALUE)
+			{
+				throw new IOException("not a shop snapshot: " + length + " bytes");
+			}
+
+			MappedByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+			if (map.getInt(0) != MAGIC)
+			{
+				throw new IOException("not a shop snapshot: bad magic number");
+			}
+			if (map.getInt(4) != VERSION)
+			{
+				throw new IOException("unsupported shop snapshot version: " + map.getInt(4));
+			}
+
+			int n = map.getInt(8);
+			int capacity = map.getInt(12);
+			if (n < 0 || capacity <= 0 || Integer.bitCount(capacity) != 1 || HEADER_SIZE + 4L * n + 8L * capacity > length)
+			{
+				throw new IOException("corrupt shop snapshot header");
+			}
+			return new ShopSnapshot(file, map);
+		}
+	}
+
+	/**
+	 * Getter to get the file of the snapshot
+	 * @return a Path, the snapshot file
+	 */
+	public Path getFile()
+	{
+		return file;
+	}
+
+	/**
+	 * Getter to get the number of orders in the snapshot
+	 * @return an int, the number of orders
+	 */
+	public int size()
+	{
+		return size;
+	}
+
+	/**
+	 * Method used to find an order in the snapshot via order number
+	 * @param orderNo the order number
+	 * @return an int, the index of the order, or -1 if it is not in the snapshot
+	 */
+	public int find(int orderNo)
+	{
+		int i = OrderIndex.mix(orderNo) & indexMask;
+		int slot;
+		while ((slot = map.getInt(indexOffset + 8 * i + 4)) != EMPTY)
+		{
+			if (map.getInt(indexOffset + 8 * i) == orderNo)
+			{
+				return slot;
+			}
+			i = (i + 1) & indexMask;
+		}
+		return EMPTY;
+	}
+
+	/**
+	 * Method used to decode an order of the snapshot into a new Order
+	 * @param index the index of the order
+	 * @return an Order, the decoded order
+	 */
+	public Order getOrder(int index)
+	{
+		ByteBuffer in = map.duplicate();
+		in.position(recordOffset(index));
+		return OrderCodec.decode(in);
+	}
+
+	/**
+	 * Method used to point a flyweight at an order of the snapshot, without decoding it
+	 * @param index the index of the order
+	 * @param into the flyweight to point at the order
+	 * @return the order flyweight
+	 */
+	public OrderFlyweight getOrder(int index, OrderFlyweight into)
+	{
+		return into.wrap(map, recordOffset(index));
+	}
+
+	/**
+	 * Method used to calculate the total of an order of the snapshot
+	 * @param index the index of the order
+	 * @return a long, the order total in cents
+	 */
+	public long orderTotalCents(int index)
+	{
+		return new OrderFlyweight().wrap(map, recordOffset(index)).calcOrderTotalCents();
+	}
+
+	/**
+	 * Getter to get the total of all orders in the snapshot
+	 * @return a long, the total in cents
+	 */
+	public long getRevenueCents()
+	{
+		return map.getLong(16);
+	}
+
+	/**
+	 * Getter to get the number of beverages of a type in the snapshot
+	 * @param type the beverage type
+	 * @return an int, the number of beverages of the type
+	 */
+	public int getBeverageCount(TYPE type)
+	{
+		return map.getInt(COUNTS_OFFSET + 4 * type.ordinal());
+	}
+
+	/**
+	 * Getter to get the sales of a day of the week in the snapshot
+	 * @param day the day of the week
+	 * @return a long, the sales on that day in cents
+	 */
+	public long getCentsOnDay(DAY day)
+	{
+		return map.getLong(DAYS_OFFSET + 8 * day.ordinal());
+	}
+
+	/**
+	 * Method used to total every order of the snapshot again, reading each order in place with flyweights
+	 * @return an OrderAggregates, the totals of the snapshot's orders
+	 */
+	public OrderAggregates aggregate()
+	{
+		OrderAggregates totals = new OrderAggregates();
+		OrderFlyweight order = new OrderFlyweight();
+		BeverageFlyweight bev = new BeverageFlyweight();
+		for (int i = 0; i < size; i++)
+		{
+			getOrder(i, order);
+			int day = order.getOrderDay().ordinal();
+			totals.ordersByDay[day]++;
+			for (int j = 0; j < order.getTotalItems(); j++)
+			{
+				int cents = order.getBeverage(j, bev).calcPriceCents();
+				totals.totalCents += cents;
+				totals.beverageCounts[bev.getType().ordinal()]++;
+				totals.centsByDay[day] += cents;
+				totals.itemCount++;
+			}
+		}
+		totals.orderCount = size;
+		return totals;
+	}
+
+	/**
+	 * Method used to add the revenue cube of the snapshot to a cube
+	 * @param cube the cube
+	 */
+	void addCubeTo(RevenueCube cube)
+	{
+		cube.add(map, CUBE_OFFSET);
+	}
+
+	/**
+	 * Method used to get the position of an order's record in the file
+	 * @param index the index of the order
+	 * @return an int, the position of the record
+	 */
+	private int recordOffset(int index)
+	{
+		if (index < 0 || index >= size)
+		{
+			throw new IndexOutOfBoundsException("order " + index + " of " + size);
+		}
+		return map.getInt(HEADER_SIZE + 4 * index);
+	}
+
+	/**
+	 * Method used to get the position of an index slot in the file
+	 * @param n the number of orders
+	 * @param slot the index slot
+	 * @return an int, the position of the slot
+	 */
+	private static int indexOffset(int n, int slot)
+	{
+		return HEADER_SIZE + 4 * n + 8 * slot;
+	}
+
+	/**
+	 * Method used to add an order to the index being written, keeping the first order if a number repeats
+	 * @param out the file being written
+	 * @param n the number of orders
+	 * @param mask the index capacity minus one
+	 * @param orderNo the order number
+	 * @param index the index of the order
+	 */
+	private static void putIndex(ByteBuffer out, int n, int mask, int orderNo, int index)
+	{
+		int i = OrderIndex.mix(orderNo) & mask;
+		while (out.getInt(indexOffset(n, i) + 4) != EMPTY)
+		{
+			if (out.getInt(indexOffset(n, i)) == orderNo)
+			{
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+		out.putInt(indexOffset(n, i), orderNo);
+		out.putInt(indexOffset(n, i) + 4, index);
+	}
+}
@@ -0,0 +1,187 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Beverage.TYPE;
+import Data_Structures.Order.DAY;
+import Data_Structures.ShopMetrics.OPERATION;
+
+/**
+ * This class represents one register (terminal) of a ConcurrentBevShop. Each terminal has its own
+ * current order, so several terminals can take orders at the same time while sharing the shop's order log.
+ * A terminal is meant to be used by one thread at a time.
+ */
+public class ShopTerminal
+{
+	private final ConcurrentBevShop shop;
+	private final ShopMetrics metrics;
+	private final int stripe;
+	private Order thisOrder;
+
+	/**
+	 * Standard constructor to build a ShopTerminal object
+	 * @param shop the shop the terminal belongs to
+	 * @param stripe the lock stripe used by this terminal
+	 */
+	ShopTerminal(ConcurrentBevShop shop, int stripe)
+	{
+		this.shop = shop;
+		this.metrics = shop.getMetrics();
+		this.stripe = stripe;
+	}
+
+	/**
+	 * Method used to start a new order on this terminal and add it to the shop's order log
+	 * @param time the order time
+	 * @param day the order day
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 */
+	public void startNewOrder(int time, DAY day, String customerName, int customerAge)
+	{
+		long start = metrics.start(OPERATION.START_ORDER);
+		try
+		{
+			thisOrder = shop.newOrder(time, day, customerName, customerAge, stripe);
+		}
+		finally
+		{
+			metrics.stop(OPERATION.START_ORDER, start);
+		}
+	}
+
+	/**
+	 * Method used to add a coffee (object) to this terminal's current order
+	 * @param bevName Beverage name
+	 * @param size Beverage size
+	 * @param extraShot If the customer wants an extra shot
+	 * @param extraSyrup If the customer wants extra syrup
+	 */
+	public void processCoffeeOrder(String bevName, SIZE size, boolean extraShot, boolean extraSyrup)
+	{
+		long start = metrics.start(OPERATION.PROCESS_COFFEE);
+		try
+		{
+			Beverage bev;
+			synchronized (thisOrder)
+			{
+				thisOrder.addNewBeverage(bevName, size, extraShot, extraSyrup);
+				bev = thisOrder.getBeverage(thisOrder.getTotalItems() - 1);
+			}
+			shop.addToTotals(bev);
+		}
+		finally
+		{
+			metrics.stop(OPERATION.PROCESS_COFFEE, start);
+		}
+	}
+
+	/**
+	 * Method used to add an alcoholic drink (object) to this terminal's current order
+	 * @param bevName the name of the drink
+	 * @param size the size of the drink
+	 */
+	public void processAlcoholOrder(String bevName, SIZE size)
+	{
+		long start = metrics.start(OPERATION.PROCESS_ALCOHOL);
+		try
+		{
+			Beverage bev;
+			synchronized (thisOrder)
+			{
+				thisOrder.addNewBeverage(bevName, size);
+				bev = thisOrder.getBeverage(thisOrder.getTotalItems() - 1);
+			}
+			shop.addToTotals(bev);
+		}
+		finally
+		{
+			metrics.stop(OPERATION.PROCESS_ALCOHOL, start);
+		}
+	}
+
+	/**
+	 * Method used to add a smoothie (object) to this terminal's current order
+	 * @param bevName the beverage name
+	 * @param size beverage size
+	 * @param numOfFruits How many fruits the customer wants
+	 * @param addProtein Whether the customer wants protein
+	 */
+	public void processSmoothieOrder(String bevName, SIZE size, int numOfFruits, boolean addProtein)
+	{
+		long start = metrics.start(OPERATION.PROCESS_SMOOTHIE);
+		try
+		{
+			Beverage bev;
+			synchronized (thisOrder)
+			{
+				thisOrder.addNewBeverage(bevName, size, addProtein, numOfFruits);
+				bev = thisOrder.getBeverage(thisOrder.getTotalItems() - 1);
+			}
+			shop.addToTotals(bev);
+		}
+		finally
+		{
+			metrics.stop(OPERATION.PROCESS_SMOOTHIE, start);
+		}
+	}
+
+	/**
+	 * Method used to determine if the customer of this terminal's current order may order another alcoholic drink
+	 * @return a boolean, whether the customer may order another alcoholic drink or not
+	 */
+	public boolean eligibleForMore()
+	{
+		return getNumOfAlcoholDrink() < shop.getMaxOrderForAlcohol();
+	}
+
+	/**
+	 * Method used to count the number of alcoholic drinks in this terminal's current order
+	 * @return an int, the number of alcoholic drinks in the current order
+	 */
+	public int getNumOfAlcoholDrink()
+	{
+		if (thisOrder == null)
+		{
+			return 0;
+		}
+
+		synchronized (thisOrder)
+		{
+			return thisOrder.findNumOfBeveType(TYPE.ALCOHOLIC);
+		}
+	}
+
+	/**
+	 * Method used to get this terminal's current order
+	 * @return an Order, a copy of the current order
+	 */
+	public Order getCurrentOrder()
+	{
+		synchronized (thisOrder)
+		{
+			return new Order(thisOrder);
+		}
+	}
+
+	/**
+	 * Setter to set this terminal's current order, used when a complete order is added through the shop
+	 * @param order the new current order
+	 */
+	void setCurrentOrder(Order order)
+	{
+		thisOrder = order;
+	}
+
+	/**
+	 * Getter to get the lock stripe used by this terminal
+	 * @return an int, the lock stripe
+	 */
+	int getStripe()
+	{
+		return stripe;
+	}
+}
@@ -0,0 +1,92 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Data_Structures;
+
+import Data_Structures.Beverage.TYPE;
+
+/**
+ * This class represents the running totals of a beverage shop: the revenue, the number of orders
+ * and the number of beverages of each type. The totals are updated as orders are started and
+ * beverages are added, so reading them does not require going over every order again.
+ * Revenue is kept in whole cents, so the running total is the same as summing every order again.
+ */
+public class ShopTotals
+{
+	private static final TYPE[] TYPES = TYPE.values();
+
+	private long revenueCents;
+	private int orderCount;
+	private final int[] beverageCounts = new int[TYPES.length];
+
+	/**
+	 * Method used to count a newly started order
+	 */
+	public void addOrder()
+	{
+		orderCount++;
+	}
+
+	/**
+	 * Method used to add a beverage to the revenue and to the count of its type
+	 * @param bev the beverage added to an order
+	 */
+	public void addBeverage(Beverage bev)
+	{
+		revenueCents += bev.calcPriceCents();
+		beverageCounts[bev.getType().ordinal()]++;
+	}
+
+	/**
+	 * Method used to add the orders of a snapshot to the totals without reading them
+	 * @param snapshot the snapshot
+	 */
+	public void addSnapshot(ShopSnapshot snapshot)
+	{
+		revenueCents += snapshot.getRevenueCents();
+		orderCount += snapshot.size();
+
+		for (int i = 0; i < TYPES.length; i++)
+		{
+			beverageCounts[i] += snapshot.getBeverageCount(TYPES[i]);
+		}
+	}
+
+	/**
+	 * Getter to get the total revenue
+	 * @return a double, the total revenue
+	 */
+	public double getRevenue()
+	{
+		return PricingEngine.toPrice(revenueCents);
+	}
+
+	/**
+	 * Getter to get the total revenue in cents
+	 * @return a long, the total revenue in cents
+	 */
+	public long getRevenueCents()
+	{
+		return revenueCents;
+	}
+
+	/**
+	 * Getter to get the number of orders
+	 * @return an int, the number of orders
+	 */
+	public int getOrderCount()
+	{
+		return orderCount;
+	}
+
+	/**
+	 * Getter to get the number of beverages of a type
+	 * @param type the beverage type
+	 * @return an int, the number of beverages of the type
+	 */
+	public int getBeverageCount(TYPE type)
+	{
+		return beverageCounts[type.ordinal()];
+	}
+}
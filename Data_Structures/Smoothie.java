@@ -14,9 +14,9 @@ import Data_Structures.Beverage.TYPE;
 public class Smoothie extends Beverage
 {
 	private boolean protein = false;
-	private final double PROTEIN = 1.50;
+	static final double PROTEIN = 1.50;
 	private int numFruits = 0;
-	private final double FRUIT = .50;
+	static final double FRUIT = .50;
 	
 	/**
 	 * Standard constructor to build a Smoothie object
@@ -32,6 +32,27 @@ public class Smoothie extends Beverage
 		this.numFruits = numFruits;
 	}
 	
+	/**
+	 * Copy constructor for a Smoothie object
+	 * @param o2 object to copy
+	 */
+	public Smoothie(Smoothie o2)
+	{
+		super(o2);
+		this.protein = o2.protein;
+		this.numFruits = o2.numFruits;
+	}
+	
+	/**
+	 * Method used to make an independent copy of the drink
+	 * @return a Smoothie, the copy of the drink
+	 */
+	@Override
+	public Smoothie copy()
+	{
+		return new Smoothie(this);
+	}
+	
 	/**
 	 * toString method used to print out the pertinent information about each drink
 	 * @return a string, the information about the drink
@@ -43,35 +64,27 @@ public class Smoothie extends Beverage
 	}
 	
 	/**
-	 * Method for calculating the price of each individual drink
-	 * @return a double, the price of the drink
+	 * Method for getting the smoothie options as PricingEngine flags
+	 * @return an int, the option flags of the drink
 	 */
 	@Override
-	public double calcPrice()
+	public int getOptionFlags()
 	{
-		double sum = 0;
-		
-		switch (this.getSize())
-		{
-			case SMALL: sum += this.SMALL_PRICE;
-						break;
-			case MEDIUM: sum += this.MEDIUM_PRICE;
-						break;
-			case LARGE: sum += this.LARGE_PRICE;
-						break;
-		}
-		
-		if (protein)
-		{
-			sum += PROTEIN;
-		}
-		
-		for (int i = 0; i < numFruits; i++)
+		return PricingEngine.smoothieFlags(protein, numFruits);
+	}
+	
+	/**
+	 * Method for calculating the price of the smoothie in cents, also for more fruits than the price table holds
+	 * @return an int, the price of the drink in cents
+	 */
+	@Override
+	public int calcPriceCents()
+	{
+		if (numFruits > PricingEngine.MAX_TABLE_FRUITS)
 		{
-			sum += FRUIT;
+			return PricingEngine.smoothieCents(getPriceVersion(), getSize(), protein, numFruits);
 		}
-		
-		return sum;
+		return super.calcPriceCents();
 	}
 	
 	/**
@@ -1,6 +1,9 @@
 package Interfaces;
 
+import java.util.List;
+
 import Data_Structures.Order;
+import Data_Structures.OrderRequest;
 import Data_Structures.Beverage.SIZE;
 import Data_Structures.Order.DAY;
 
@@ -97,8 +100,8 @@ public interface BevShopInterface
 	public double totalMonthlySale();
 	
 	/**
-	 * sorts the orders within this bevShop using the Selection
-	 * sort algorithm
+	 * sorts the orders within this bevShop in ascending order
+	 * of order number
 	 */
 	public  void sortOrders();
 	/**
@@ -107,4 +110,21 @@ public interface BevShopInterface
 	 * @return Order in the list of orders at the index 
 	 */
 	public Order getOrderAtIndex(int index);
+	
+	/**
+	 * validates a complete order (time, age, alcohol limit and fruit limit)
+	 * and adds it with all of its beverages in one step; it becomes the
+	 * current order
+	 * @param request the order to add
+	 * @throws IllegalArgumentException if the order is not valid, then nothing is added
+	 */
+	public void processOrder(OrderRequest request);
+	
+	/**
+	 * validates every order of a batch and adds all of them, or none of them
+	 * if any is not valid; the last one becomes the current order
+	 * @param requests the orders to add
+	 * @throws IllegalArgumentException if an order is not valid, then nothing is added
+	 */
+	public void processOrders(List<OrderRequest> requests);
 }
@@ -0,0 +1,17 @@
+package Interfaces;
+
+public interface OrderNumberGeneratorInterface 
+{
+	/**
+	 * returns the next order number. Implementations must be safe to call from several
+	 * threads at once and must not allocate per call
+	 * @return the next order number
+	 */
+	public int nextOrderNumber();
+	
+	/**
+	 * returns the number of order numbers handed out before a number can be repeated
+	 * @return the number of distinct order numbers in one period
+	 */
+	public long period();
+}
@@ -0,0 +1,61 @@
+package Interfaces;
+
+import java.util.Map;
+
+public interface ShopMetricsMXBean
+{
+	/**
+	 * returns the number of calls timed for each operation
+	 * @return the number of calls, by operation name
+	 */
+	public Map<String, Long> getCalls();
+
+	/**
+	 * returns the mean latency of each operation
+	 * @return the mean latency in nanoseconds, by operation name
+	 */
+	public Map<String, Long> getMeanNanos();
+
+	/**
+	 * returns the median latency of each operation
+	 * @return the 50th percentile latency in nanoseconds, by operation name
+	 */
+	public Map<String, Long> getP50Nanos();
+
+	/**
+	 * returns the 99th percentile latency of each operation
+	 * @return the 99th percentile latency in nanoseconds, by operation name
+	 */
+	public Map<String, Long> getP99Nanos();
+
+	/**
+	 * returns the largest latency of each operation
+	 * @return the maximum latency in nanoseconds, by operation name
+	 */
+	public Map<String, Long> getMaxNanos();
+
+	/**
+	 * returns the metrics in the plain-text scrape format
+	 * @return the scrape output
+	 */
+	public String getScrape();
+
+	/**
+	 * checks if an operation is being timed
+	 * @param operation the operation name, such as START_ORDER
+	 * @return true if the operation is timed, false otherwise
+	 */
+	public boolean isEnabled(String operation);
+
+	/**
+	 * turns timing of an operation on or off
+	 * @param operation the operation name, such as START_ORDER
+	 * @param enabled whether the operation is timed
+	 */
+	public void setEnabled(String operation, boolean enabled);
+
+	/**
+	 * forgets every call and latency recorded
+	 */
+	public void reset();
+}
@@ -0,0 +1,303 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.ConcurrentBevShop;
+import Data_Structures.Order.DAY;
+
+/**
+ * This class represents a client of an OrderServer, one connection used by one thread at a time. The main method
+ * is a load test: it opens a number of connections, takes orders on all of them at once and reports requests per second.
+ */
+public class OrderClient implements Closeable
+{
+	private static final SIZE[] SIZES = SIZE.values();
+	private static final DAY[] DAYS = DAY.values();
+
+	private final Socket socket;
+	private final BufferedReader in;
+	private final Writer out;
+
+	/**
+	 * Standard constructor to build an OrderClient connected to a server
+	 * @param host the server host
+	 * @param port the server port
+	 * @throws IOException if the server cannot be reached
+	 */
+	public OrderClient(String host, int port) throws IOException
+	{
+		socket = new Socket(host, port);
+		socket.setTcpNoDelay(true);
+		in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8));
+		out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Method used to send a request and wait for its response
+	 * @param request the request line
+	 * @return a String, the response line
+	 * @throws IOException if the connection fails
+	 */
+	public String send(String request) throws IOException
+	{
+		out.write(request);
+		out.write('\n');
+		out.flush();
+
+		String response = in.readLine();
+		if (response == null)
+		{
+			throw new EOFException("server closed the connection");
+		}
+		return response;
+	}
+
+	/**
+	 * Method used to start a new order
+	 * @param time the order time
+	 * @param day the order day
+	 * @param customerName the customers name
+	 * @param customerAge the customers age
+	 * @return an int, the order number
+	 * @throws IOException if the connection fails
+	 * @throws IllegalArgumentException if the server rejects the order
+	 */
+	public int startNewOrder(int time, DAY day, String customerName, int customerAge) throws IOException
+	{
+		return Integer.parseInt(result(send("START " + time + " " + day + " " + customerAge + " " + customerName)));
+	}
+
+	/**
+	 * Method used to add a coffee to the current order
+	 * @param bevName Beverage name
+	 * @param size Beverage size
+	 * @param extraShot If the customer wants an extra shot
+	 * @param extraSyrup If the customer wants extra syrup
+	 * @throws IOException if the connection fails
+	 * @throws IllegalArgumentException if the server rejects the beverage
+	 */
+	public void processCoffeeOrder(String bevName, SIZE size, boolean extraShot, boolean extraSyrup) throws IOException
+	{
+		result(send("COFFEE " + size + " " + extraShot + " " + extraSyrup + " " + bevName));
+	}
+
+	/**
+	 * Method used to add an alcoholic drink to the current order
+	 * @param bevName the name of the drink
+	 * @param size the size of the drink
+	 * @throws IOException if the connection fails
+	 * @throws IllegalArgumentException if the server rejects the drink
+	 */
+	public void processAlcoholOrder(String bevName, SIZE size) throws IOException
+	{
+		result(send("ALCOHOL " + size + " " + bevName));
+	}
+
+	/**
+	 * Method used to add a smoothie to the current order
+	 * @param bevName the beverage name
+	 * @param size beverage size
+	 * @param numOfFruits How many fruits the customer wants
+	 * @param addProtein Whether the customer wants protein
+	 * @throws IOException if the connection fails
+	 * @throws IllegalArgumentException if the server rejects the beverage
+	 */
+	public void processSmoothieOrder(String bevName, SIZE size, int numOfFruits, boolean addProtein) throws IOException
+	{
+		result(send("SMOOTHIE " + size + " " + numOfFruits + " " + addProtein + " " + bevName));
+	}
+
+	/**
+	 * Method used to get the total price of an order given it's order number
+	 * @param orderNo the order number
+	 * @return a double, the order total, or -1 if it is not found
+	 * @throws IOException if the connection fails
+	 */
+	public double totalOrderPrice(int orderNo) throws IOException
+	{
+		return Double.parseDouble(result(send("TOTAL " + orderNo)));
+	}
+
+	/**
+	 * Method used to find an order via order number
+	 * @param orderNo the order number
+	 * @return an int, the index of the order, or -1 if it is not found
+	 * @throws IOException if the connection fails
+	 */
+	public int findOrder(int orderNo) throws IOException
+	{
+		return Integer.parseInt(result(send("FIND " + orderNo)));
+	}
+
+	/**
+	 * Method used to end the session and close the connection
+	 * @throws IOException if the connection cannot be closed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			out.write("QUIT\n");
+			out.flush();
+		}
+		catch (IOException e)
+		{
+			// the server may already be gone
+		}
+		socket.close();
+	}
+
+	/**
+	 * Method used to get the result of a response
+	 * @param response the response line
+	 * @return a String, the result after "OK", empty if there is none
+	 * @throws IllegalArgumentException with the reason if the response is an error
+	 */
+	private static String result(String response)
+	{
+		if (response.equals("OK"))
+		{
+			return "";
+		}
+		if (response.startsWith("OK "))
+		{
+			return response.substring(3);
+		}
+		throw new IllegalArgumentException(response.startsWith("ERR ") ? response.substring(4) : response);
+	}
+
+	/**
+	 * Method used to load test a server. Each connection runs in its own thread and repeatedly starts an order, adds
+	 * two beverages and asks for the order total. With no host given, an OrderServer on a ConcurrentBevShop is started
+	 * in this process. Arguments are key=value pairs: host, port (7070), connections (16), orders per connection (5000)
+	 * @param args the arguments
+	 * @throws Exception if a connection fails
+	 */
+	public static void main(String[] args) throws Exception
+	{
+		String host = null;
+		int port = 7070;
+		int connections = 16;
+		int orders = 5000;
+		for (String arg : args)
+		{
+			int eq = arg.indexOf('=');
+			String key = eq == -1 ? arg : arg.substring(0, eq);
+			String value = eq == -1 ? "" : arg.substring(eq + 1);
+			switch (key)
+			{
+				case "host":		host = value;
+									break;
+				case "port":		port = Integer.parseInt(value);
+									break;
+				case "connections":	connections = Integer.parseInt(value);
+									break;
+				case "orders":		orders = Integer.parseInt(value);
+									break;
+				default:			throw new IllegalArgumentException("unknown argument: " + arg);
+			}
+		}
+
+		OrderServer server = null;
+		if (host == null)
+		{
+			server = new OrderServer(new ConcurrentBevShop(), 0);
+			server.start();
+			host = "localhost";
+			port = server.getPort();
+		}
+
+		try
+		{
+			run(host, port, connections, orders);
+		}
+		finally
+		{
+			if (server != null)
+			{
+				server.close();
+			}
+		}
+	}
+
+	/**
+	 * Method used to run the load test and print the request rate
+	 * @param host the server host
+	 * @param port the server port
+	 * @param connections the number of connections
+	 * @param orders the number of orders per connection
+	 * @return a long, the number of requests sent
+	 * @throws Exception if a connection fails
+	 */
+	private static long run(String host, int port, int connections, int orders) throws Exception
+	{
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicLong requests = new AtomicLong();
+		Exception[] failure = new Exception[1];
+		Thread[] threads = new Thread[connections];
+		SplittableRandom seeds = new SplittableRandom(42);
+
+		for (int c = 0; c < connections; c++)
+		{
+			SplittableRandom random = seeds.split();
+			threads[c] = new Thread(() ->
+			{
+				try (OrderClient client = new OrderClient(host, port))
+				{
+					start.await();
+					for (int i = 0; i < orders; i++)
+					{
+						int orderNo = client.startNewOrder(8 + random.nextInt(16), DAYS[random.nextInt(DAYS.length)], "Kiosk Customer", 18 + random.nextInt(50));
+						client.processCoffeeOrder("Latte", SIZES[random.nextInt(SIZES.length)], random.nextBoolean(), random.nextBoolean());
+						client.processSmoothieOrder("Berry Blast", SIZES[random.nextInt(SIZES.length)], random.nextInt(6), random.nextBoolean());
+						client.totalOrderPrice(orderNo);
+					}
+					requests.addAndGet(4L * orders);
+				}
+				catch (Exception e)
+				{
+					synchronized (failure)
+					{
+						failure[0] = e;
+					}
+				}
+			});
+			threads[c].start();
+		}
+
+		long begin = System.nanoTime();
+		start.countDown();
+		for (Thread thread : threads)
+		{
+			thread.join();
+		}
+		long elapsed = System.nanoTime() - begin;
+		if (failure[0] != null)
+		{
+			throw failure[0];
+		}
+
+		System.out.printf("%d connections, %d requests in %.2f s: %.0f requests/s, %.1f us per request per connection%n",
+							connections, requests.get(), elapsed / 1e9, requests.get() * 1e9 / elapsed,
+							elapsed / 1e3 / (requests.get() / (double) connections));
+		return requests.get();
+	}
+}
@@ -0,0 +1,626 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import Data_Structures.BevShop;
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.ConcurrentBevShop;
+import Data_Structures.Order.DAY;
+import Data_Structures.ShopTerminal;
+import Interfaces.BevShopInterface;
+
+/**
+ * This class represents a small network front end that lets remote registers and kiosks take orders on one shop.
+ * Every connection gets its own thread, a virtual thread when the JDK has them (Java 21 and later) and a daemon
+ * platform thread with a small stack otherwise, so idle kiosk connections cost very little.
+ *
+ * The protocol is one request per line and one response per line, "OK" followed by a result or "ERR" followed
+ * by the reason. Names are the rest of the line, so they may contain spaces:
+ * <pre>
+ * START time day age customer name     -> OK orderNumber
+ * COFFEE size shot syrup beverage name -> OK
+ * ALCOHOL size beverage name           -> OK
+ * SMOOTHIE size fruits protein name    -> OK
+ * TOTAL orderNumber                    -> OK orderTotal, or -1 if the order is not found
+ * FIND orderNumber                     -> OK index, or -1 if the order is not found
+ * SALES                                -> OK totalMonthlySale
+ * QUIT                                 -> closes the connection
+ * </pre>
+ * On a ConcurrentBevShop each connection opens its own ShopTerminal, so many registers take orders at once.
+ * Any other shop is not thread safe and shares one current order, so its requests are run one at a time and
+ * it should only serve a single register.
+ */
+public class OrderServer implements Closeable
+{
+	private static final int PLATFORM_STACK_SIZE = 256 * 1024;
+
+	private final BevShopInterface shop;
+	private final ServerSocket socket;
+	private final ThreadFactory connectionThreads;
+	private final Set<Socket> connections = ConcurrentHashMap.newKeySet();
+	private final LongAdder requests = new LongAdder();
+	private final Thread acceptor;
+	private volatile boolean closed;
+
+	/**
+	 * Standard constructor to build an OrderServer listening on a port; call start to accept connections
+	 * @param shop the shop the requests are run on
+	 * @param port the port to listen on, or 0 for any free port
+	 * @throws IOException if the port cannot be bound
+	 */
+	public OrderServer(BevShopInterface shop, int port) throws IOException
+	{
+		if (shop == null)
+		{
+			throw new IllegalArgumentException("shop must not be null");
+		}
+		this.shop = shop;
+		this.socket = new ServerSocket();
+		this.socket.bind(new InetSocketAddress(port), 1024);
+		this.connectionThreads = connectionThreads();
+		this.acceptor = new Thread(this::acceptLoop, "order-server-acceptor");
+		this.acceptor.setDaemon(true);
+	}
+
+	/**
+	 * Method used to start accepting connections
+	 */
+	public void start()
+	{
+		acceptor.start();
+	}
+
+	/**
+	 * Getter to get the port the server listens on
+	 * @return an int, the port
+	 */
+	public int getPort()
+	{
+		return socket.getLocalPort();
+	}
+
+	/**
+	 * Getter to get the number of requests answered so far
+	 * @return a long, the number of requests
+	 */
+	public long getRequestCount()
+	{
+		return requests.sum();
+	}
+
+	/**
+	 * Getter to get the number of open connections
+	 * @return an int, the number of connections
+	 */
+	public int getConnectionCount()
+	{
+		return connections.size();
+	}
+
+	/**
+	 * Getter to get whether connections are served by virtual threads
+	 * @return a boolean, whether virtual threads are used
+	 */
+	public boolean usesVirtualThreads()
+	{
+		return !(connectionThreads instanceof PlatformThreads);
+	}
+
+	/**
+	 * Method used to stop accepting connections and close every open connection
+	 * @throws IOException if the server socket cannot be closed
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		closed = true;
+		socket.close();
+		for (Socket connection : connections)
+		{
+			try
+			{
+				connection.close();
+			}
+			catch (IOException e)
+			{
+				// the connection is being dropped anyway
+			}
+		}
+	}
+
+	/**
+	 * Method used by the acceptor thread to hand every new connection to its own thread
+	 */
+	private void acceptLoop()
+	{
+		while (!closed)
+		{
+			Socket connection;
+			try
+			{
+				connection = socket.accept();
+			}
+			catch (IOException e)
+			{
+				if (closed)
+				{
+					return;
+				}
+				continue;
+			}
+
+			connections.add(connection);
+			if (closed)
+			{
+				connections.remove(connection);
+				closeQuietly(connection);
+				return;
+			}
+			connectionThreads.newThread(() -> serve(connection)).start();
+		}
+	}
+
+	/**
+	 * Method used by a connection thread to answer requests until the client quits or disconnects. The responses
+	 * are flushed whenever no further request is waiting, so pipelined requests share writes
+	 * @param connection the client connection
+	 */
+	private void serve(Socket connection)
+	{
+		try
+		{
+			connection.setTcpNoDelay(true);
+			BufferedReader in = new BufferedReader(new InputStreamReader(connection.getInputStream(), StandardCharsets.UTF_8));
+			Writer out = new BufferedWriter(new OutputStreamWriter(connection.getOutputStream(), StandardCharsets.UTF_8));
+			Session session = new Session();
+
+			String line;
+			while ((line = in.readLine()) != null)
+			{
+				if (line.equalsIgnoreCase("QUIT"))
+				{
+					break;
+				}
+
+				String response;
+				try
+				{
+					response = session.handle(line);
+				}
+				catch (IllegalArgumentException | IllegalStateException e)
+				{
+					response = "ERR " + e.getMessage();
+				}
+				requests.increment();
+
+				out.write(response);
+				out.write('\n');
+				if (!in.ready())
+				{
+					out.flush();
+				}
+			}
+			out.flush();
+		}
+		catch (IOException e)
+		{
+			// the client went away or the server was closed, which only ends this session
+		}
+		finally
+		{
+			connections.remove(connection);
+			closeQuietly(connection);
+		}
+	}
+
+	/**
+	 * Method used to close a connection, ignoring errors
+	 * @param connection the connection
+	 */
+	private static void closeQuietly(Socket connection)
+	{
+		try
+		{
+			connection.close();
+		}
+		catch (IOException e)
+		{
+			// nothing left to do with the connection
+		}
+	}
+
+	/**
+	 * Method used to get the factory for connection threads: virtual threads if the JDK has them, found by reflection
+	 * so the shop still builds and runs on Java 17, and small-stack daemon platform threads otherwise
+	 * @return a ThreadFactory, the connection thread factory
+	 */
+	private static ThreadFactory connectionThreads()
+	{
+		try
+		{
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, "order-connection-", 0L);
+			return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+		}
+		catch (ReflectiveOperationException | RuntimeException e)
+		{
+			return new PlatformThreads();
+		}
+	}
+
+	/**
+	 * Method used to run the server on its own, with a ConcurrentBevShop
+	 * @param args the port to listen on, 7070 if not given
+	 * @throws IOException if the port cannot be bound
+	 * @throws InterruptedException if the server is interrupted
+	 */
+	public static void main(String[] args) throws IOException, InterruptedException
+	{
+		int port = args.length > 0 ? Integer.parseInt(args[0]) : 7070;
+		try (OrderServer server = new OrderServer(new ConcurrentBevShop(), port))
+		{
+			server.start();
+			System.out.println("Order server listening on port " + server.getPort()
+								+ (server.usesVirtualThreads() ? " (virtual threads)" : " (platform threads)"));
+
+			long last = server.getRequestCount();
+			while (true)
+			{
+				Thread.sleep(1000);
+				long count = server.getRequestCount();
+				if (count != last)
+				{
+					System.out.println((count - last) + " requests/s, " + server.getConnectionCount() + " connections");
+					last = count;
+				}
+			}
+		}
+	}
+
+	/**
+	 * This class represents the fallback thread factory: daemon platform threads with a small stack
+	 */
+	private static class PlatformThreads implements ThreadFactory
+	{
+		private final AtomicInteger count = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable task)
+		{
+			Thread thread = new Thread(null, task, "order-connection-" + count.getAndIncrement(), PLATFORM_STACK_SIZE);
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	/**
+	 * This class represents the state of one connection: its terminal on a ConcurrentBevShop, and the age of the
+	 * customer of its current order, used to check alcoholic drinks
+	 */
+	private class Session
+	{
+		private final ShopTerminal terminal;
+		private int customerAge = -1;
+
+		/**
+		 * Standard constructor to build a Session, opening a terminal if the shop is a ConcurrentBevShop
+		 */
+		Session()
+		{
+			terminal = shop instanceof ConcurrentBevShop ? ((ConcurrentBevShop) shop).openTerminal() : null;
+		}
+
+		/**
+		 * Method used to answer one request
+		 * @param line the request
+		 * @return a String, the response
+		 */
+		String handle(String line)
+		{
+			if (terminal != null)
+			{
+				return run(new Request(line));
+			}
+			synchronized (shop)
+			{
+				return run(new Request(line));
+			}
+		}
+
+		/**
+		 * Method used to run a parsed request on the shop
+		 * @param request the request
+		 * @return a String, the response
+		 */
+		private String run(Request request)
+		{
+			switch (request.command())
+			{
+				case "START":	return start(request);
+				case "COFFEE":	return coffee(request);
+				case "ALCOHOL":	return alcohol(request);
+				case "SMOOTHIE":	return smoothie(request);
+				case "TOTAL":	return "OK " + shop.totalOrderPrice(request.nextInt());
+				case "FIND":	return "OK " + shop.findOrder(request.nextInt());
+				case "SALES":	return "OK " + shop.totalMonthlySale();
+				default:		throw new IllegalArgumentException("unknown request: " + request.command());
+			}
+		}
+
+		/**
+		 * Method used to start a new order
+		 * @param request the request
+		 * @return a String, the response with the order number
+		 */
+		private String start(Request request)
+		{
+			int time = request.nextInt();
+			DAY day = DAY.valueOf(request.next().toUpperCase(Locale.ROOT));
+			int age = request.nextInt();
+			String name = request.rest();
+			if (!shop.validTime(time))
+			{
+				throw new IllegalArgumentException("invalid order time: " + time);
+			}
+
+			if (terminal != null)
+			{
+				terminal.startNewOrder(time, day, name, age);
+			}
+			else
+			{
+				shop.startNewOrder(time, day, name, age);
+			}
+			customerAge = age;
+			return "OK " + currentOrderNumber();
+		}
+
+		/**
+		 * Method used to add a coffee to the current order
+		 * @param request the request
+		 * @return a String, the response
+		 */
+		private String coffee(Request request)
+		{
+			SIZE size = request.nextSize();
+			boolean shot = request.nextBoolean();
+			boolean syrup = request.nextBoolean();
+			String name = request.rest();
+			checkOrder();
+
+			if (terminal != null)
+			{
+				terminal.processCoffeeOrder(name, size, shot, syrup);
+			}
+			else
+			{
+				shop.processCoffeeOrder(name, size, shot, syrup);
+			}
+			return "OK";
+		}
+
+		/**
+		 * Method used to add an alcoholic drink to the current order, if the customer may have another one
+		 * @param request the request
+		 * @return a String, the response
+		 */
+		private String alcohol(Request request)
+		{
+			SIZE size = request.nextSize();
+			String name = request.rest();
+			checkOrder();
+			if (!shop.validAge(customerAge))
+			{
+				throw new IllegalArgumentException("customer is too young for alcohol: " + customerAge);
+			}
+
+			if (terminal != null)
+			{
+				if (!terminal.eligibleForMore())
+				{
+					throw new IllegalArgumentException("no more alcoholic drinks on this order");
+				}
+				terminal.processAlcoholOrder(name, size);
+			}
+			else
+			{
+				if (!shop.eligibleForMore())
+				{
+					throw new IllegalArgumentException("no more alcoholic drinks on this order");
+				}
+				shop.processAlcoholOrder(name, size);
+			}
+			return "OK";
+		}
+
+		/**
+		 * Method used to add a smoothie to the current order
+		 * @param request the request
+		 * @return a String, the response
+		 */
+		private String smoothie(Request request)
+		{
+			SIZE size = request.nextSize();
+			int fruits = request.nextInt();
+			boolean protein = request.nextBoolean();
+			String name = request.rest();
+			checkOrder();
+			if (fruits < 0 || fruits > BevShopInterface.MAX_FRUIT)
+			{
+				throw new IllegalArgumentException("invalid number of fruits: " + fruits);
+			}
+
+			if (terminal != null)
+			{
+				terminal.processSmoothieOrder(name, size, fruits, protein);
+			}
+			else
+			{
+				shop.processSmoothieOrder(name, size, fruits, protein);
+			}
+			return "OK";
+		}
+
+		/**
+		 * Method used to get the order number of the order this connection just started
+		 * @return an int, the order number, or -1 if the shop does not tell its current order
+		 */
+		private int currentOrderNumber()
+		{
+			if (terminal != null)
+			{
+				return terminal.getCurrentOrder().getOrderNumber();
+			}
+			if (shop instanceof BevShop)
+			{
+				return ((BevShop) shop).getCurrentOrder().getOrderNumber();
+			}
+			return -1;
+		}
+
+		/**
+		 * Method used to check that the connection has started an order
+		 */
+		private void checkOrder()
+		{
+			if (customerAge < 0)
+			{
+				throw new IllegalStateException("no order started on this connection");
+			}
+		}
+	}
+
+	/**
+	 * This class represents a request line being read field by field
+	 */
+	private static class Request
+	{
+		private final String line;
+		private final String command;
+		private int position;
+
+		/**
+		 * Standard constructor to build a Request and read its command
+		 * @param line the request line
+		 */
+		Request(String line)
+		{
+			this.line = line;
+			this.command = next().toUpperCase(Locale.ROOT);
+		}
+
+		/**
+		 * Getter to get the command of the request
+		 * @return a String, the command
+		 */
+		String command()
+		{
+			return command;
+		}
+
+		/**
+		 * Method used to read the next field
+		 * @return a String, the field
+		 */
+		String next()
+		{
+			while (position < line.length() && line.charAt(position) == ' ')
+			{
+				position++;
+			}
+			int end = line.indexOf(' ', position);
+			if (end == -1)
+			{
+				end = line.length();
+			}
+			if (end == position)
+			{
+				throw new IllegalArgumentException("missing field in request: " + line);
+			}
+
+			String field = line.substring(position, end);
+			position = end;
+			return field;
+		}
+
+		/**
+		 * Method used to read the next field as an int
+		 * @return an int, the field
+		 */
+		int nextInt()
+		{
+			String field = next();
+			try
+			{
+				return Integer.parseInt(field);
+			}
+			catch (NumberFormatException e)
+			{
+				throw new IllegalArgumentException("not a number: " + field);
+			}
+		}
+
+		/**
+		 * Method used to read the next field as a boolean
+		 * @return a boolean, the field
+		 */
+		boolean nextBoolean()
+		{
+			String field = next();
+			if (field.equalsIgnoreCase("true"))
+			{
+				return true;
+			}
+			if (field.equalsIgnoreCase("false"))
+			{
+				return false;
+			}
+			throw new IllegalArgumentException("not true or false: " + field);
+		}
+
+		/**
+		 * Method used to read the next field as a beverage size
+		 * @return a SIZE, the field
+		 */
+		SIZE nextSize()
+		{
+			return SIZE.valueOf(next().toUpperCase(Locale.ROOT));
+		}
+
+		/**
+		 * Method used to read the rest of the line, used for names
+		 * @return a String, the rest of the line
+		 */
+		String rest()
+		{
+			String rest = line.substring(position).trim();
+			if (rest.isEmpty())
+			{
+				throw new IllegalArgumentException("missing name in request: " + line);
+			}
+			position = line.length();
+			return rest;
+		}
+	}
+}
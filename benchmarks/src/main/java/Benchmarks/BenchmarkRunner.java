@@ -0,0 +1,39 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * This class is the entry point of benchmarks.jar. It accepts the usual JMH command line (benchmark regex,
+ * -p orders=1000, -rf json, ...) and always adds the GC profiler, so every result also reports the bytes
+ * allocated per operation (gc.alloc.rate.norm) next to the time.
+ *
+ * Usage: java -jar benchmarks/target/benchmarks.jar [JMH options]
+ */
+public class BenchmarkRunner
+{
+	/**
+	 * Method used to run the selected benchmarks with allocation profiling
+	 * @param args the JMH command line options
+	 * @throws CommandLineOptionException if the options cannot be parsed
+	 * @throws RunnerException if a benchmark fails
+	 */
+	public static void main(String[] args) throws CommandLineOptionException, RunnerException
+	{
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		new Runner(options).run();
+	}
+}
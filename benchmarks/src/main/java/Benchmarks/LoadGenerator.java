@@ -0,0 +1,358 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+
+import Data_Structures.BevShop;
+import Data_Structures.Beverage;
+import Data_Structures.Coffee;
+import Data_Structures.ConcurrentBevShop;
+import Data_Structures.LatencyHistogram;
+import Data_Structures.Order;
+import Data_Structures.PermutedOrderNumbers;
+import Data_Structures.Smoothie;
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Order.DAY;
+import Interfaces.BevShopInterface;
+
+/**
+ * This class replays synthetic order traffic against a BevShopInterface from several threads, so peak
+ * hour load can be reproduced offline. Each thread draws its orders from its own random stream split from
+ * the profile's seed, so the same seed and thread count always place the same orders. Alcohol is only
+ * ordered for customers the shop says are old enough and while the shop says the order may have more;
+ * otherwise a coffee is ordered instead. With more than one thread the shop must be thread-safe, such as
+ * a ConcurrentBevShop.
+ *
+ * Usage: java -cp benchmarks/target/benchmarks.jar Benchmarks.LoadGenerator [threads=4] [orders=100000]
+ * [seed=1] [warmup=20000] [shop=concurrent|plain], where orders and warmup are per thread. With a plain
+ * BevShop the run ends by changing copies of its orders and checking that its running totals still match
+ * a full recompute.
+ */
+public class LoadGenerator
+{
+	private static final DAY[] DAYS = DAY.values();
+	private static final SIZE[] SIZES = SIZE.values();
+	private static final String[] COFFEES = {"Latte", "Espresso", "Cappuccino", "Americano", "Mocha"};
+	private static final String[] ALCOHOLS = {"Beer", "Wine", "Cider", "Margarita"};
+	private static final String[] SMOOTHIES = {"Berry", "Mango", "Green", "Banana"};
+	private static final int COFFEE = 0;
+	private static final int ALCOHOL = 1;
+
+	private final LoadProfile profile;
+	private final int[] dayTable;
+	private final int[] hourTable;
+	private final int[] typeTable;
+	private final int[] sizeTable;
+
+	/**
+	 * Standard constructor to build a load generator, later changes to the profile are not seen
+	 * @param profile the shape of the traffic
+	 */
+	public LoadGenerator(LoadProfile profile)
+	{
+		this.profile = profile;
+		this.dayTable = cumulative(profile.getDayWeights());
+		this.hourTable = cumulative(profile.getHourWeights());
+		this.typeTable = cumulative(profile.getTypeWeights());
+		this.sizeTable = cumulative(profile.getSizeWeights());
+	}
+
+	/**
+	 * Method used to place the profile's orders on a shop and measure them
+	 * @param shop the shop, thread-safe if the profile has more than one thread
+	 * @return a LoadReport, the throughput and latencies of the run
+	 * @throws InterruptedException if the calling thread is interrupted while waiting for the workers
+	 */
+	public LoadReport run(BevShopInterface shop) throws InterruptedException
+	{
+		int threads = profile.getThreads();
+		SplittableRandom seeds = new SplittableRandom(profile.getSeed());
+		CountDownLatch start = new CountDownLatch(1);
+		List<Worker> workers = new ArrayList<Worker>(threads);
+		List<Thread> running = new ArrayList<Thread>(threads);
+
+		for (int i = 0; i < threads; i++)
+		{
+			Worker worker = new Worker(shop, seeds.split(), start);
+			Thread thread = new Thread(worker, "load-" + i);
+			workers.add(worker);
+			running.add(thread);
+			thread.start();
+		}
+
+		long began = System.nanoTime();
+		start.countDown();
+		for (Thread thread : running)
+		{
+			thread.join();
+		}
+		long elapsed = System.nanoTime() - began;
+
+		long orders = 0;
+		long items = 0;
+		long substitutions = 0;
+		LatencyHistogram latencies = new LatencyHistogram();
+		for (Worker worker : workers)
+		{
+			if (worker.failure != null)
+			{
+				throw new IllegalStateException("load thread failed", worker.failure);
+			}
+			orders += worker.orders;
+			items += worker.items;
+			substitutions += worker.substitutions;
+			latencies.add(worker.latencies);
+		}
+		return new LoadReport(threads, orders, items, substitutions, elapsed, latencies);
+	}
+
+	/**
+	 * Method used to place one order and all of its beverages
+	 * @param shop the shop
+	 * @param random the calling thread's random stream
+	 * @param worker the calling thread's counters
+	 */
+	private void placeOrder(BevShopInterface shop, SplittableRandom random, Worker worker)
+	{
+		DAY day = DAYS[pick(random, dayTable)];
+		int time = BevShopInterface.MIN_TIME + pick(random, hourTable);
+		int customer = random.nextInt(profile.getCustomers());
+		int age = ageOf(customer);
+		int items = profile.getMinItems() + random.nextInt(profile.getMaxItems() - profile.getMinItems() + 1);
+
+		shop.startNewOrder(time, day, "Customer" + customer, age);
+		for (int i = 0; i < items; i++)
+		{
+			SIZE size = SIZES[pick(random, sizeTable)];
+			int type = pick(random, typeTable);
+
+			if (type == ALCOHOL && !(shop.validAge(age) && shop.eligibleForMore()))
+			{
+				type = COFFEE;
+				worker.substitutions++;
+			}
+
+			if (type == COFFEE)
+			{
+				shop.processCoffeeOrder(COFFEES[random.nextInt(COFFEES.length)], size,
+										random.nextDouble() < profile.getExtraShotChance(),
+										random.nextDouble() < profile.getExtraSyrupChance());
+			}
+			else if (type == ALCOHOL)
+			{
+				shop.processAlcoholOrder(ALCOHOLS[random.nextInt(ALCOHOLS.length)], size);
+			}
+			else
+			{
+				shop.processSmoothieOrder(SMOOTHIES[random.nextInt(SMOOTHIES.length)], size,
+										random.nextInt(profile.getMaxFruits() + 1),
+										random.nextDouble() < profile.getProteinChance());
+			}
+		}
+		worker.items += items;
+	}
+
+	/**
+	 * Method used to get the age of a customer, which is the same every time the customer orders
+	 * @param customer the customer
+	 * @return an int, the customer's age
+	 */
+	private int ageOf(int customer)
+	{
+		long h = (customer + 1) * 0x9E3779B97F4A7C15L;
+		h = (h ^ (h >>> 31)) * 0xBF58476D1CE4E5B9L;
+		int range = profile.getMaxAge() - profile.getMinAge() + 1;
+		return profile.getMinAge() + (int) ((h >>> 33) % range);
+	}
+
+	/**
+	 * Method used to turn weights into running totals for pick
+	 * @param weights the weights
+	 * @return an int array, the running totals of the weights
+	 */
+	private static int[] cumulative(int[] weights)
+	{
+		int[] table = new int[weights.length];
+		int sum = 0;
+		for (int i = 0; i < weights.length; i++)
+		{
+			sum += weights[i];
+			table[i] = sum;
+		}
+		return table;
+	}
+
+	/**
+	 * Method used to pick a choice with a probability proportional to its weight
+	 * @param random the random stream
+	 * @param table the running totals of the weights
+	 * @return an int, the index of the choice
+	 */
+	private static int pick(SplittableRandom random, int[] table)
+	{
+		int r = random.nextInt(table[table.length - 1]);
+		int i = 0;
+		while (table[i] <= r)
+		{
+			i++;
+		}
+		return i;
+	}
+
+	/**
+	 * This class places one thread's share of the orders and keeps that thread's counters
+	 */
+	private class Worker implements Runnable
+	{
+		private final BevShopInterface shop;
+		private final SplittableRandom random;
+		private final CountDownLatch start;
+		private final LatencyHistogram latencies = new LatencyHistogram();
+		private long orders;
+		private long items;
+		private long substitutions;
+		private Throwable failure;
+
+		/**
+		 * Standard constructor to build a worker
+		 * @param shop the shop
+		 * @param random the worker's random stream
+		 * @param start the latch all workers wait on, so they begin together
+		 */
+		Worker(BevShopInterface shop, SplittableRandom random, CountDownLatch start)
+		{
+			this.shop = shop;
+			this.random = random;
+			this.start = start;
+		}
+
+		@Override
+		public void run()
+		{
+			try
+			{
+				start.await();
+				for (int i = 0; i < profile.getOrdersPerThread(); i++)
+				{
+					long began = System.nanoTime();
+					placeOrder(shop, random, this);
+					latencies.record(System.nanoTime() - began);
+					orders++;
+				}
+			}
+			catch (Throwable e)
+			{
+				failure = e;
+			}
+		}
+	}
+
+	/**
+	 * Method used to run the load generator from the command line and print the report
+	 * @param args key=value options: threads, orders (per thread), seed, warmup (orders per thread) and shop (concurrent or plain)
+	 * @throws InterruptedException if the run is interrupted
+	 */
+	public static void main(String[] args) throws InterruptedException
+	{
+		LoadProfile profile = new LoadProfile();
+		profile.setThreads(Runtime.getRuntime().availableProcessors());
+		int warmup = 20000;
+		boolean plain = false;
+
+		for (String arg : args)
+		{
+			int eq = arg.indexOf('=');
+			if (eq < 0)
+			{
+				throw new IllegalArgumentException("expected key=value: " + arg);
+			}
+			String key = arg.substring(0, eq);
+			String value = arg.substring(eq + 1);
+
+			switch (key)
+			{
+				case "threads":	profile.setThreads(Integer.parseInt(value));
+								break;
+				case "orders":	profile.setOrdersPerThread(Integer.parseInt(value));
+								break;
+				case "seed":	profile.setSeed(Long.parseLong(value));
+								break;
+				case "warmup":	warmup = Integer.parseInt(value);
+								break;
+				case "shop":	plain = value.equals("plain");
+								break;
+				default:		throw new IllegalArgumentException("unknown option: " + key);
+			}
+		}
+		if (plain && profile.getThreads() != 1)
+		{
+			throw new IllegalArgumentException("the plain BevShop is not thread-safe, use threads=1");
+		}
+
+		int orders = profile.getOrdersPerThread();
+		profile.setOrdersPerThread(warmup);
+		new LoadGenerator(profile).run(newShop(plain, profile.getSeed()));
+
+		profile.setOrdersPerThread(orders);
+		BevShopInterface shop = newShop(plain, profile.getSeed());
+		System.out.println(new LoadGenerator(profile).run(shop));
+		if (plain)
+		{
+			checkCopies((BevShop) shop);
+		}
+	}
+
+	/**
+	 * Method used to change the copies of orders a shop hands out and check that the shop's running totals still
+	 * match a full recompute, that is that no copy shares a beverage with the order it was copied from
+	 * @param shop the shop, with at least one order
+	 * @throws IllegalStateException if the running totals no longer match
+	 */
+	private static void checkCopies(BevShop shop)
+	{
+		Order[] copies = {shop.getOrderAtIndex(0), shop.getCurrentOrder(), shop.getOrderViewAtIndex(0).toOrder()};
+		for (Order copy : copies)
+		{
+			for (int i = 0; i < copy.getTotalItems(); i++)
+			{
+				Beverage bev = copy.getBeverage(i);
+				bev.setSize(bev.getSize() == SIZE.LARGE ? SIZE.SMALL : SIZE.LARGE);
+				if (bev instanceof Smoothie)
+				{
+					((Smoothie) bev).setFruits(((Smoothie) bev).getFruits() + 1);
+				}
+				else if (bev instanceof Coffee)
+				{
+					((Coffee) bev).setShot(!((Coffee) bev).getShot());
+				}
+			}
+		}
+		shop.auditTotals();
+		System.out.println("running totals match a full recompute after changing copies of orders");
+	}
+
+	/**
+	 * Method used to build an empty shop whose order numbers stay unique for millions of orders
+	 * @param plain whether to build a BevShop instead of a ConcurrentBevShop
+	 * @param seed the seed of the order numbers
+	 * @return a BevShopInterface, the new shop
+	 */
+	private static BevShopInterface newShop(boolean plain, long seed)
+	{
+		if (plain)
+		{
+			BevShop shop = new BevShop();
+			shop.setOrderNumberGenerator(PermutedOrderNumbers.wide(seed));
+			return shop;
+		}
+		ConcurrentBevShop shop = new ConcurrentBevShop();
+		shop.setOrderNumberGenerator(PermutedOrderNumbers.wide(seed));
+		return shop;
+	}
+}
@@ -0,0 +1,382 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Benchmarks;
+
+import Interfaces.BevShopInterface;
+
+/**
+ * This class represents the shape of the traffic a LoadGenerator produces: how many threads place orders,
+ * how many orders each places, which days and hours the orders fall on, the mix of coffee, alcohol and
+ * smoothies, their sizes and options, and the ages of the customers. Weights are relative, so {1, 2, 1}
+ * means the middle choice is picked half of the time. The defaults model a month with busy mornings,
+ * lunches and evenings and busier weekends.
+ */
+public class LoadProfile
+{
+	private long seed = 1L;
+	private int threads = 1;
+	private int ordersPerThread = 100000;
+	private int minItems = 1;
+	private int maxItems = 4;
+	private int customers = 5000;
+	private int minAge = 16;
+	private int maxAge = 70;
+	private int[] dayWeights = {4, 4, 4, 4, 5, 7, 6};
+	private int[] hourWeights = {6, 5, 3, 3, 6, 6, 3, 3, 4, 6, 7, 6, 4, 3, 2, 1};
+	private int[] typeWeights = {6, 2, 2};
+	private int[] sizeWeights = {3, 5, 2};
+	private double extraShotChance = 0.3;
+	private double extraSyrupChance = 0.25;
+	private double proteinChance = 0.4;
+	private int maxFruits = BevShopInterface.MAX_FRUIT;
+
+	/**
+	 * Getter to get the seed the order streams are drawn from
+	 * @return a long, the seed
+	 */
+	public long getSeed()
+	{
+		return seed;
+	}
+
+	/**
+	 * Setter to set the seed the order streams are drawn from, the same seed gives the same orders on every run
+	 * @param seed the seed
+	 */
+	public void setSeed(long seed)
+	{
+		this.seed = seed;
+	}
+
+	/**
+	 * Getter to get the number of threads placing orders
+	 * @return an int, the number of threads
+	 */
+	public int getThreads()
+	{
+		return threads;
+	}
+
+	/**
+	 * Setter to set the number of threads placing orders
+	 * @param threads the number of threads
+	 */
+	public void setThreads(int threads)
+	{
+		if (threads < 1)
+		{
+			throw new IllegalArgumentException("threads must be at least 1: " + threads);
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * Getter to get the number of orders each thread places
+	 * @return an int, the number of orders per thread
+	 */
+	public int getOrdersPerThread()
+	{
+		return ordersPerThread;
+	}
+
+	/**
+	 * Setter to set the number of orders each thread places
+	 * @param ordersPerThread the number of orders per thread
+	 */
+	public void setOrdersPerThread(int ordersPerThread)
+	{
+		if (ordersPerThread < 0)
+		{
+			throw new IllegalArgumentException("ordersPerThread must not be negative: " + ordersPerThread);
+		}
+		this.ordersPerThread = ordersPerThread;
+	}
+
+	/**
+	 * Getter to get the fewest beverages in an order
+	 * @return an int, the minimum number of beverages
+	 */
+	public int getMinItems()
+	{
+		return minItems;
+	}
+
+	/**
+	 * Getter to get the most beverages in an order
+	 * @return an int, the maximum number of beverages
+	 */
+	public int getMaxItems()
+	{
+		return maxItems;
+	}
+
+	/**
+	 * Setter to set the range of the number of beverages in an order, picked uniformly
+	 * @param minItems the minimum number of beverages
+	 * @param maxItems the maximum number of beverages
+	 */
+	public void setItemsPerOrder(int minItems, int maxItems)
+	{
+		if (minItems < 0 || maxItems < minItems)
+		{
+			throw new IllegalArgumentException("invalid item range: " + minItems + " to " + maxItems);
+		}
+		this.minItems = minItems;
+		this.maxItems = maxItems;
+	}
+
+	/**
+	 * Getter to get the number of distinct customers
+	 * @return an int, the number of customers
+	 */
+	public int getCustomers()
+	{
+		return customers;
+	}
+
+	/**
+	 * Setter to set the number of distinct customers the orders are spread over
+	 * @param customers the number of customers
+	 */
+	public void setCustomers(int customers)
+	{
+		if (customers < 1)
+		{
+			throw new IllegalArgumentException("customers must be at least 1: " + customers);
+		}
+		this.customers = customers;
+	}
+
+	/**
+	 * Getter to get the youngest customer age
+	 * @return an int, the minimum age
+	 */
+	public int getMinAge()
+	{
+		return minAge;
+	}
+
+	/**
+	 * Getter to get the oldest customer age
+	 * @return an int, the maximum age
+	 */
+	public int getMaxAge()
+	{
+		return maxAge;
+	}
+
+	/**
+	 * Setter to set the range of customer ages, picked uniformly. Customers under the shop's minimum age for
+	 * alcohol are never served alcohol
+	 * @param minAge the minimum age
+	 * @param maxAge the maximum age
+	 */
+	public void setAges(int minAge, int maxAge)
+	{
+		if (minAge < 0 || maxAge < minAge)
+		{
+			throw new IllegalArgumentException("invalid age range: " + minAge + " to " + maxAge);
+		}
+		this.minAge = minAge;
+		this.maxAge = maxAge;
+	}
+
+	/**
+	 * Getter to get the weights of the order days
+	 * @return an int array, one weight per Order.DAY value
+	 */
+	public int[] getDayWeights()
+	{
+		return dayWeights.clone();
+	}
+
+	/**
+	 * Setter to set the weights of the order days
+	 * @param dayWeights one weight per Order.DAY value, MONDAY first
+	 */
+	public void setDayWeights(int... dayWeights)
+	{
+		this.dayWeights = checkWeights("dayWeights", dayWeights, 7);
+	}
+
+	/**
+	 * Getter to get the weights of the order hours
+	 * @return an int array, one weight per hour from MIN_TIME to MAX_TIME
+	 */
+	public int[] getHourWeights()
+	{
+		return hourWeights.clone();
+	}
+
+	/**
+	 * Setter to set the weights of the order hours
+	 * @param hourWeights one weight per hour from MIN_TIME to MAX_TIME
+	 */
+	public void setHourWeights(int... hourWeights)
+	{
+		this.hourWeights = checkWeights("hourWeights", hourWeights, BevShopInterface.MAX_TIME - BevShopInterface.MIN_TIME + 1);
+	}
+
+	/**
+	 * Getter to get the weights of the beverage types
+	 * @return an int array, the weights of coffee, alcohol and smoothie
+	 */
+	public int[] getTypeWeights()
+	{
+		return typeWeights.clone();
+	}
+
+	/**
+	 * Setter to set the weights of the beverage types
+	 * @param coffee the weight of coffee
+	 * @param alcohol the weight of alcohol
+	 * @param smoothie the weight of smoothies
+	 */
+	public void setTypeWeights(int coffee, int alcohol, int smoothie)
+	{
+		this.typeWeights = checkWeights("typeWeights", new int[] {coffee, alcohol, smoothie}, 3);
+	}
+
+	/**
+	 * Getter to get the weights of the beverage sizes
+	 * @return an int array, the weights of small, medium and large
+	 */
+	public int[] getSizeWeights()
+	{
+		return sizeWeights.clone();
+	}
+
+	/**
+	 * Setter to set the weights of the beverage sizes
+	 * @param small the weight of small
+	 * @param medium the weight of medium
+	 * @param large the weight of large
+	 */
+	public void setSizeWeights(int small, int medium, int large)
+	{
+		this.sizeWeights = checkWeights("sizeWeights", new int[] {small, medium, large}, 3);
+	}
+
+	/**
+	 * Getter to get the chance a coffee has an extra shot
+	 * @return a double, the chance from 0 to 1
+	 */
+	public double getExtraShotChance()
+	{
+		return extraShotChance;
+	}
+
+	/**
+	 * Setter to set the chance a coffee has an extra shot
+	 * @param extraShotChance the chance from 0 to 1
+	 */
+	public void setExtraShotChance(double extraShotChance)
+	{
+		this.extraShotChance = checkChance("extraShotChance", extraShotChance);
+	}
+
+	/**
+	 * Getter to get the chance a coffee has extra syrup
+	 * @return a double, the chance from 0 to 1
+	 */
+	public double getExtraSyrupChance()
+	{
+		return extraSyrupChance;
+	}
+
+	/**
+	 * Setter to set the chance a coffee has extra syrup
+	 * @param extraSyrupChance the chance from 0 to 1
+	 */
+	public void setExtraSyrupChance(double extraSyrupChance)
+	{
+		this.extraSyrupChance = checkChance("extraSyrupChance", extraSyrupChance);
+	}
+
+	/**
+	 * Getter to get the chance a smoothie has protein
+	 * @return a double, the chance from 0 to 1
+	 */
+	public double getProteinChance()
+	{
+		return proteinChance;
+	}
+
+	/**
+	 * Setter to set the chance a smoothie has protein
+	 * @param proteinChance the chance from 0 to 1
+	 */
+	public void setProteinChance(double proteinChance)
+	{
+		this.proteinChance = checkChance("proteinChance", proteinChance);
+	}
+
+	/**
+	 * Getter to get the most fruits in a smoothie
+	 * @return an int, the maximum number of fruits
+	 */
+	public int getMaxFruits()
+	{
+		return maxFruits;
+	}
+
+	/**
+	 * Setter to set the most fruits in a smoothie, picked uniformly from 0. It may not exceed MAX_FRUIT
+	 * @param maxFruits the maximum number of fruits
+	 */
+	public void setMaxFruits(int maxFruits)
+	{
+		if (maxFruits < 0 || maxFruits > BevShopInterface.MAX_FRUIT)
+		{
+			throw new IllegalArgumentException("maxFruits must be from 0 to " + BevShopInterface.MAX_FRUIT + ": " + maxFruits);
+		}
+		this.maxFruits = maxFruits;
+	}
+
+	/**
+	 * Method used to check a list of weights and copy it
+	 * @param name the name of the weights, used in the error message
+	 * @param weights the weights
+	 * @param length the number of weights expected
+	 * @return an int array, a copy of the weights
+	 */
+	private static int[] checkWeights(String name, int[] weights, int length)
+	{
+		if (weights == null || weights.length != length)
+		{
+			throw new IllegalArgumentException(name + " must have " + length + " weights");
+		}
+
+		long sum = 0;
+		for (int weight : weights)
+		{
+			if (weight < 0)
+			{
+				throw new IllegalArgumentException(name + " must not be negative: " + weight);
+			}
+			sum += weight;
+		}
+		if (sum == 0 || sum > Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException(name + " must add up to between 1 and " + Integer.MAX_VALUE);
+		}
+		return weights.clone();
+	}
+
+	/**
+	 * Method used to check a chance
+	 * @param name the name of the chance, used in the error message
+	 * @param chance the chance
+	 * @return a double, the chance
+	 */
+	private static double checkChance(String name, double chance)
+	{
+		if (!(chance >= 0 && chance <= 1))
+		{
+			throw new IllegalArgumentException(name + " must be from 0 to 1: " + chance);
+		}
+		return chance;
+	}
+}
@@ -0,0 +1,150 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Benchmarks;
+
+import java.util.Locale;
+
+import Data_Structures.LatencyHistogram;
+
+/**
+ * This class represents the result of one LoadGenerator run: how much was ordered, how long it took and
+ * how long each order took from startNewOrder to its last beverage.
+ */
+public class LoadReport
+{
+	private final int threads;
+	private final long orders;
+	private final long items;
+	private final long substitutions;
+	private final long elapsedNanos;
+	private final LatencyHistogram latencies;
+
+	/**
+	 * Standard constructor to build a report
+	 * @param threads the number of threads that placed orders
+	 * @param orders the number of orders placed
+	 * @param items the number of beverages ordered
+	 * @param substitutions the number of alcoholic drinks the alcohol rules turned into a coffee
+	 * @param elapsedNanos the wall clock time of the run in nanoseconds
+	 * @param latencies the order latencies of all threads
+	 */
+	public LoadReport(int threads, long orders, long items, long substitutions, long elapsedNanos, LatencyHistogram latencies)
+	{
+		this.threads = threads;
+		this.orders = orders;
+		this.items = items;
+		this.substitutions = substitutions;
+		this.elapsedNanos = elapsedNanos;
+		this.latencies = latencies;
+	}
+
+	/**
+	 * Getter to get the number of threads that placed orders
+	 * @return an int, the number of threads
+	 */
+	public int getThreads()
+	{
+		return threads;
+	}
+
+	/**
+	 * Getter to get the number of orders placed
+	 * @return a long, the number of orders
+	 */
+	public long getOrders()
+	{
+		return orders;
+	}
+
+	/**
+	 * Getter to get the number of beverages ordered
+	 * @return a long, the number of beverages
+	 */
+	public long getItems()
+	{
+		return items;
+	}
+
+	/**
+	 * Getter to get the number of alcoholic drinks the alcohol rules turned into a coffee
+	 * @return a long, the number of substitutions
+	 */
+	public long getSubstitutions()
+	{
+		return substitutions;
+	}
+
+	/**
+	 * Getter to get the wall clock time of the run
+	 * @return a long, the time in nanoseconds
+	 */
+	public long getElapsedNanos()
+	{
+		return elapsedNanos;
+	}
+
+	/**
+	 * Getter to get the order latencies
+	 * @return a LatencyHistogram, the latencies of all orders
+	 */
+	public LatencyHistogram getLatencies()
+	{
+		return latencies;
+	}
+
+	/**
+	 * Method used to get the throughput in orders
+	 * @return a double, the orders placed per second
+	 */
+	public double getOrdersPerSecond()
+	{
+		return perSecond(orders);
+	}
+
+	/**
+	 * Method used to get the throughput in beverages
+	 * @return a double, the beverages ordered per second
+	 */
+	public double getItemsPerSecond()
+	{
+		return perSecond(items);
+	}
+
+	/**
+	 * toString method used to print out the throughput and the latency percentiles
+	 * @return a string, the report
+	 */
+	@Override
+	public String toString()
+	{
+		return String.format(Locale.ROOT,
+				"threads: %d, orders: %d, items: %d, substitutions: %d, elapsed: %.3f s%n"
+				+ "throughput: %.0f orders/s, %.0f items/s%n"
+				+ "order latency (us): mean %.2f, p50 %.2f, p90 %.2f, p99 %.2f, p99.9 %.2f, max %.2f",
+				threads, orders, items, substitutions, elapsedNanos / 1e9,
+				getOrdersPerSecond(), getItemsPerSecond(),
+				latencies.getMean() / 1e3, micros(50), micros(90), micros(99), micros(99.9), latencies.getMax() / 1e3);
+	}
+
+	/**
+	 * Method used to turn a count into a rate over the run
+	 * @param n the count
+	 * @return a double, the count per second
+	 */
+	private double perSecond(long n)
+	{
+		return elapsedNanos == 0 ? 0 : n * 1e9 / elapsedNanos;
+	}
+
+	/**
+	 * Method used to get a latency percentile in microseconds
+	 * @param percentile the percentile
+	 * @return a double, the latency in microseconds
+	 */
+	private double micros(double percentile)
+	{
+		return latencies.getPercentile(percentile) / 1e3;
+	}
+}
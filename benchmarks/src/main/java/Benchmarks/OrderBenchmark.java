@@ -0,0 +1,102 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Data_Structures.Order;
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Order.DAY;
+
+/**
+ * This class benchmarks the per-order hot paths: the three addNewBeverage overloads and calcOrderTotal.
+ * Each addNewBeverage benchmark fills a new order with bevsPerOrder beverages, so the cost of growing the
+ * beverage list is included.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderBenchmark
+{
+	@Param({"1", "4", "16"})
+	public int bevsPerOrder;
+
+	private Order filled;
+
+	/**
+	 * Method used to build the order that calcOrderTotal is measured on
+	 */
+	@Setup
+	public void setUp()
+	{
+		filled = new Order(12, DAY.SATURDAY, "Customer", 30);
+		for (int i = 0; i < bevsPerOrder; i++)
+		{
+			switch (i % 3)
+			{
+				case 0:	filled.addNewBeverage("Latte", SIZE.MEDIUM, true, false);
+						break;
+				case 1:	filled.addNewBeverage("Beer", SIZE.LARGE);
+						break;
+				default:	filled.addNewBeverage("Berry", SIZE.SMALL, true, 3);
+						break;
+			}
+		}
+	}
+
+	@Benchmark
+	public Order addCoffee()
+	{
+		Order order = new Order(12, DAY.SATURDAY, "Customer", 30);
+		for (int i = 0; i < bevsPerOrder; i++)
+		{
+			order.addNewBeverage("Latte", SIZE.MEDIUM, true, false);
+		}
+		return order;
+	}
+
+	@Benchmark
+	public Order addAlcohol()
+	{
+		Order order = new Order(12, DAY.SATURDAY, "Customer", 30);
+		for (int i = 0; i < bevsPerOrder; i++)
+		{
+			order.addNewBeverage("Beer", SIZE.LARGE);
+		}
+		return order;
+	}
+
+	@Benchmark
+	public Order addSmoothie()
+	{
+		Order order = new Order(12, DAY.SATURDAY, "Customer", 30);
+		for (int i = 0; i < bevsPerOrder; i++)
+		{
+			order.addNewBeverage("Berry", SIZE.SMALL, true, 3);
+		}
+		return order;
+	}
+
+	@Benchmark
+	public double calcOrderTotal()
+	{
+		return filled.calcOrderTotal();
+	}
+}
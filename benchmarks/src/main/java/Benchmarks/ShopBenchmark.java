@@ -0,0 +1,97 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Data_Structures.BevShop;
+
+/**
+ * This class benchmarks the whole-shop operations against order logs of 1k to 1M orders. Lookups cycle
+ * through the order numbers in a shuffled order so they do not walk the log in sequence. The toString
+ * benchmark builds the full month report, so the largest logs need a few gigabytes of heap (-Xmx).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ShopBenchmark
+{
+	@Param({"1000", "10000", "100000", "1000000"})
+	public int orders;
+
+	@Param({"1", "4"})
+	public int bevsPerOrder;
+
+	private BevShop shop;
+	private int[] orderNumbers;
+	private int next;
+
+	/**
+	 * Method used to build the shop and the order numbers to look up
+	 */
+	@Setup
+	public void setUp()
+	{
+		shop = ShopFixture.buildShop(orders, bevsPerOrder);
+		orderNumbers = ShopFixture.shuffledOrderNumbers(shop);
+	}
+
+	/**
+	 * Method used to get the next order number to look up
+	 * @return an int, an order number of the shop
+	 */
+	private int nextOrderNumber()
+	{
+		int orderNo = orderNumbers[next];
+		next = next + 1 == orderNumbers.length ? 0 : next + 1;
+		return orderNo;
+	}
+
+	@Benchmark
+	public int findOrder()
+	{
+		return shop.findOrder(nextOrderNumber());
+	}
+
+	@Benchmark
+	public int findMissingOrder()
+	{
+		return shop.findOrder(-nextOrderNumber());
+	}
+
+	@Benchmark
+	public double totalOrderPrice()
+	{
+		return shop.totalOrderPrice(nextOrderNumber());
+	}
+
+	@Benchmark
+	public double totalMonthlySale()
+	{
+		return shop.totalMonthlySale();
+	}
+
+	@Benchmark
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	public String monthReport()
+	{
+		return shop.toString();
+	}
+}
@@ -0,0 +1,88 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Benchmarks;
+
+import java.util.SplittableRandom;
+
+import Data_Structures.BevShop;
+import Data_Structures.PermutedOrderNumbers;
+import Data_Structures.Beverage.SIZE;
+import Data_Structures.Order.DAY;
+import Interfaces.BevShopInterface;
+
+/**
+ * This class builds the shops the benchmarks run against. Shops are filled from a fixed seed so every run
+ * measures the same data, and use the wide order number range so a million orders get unique numbers.
+ */
+public class ShopFixture
+{
+	public static final long SEED = 20240901L;
+
+	private static final SIZE[] SIZES = SIZE.values();
+	private static final DAY[] DAYS = DAY.values();
+	private static final String[] COFFEES = {"Latte", "Espresso", "Cappuccino", "Americano"};
+	private static final String[] ALCOHOLS = {"Beer", "Wine", "Cider"};
+	private static final String[] SMOOTHIES = {"Berry", "Mango", "Green"};
+
+	/**
+	 * Method used to build a shop with a number of orders, each with the same number of beverages
+	 * @param orders the number of orders
+	 * @param bevsPerOrder the number of beverages of each order
+	 * @return a BevShop, the filled shop
+	 */
+	public static BevShop buildShop(int orders, int bevsPerOrder)
+	{
+		SplittableRandom random = new SplittableRandom(SEED);
+		BevShop shop = new BevShop();
+		shop.setOrderNumberGenerator(PermutedOrderNumbers.wide(SEED));
+
+		for (int i = 0; i < orders; i++)
+		{
+			shop.startNewOrder(BevShopInterface.MIN_TIME + random.nextInt(BevShopInterface.MAX_TIME - BevShopInterface.MIN_TIME + 1),
+								DAYS[random.nextInt(DAYS.length)], "Customer" + random.nextInt(1000), 18 + random.nextInt(60));
+
+			for (int j = 0; j < bevsPerOrder; j++)
+			{
+				SIZE size = SIZES[random.nextInt(SIZES.length)];
+				switch (random.nextInt(3))
+				{
+					case 0:	shop.processCoffeeOrder(COFFEES[random.nextInt(COFFEES.length)], size, random.nextBoolean(), random.nextBoolean());
+							break;
+					case 1:	shop.processAlcoholOrder(ALCOHOLS[random.nextInt(ALCOHOLS.length)], size);
+							break;
+					default:	shop.processSmoothieOrder(SMOOTHIES[random.nextInt(SMOOTHIES.length)], size,
+														random.nextInt(BevShopInterface.MAX_FRUIT + 1), random.nextBoolean());
+							break;
+				}
+			}
+		}
+		return shop;
+	}
+
+	/**
+	 * Method used to collect the order numbers of a shop in a shuffled order, for lookups that do not walk the log in sequence
+	 * @param shop the shop
+	 * @return an int array, the shuffled order numbers
+	 */
+	public static int[] shuffledOrderNumbers(BevShop shop)
+	{
+		int n = shop.totalNumOfMonthlyOrders();
+		int[] numbers = new int[n];
+		for (int i = 0; i < n; i++)
+		{
+			numbers[i] = shop.getOrderViewAtIndex(i).getOrderNumber();
+		}
+
+		SplittableRandom random = new SplittableRandom(SEED);
+		for (int i = n - 1; i > 0; i--)
+		{
+			int j = random.nextInt(i + 1);
+			int tmp = numbers[i];
+			numbers[i] = numbers[j];
+			numbers[j] = tmp;
+		}
+		return numbers;
+	}
+}
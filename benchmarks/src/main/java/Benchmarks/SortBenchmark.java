@@ -0,0 +1,59 @@
+/**
+ *  @author Renzo Svartz
+ */
+
+package Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Data_Structures.BevShop;
+
+/**
+ * This class benchmarks sortOrders. Sorting changes the shop, so each measurement is a single sort of a
+ * freshly built, unsorted shop (single shot time), repeated over many iterations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 20)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class SortBenchmark
+{
+	@Param({"1000", "10000", "100000", "1000000"})
+	public int orders;
+
+	@Param({"1", "4"})
+	public int bevsPerOrder;
+
+	private BevShop shop;
+
+	/**
+	 * Method used to build an unsorted shop before every iteration
+	 */
+	@Setup(Level.Iteration)
+	public void setUp()
+	{
+		shop = ShopFixture.buildShop(orders, bevsPerOrder);
+	}
+
+	@Benchmark
+	public BevShop sortOrders()
+	{
+		shop.sortOrders();
+		return shop;
+	}
+}